@@ -0,0 +1,207 @@
+package com.lineate.elastic.api;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import com.lineate.elastic.model.BulkChunkReport;
+import com.lineate.elastic.model.BulkIngestReport;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Sends bulk requests through the async client keeping at most {@code concurrentRequests} of them in flight.
+ * The producer is blocked in {@link #submit} while the window is full. Items rejected by the cluster
+ * (429 / es_rejected_execution_exception) are resent with exponential backoff, other failures are
+ * accounted in the ingest report.
+ */
+public class ElasticBulkPipeline implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticBulkPipeline.class);
+    private static final long MAX_BACKOFF_MS = 30000;
+
+    private final RestHighLevelClient client;
+    private final BulkIngestReport report;
+    private final int concurrentRequests;
+    private final int maxRetries;
+    private final long initialBackoffMs;
+    private final Semaphore inFlight;
+    private final AtomicInteger chunkCounter = new AtomicInteger();
+    private final ScheduledExecutorService retryScheduler;
+
+    public ElasticBulkPipeline(RestHighLevelClient client, BulkIngestReport report,
+                               int concurrentRequests, int maxRetries, long initialBackoffMs) {
+        this.client = client;
+        this.report = report;
+        this.concurrentRequests = Math.max(1, concurrentRequests);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.inFlight = new Semaphore(this.concurrentRequests);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-pipeline-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void submit(final BulkRequest bulkRequest) throws InterruptedException {
+        submit(bulkRequest, null);
+    }
+
+    /**
+     * Sends bulk request asynchronously, blocks while there are already {@code concurrentRequests} in flight.
+     *
+     * @param bulkRequest request to send
+     * @param onComplete  optional callback invoked once the cluster has acknowledged every item of the request,
+     *                    i.e. each item is either indexed or failed permanently. It is not invoked when
+     *                    the request itself failed or rejected items ran out of retries.
+     */
+    public void submit(final BulkRequest bulkRequest, final Consumer<BulkChunkReport> onComplete)
+            throws InterruptedException {
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        inFlight.acquire();
+        Chunk chunk = new Chunk(chunkCounter.incrementAndGet(), bulkRequest, onComplete);
+        execute(bulkRequest, chunk, 0);
+    }
+
+    /**
+     * Waits until all submitted requests (including retries) are completed.
+     *
+     * @return aggregated ingest report
+     */
+    public BulkIngestReport awaitCompletion() throws InterruptedException {
+        inFlight.acquire(concurrentRequests);
+        inFlight.release(concurrentRequests);
+        return report;
+    }
+
+    @Override
+    public void close() {
+        try {
+            awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticActionFailedException("Interrupted while waiting for bulk requests to complete.", e);
+        } finally {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    private void execute(final BulkRequest bulkRequest, final Chunk chunk, final int attempt) {
+        try {
+            client.bulkAsync(bulkRequest, RequestOptions.DEFAULT, ActionListener.wrap(
+                    response -> onResponse(bulkRequest, response, chunk, attempt),
+                    e -> onFailure(bulkRequest, e, chunk, attempt)));
+        } catch (RuntimeException e) {
+            onFailure(bulkRequest, e, chunk, attempt);
+        }
+    }
+
+    private void onResponse(final BulkRequest bulkRequest, final BulkResponse response,
+                            final Chunk chunk, final int attempt) {
+        chunk.tookMs += response.getTook().millis();
+        if (!response.hasFailures()) {
+            complete(chunk);
+            return;
+        }
+
+        List<DocWriteRequest<?>> requests = bulkRequest.requests();
+        BulkRequest retryRequest = new BulkRequest();
+        BulkItemResponse[] items = response.getItems();
+        for (int i = 0; i < items.length; i++) {
+            BulkItemResponse item = items[i];
+            if (!item.isFailed()) {
+                continue;
+            }
+            if (item.status() == RestStatus.TOO_MANY_REQUESTS && attempt < maxRetries) {
+                retryRequest.add(requests.get(i));
+            } else {
+                if (item.status() == RestStatus.TOO_MANY_REQUESTS) {
+                    chunk.unacknowledged = true;
+                }
+                if (chunk.failed == 0) {
+                    LOGGER.warn("Could not index document {} in chunk {}: {}",
+                            item.getId(), chunk.number, item.getFailureMessage());
+                }
+                chunk.failed++;
+            }
+        }
+
+        if (retryRequest.numberOfActions() > 0) {
+            scheduleRetry(retryRequest, chunk, attempt + 1);
+        } else {
+            complete(chunk);
+        }
+    }
+
+    private void onFailure(final BulkRequest bulkRequest, final Exception e, final Chunk chunk, final int attempt) {
+        if (ExceptionsHelper.status(e) == RestStatus.TOO_MANY_REQUESTS && attempt < maxRetries) {
+            scheduleRetry(bulkRequest, chunk, attempt + 1);
+            return;
+        }
+        LOGGER.warn("Bulk request for chunk {} failed after {} attempts", chunk.number, attempt + 1, e);
+        chunk.failed += bulkRequest.numberOfActions();
+        chunk.unacknowledged = true;
+        complete(chunk);
+    }
+
+    private void scheduleRetry(final BulkRequest retryRequest, final Chunk chunk, final int attempt) {
+        long delayMs = Math.min(MAX_BACKOFF_MS, initialBackoffMs << Math.min(attempt - 1, 20));
+        LOGGER.info("Retrying {} rejected items of chunk {} in {} ms (attempt {} of {})",
+                retryRequest.numberOfActions(), chunk.number, delayMs, attempt, maxRetries);
+        chunk.retries += retryRequest.numberOfActions();
+        report.addRetries(retryRequest.numberOfActions());
+        retryScheduler.schedule(() -> execute(retryRequest, chunk, attempt), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void complete(final Chunk chunk) {
+        try {
+            BulkChunkReport chunkReport = new BulkChunkReport(chunk.number, chunk.items, chunk.failed,
+                    chunk.bytes, chunk.tookMs);
+            LOGGER.info("Chunk {}: {} items ({} failed, {} retried, {} bytes) indexed in {} ms",
+                    chunk.number, chunk.items, chunk.failed, chunk.retries, chunk.bytes, chunk.tookMs);
+            report.addChunk(chunkReport);
+            if (chunk.onComplete != null && !chunk.unacknowledged) {
+                chunk.onComplete.accept(chunkReport);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error occurred while completing chunk {}", chunk.number, e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static class Chunk {
+        private final int number;
+        private final int items;
+        private final long bytes;
+        private final Consumer<BulkChunkReport> onComplete;
+        private volatile int failed;
+        private volatile int retries;
+        private volatile long tookMs;
+        private volatile boolean unacknowledged;
+
+        Chunk(int number, BulkRequest bulkRequest, Consumer<BulkChunkReport> onComplete) {
+            this.number = number;
+            this.items = bulkRequest.numberOfActions();
+            this.bytes = bulkRequest.estimatedSizeInBytes();
+            this.onComplete = onComplete;
+        }
+    }
+}
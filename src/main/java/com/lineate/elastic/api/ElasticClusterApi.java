@@ -0,0 +1,142 @@
+package com.lineate.elastic.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import com.lineate.elastic.model.NodeDiskStats;
+import com.lineate.elastic.model.NodeLoadStats;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Cluster level calls that are not covered by the high level client, made through its low level client.
+ */
+public class ElasticClusterApi {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticClusterApi.class);
+    private static final String NODE_LOAD_STATS_FILTER = "nodes.*.os.cpu.percent,"
+            + "nodes.*.thread_pool.search.queue,nodes.*.thread_pool.search.rejected,"
+            + "nodes.*.thread_pool.write.queue,nodes.*.thread_pool.write.rejected,"
+            + "nodes.*.indices.search.query_total,nodes.*.indices.search.query_time_in_millis";
+    private static final String NODE_DISK_STATS_FILTER = "nodes.*.name,nodes.*.roles,"
+            + "nodes.*.fs.total.total_in_bytes,nodes.*.fs.total.available_in_bytes";
+    private static final String DISK_WATERMARK_HIGH_SETTING = "cluster.routing.allocation.disk.watermark.high";
+
+    private final RestHighLevelClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ElasticClusterApi(RestHighLevelClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Samples search/write thread pools, CPU and search counters of all nodes.
+     *
+     * @return load aggregated over nodes
+     */
+    public NodeLoadStats getNodeLoadStats() {
+        try {
+            Request request = new Request("GET", "/_nodes/stats/os,thread_pool,indices/search");
+            request.addParameter("filter_path", NODE_LOAD_STATS_FILTER);
+            JsonNode nodesJson = performRequest(request).path("nodes");
+            NodeLoadStats stats = new NodeLoadStats(System.currentTimeMillis());
+            Iterator<JsonNode> nodes = nodesJson.elements();
+            while (nodes.hasNext()) {
+                JsonNode node = nodes.next();
+                JsonNode searchPool = node.path("thread_pool").path("search");
+                JsonNode writePool = node.path("thread_pool").path("write");
+                JsonNode search = node.path("indices").path("search");
+                stats.setCpuPercent(Math.max(stats.getCpuPercent(), node.path("os").path("cpu").path("percent").asInt()));
+                stats.setSearchQueue(Math.max(stats.getSearchQueue(), searchPool.path("queue").asInt()));
+                stats.setSearchRejected(stats.getSearchRejected() + searchPool.path("rejected").asLong());
+                stats.setWriteQueue(Math.max(stats.getWriteQueue(), writePool.path("queue").asInt()));
+                stats.setWriteRejected(stats.getWriteRejected() + writePool.path("rejected").asLong());
+                stats.setQueryTotal(stats.getQueryTotal() + search.path("query_total").asLong());
+                stats.setQueryTimeMs(stats.getQueryTimeMs() + search.path("query_time_in_millis").asLong());
+            }
+            return stats;
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while retrieving node stats.", e);
+            throw new ElasticActionFailedException("Error occurred while retrieving node stats.", e);
+        }
+    }
+
+    /**
+     * Samples file system usage of the data nodes.
+     *
+     * @return disk stats of every data node
+     */
+    public List<NodeDiskStats> getNodeDiskStats() {
+        try {
+            Request request = new Request("GET", "/_nodes/stats/fs");
+            request.addParameter("filter_path", NODE_DISK_STATS_FILTER);
+            JsonNode nodesJson = performRequest(request).path("nodes");
+
+            List<NodeDiskStats> stats = new ArrayList<>();
+            Iterator<JsonNode> nodes = nodesJson.elements();
+            while (nodes.hasNext()) {
+                JsonNode node = nodes.next();
+                if (!isDataNode(node.path("roles"))) {
+                    continue;
+                }
+                JsonNode fs = node.path("fs").path("total");
+                stats.add(new NodeDiskStats(node.path("name").asText(), fs.path("total_in_bytes").asLong(),
+                        fs.path("available_in_bytes").asLong()));
+            }
+            return stats;
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while retrieving node disk stats.", e);
+            throw new ElasticActionFailedException("Error occurred while retrieving node disk stats.", e);
+        }
+    }
+
+    /**
+     * Returns the effective high disk watermark, above which shards are moved away from a node.
+     *
+     * @return watermark value, a percentage or ratio of used disk or an absolute amount of free disk
+     */
+    public String getHighDiskWatermark() {
+        try {
+            Request request = new Request("GET", "/_cluster/settings");
+            request.addParameter("include_defaults", "true");
+            request.addParameter("flat_settings", "true");
+            request.addParameter("filter_path", "*." + DISK_WATERMARK_HIGH_SETTING);
+            JsonNode settingsJson = performRequest(request);
+            for (String level : new String[]{"transient", "persistent", "defaults"}) {
+                JsonNode value = settingsJson.path(level).path(DISK_WATERMARK_HIGH_SETTING);
+                if (!value.isMissingNode()) {
+                    return value.asText();
+                }
+            }
+            return "90%";
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while retrieving disk watermark.", e);
+            throw new ElasticActionFailedException("Error occurred while retrieving disk watermark.", e);
+        }
+    }
+
+    private JsonNode performRequest(Request request) throws IOException {
+        Response response = client.getLowLevelClient().performRequest(request);
+        try (InputStream content = response.getEntity().getContent()) {
+            return objectMapper.readTree(content);
+        }
+    }
+
+    private static boolean isDataNode(JsonNode roles) {
+        for (JsonNode role : roles) {
+            if (role.asText().startsWith("data")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
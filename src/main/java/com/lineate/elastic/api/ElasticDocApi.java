@@ -3,22 +3,36 @@ package com.lineate.elastic.api;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lineate.elastic.api.ingest.ContentHashFilter;
+import com.lineate.elastic.api.ingest.IngestCheckpointJournal;
+import com.lineate.elastic.api.ingest.NdJsonBulkReader;
+import com.lineate.elastic.api.ingest.NdJsonSource;
 import com.lineate.elastic.configuration.SearchProperties;
 import com.lineate.elastic.exception.ElasticActionFailedException;
+import com.lineate.elastic.model.BulkChunkReport;
+import com.lineate.elastic.model.BulkIngestReport;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.client.core.CountResponse;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.RethrottleRequest;
 import org.elasticsearch.client.tasks.TaskSubmissionResponse;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.VersionType;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.reindex.AbstractBulkByScrollRequest;
 import org.elasticsearch.index.reindex.BulkByScrollResponse;
 import org.elasticsearch.index.reindex.ReindexRequest;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.tasks.TaskId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,10 +40,23 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ElasticDocApi {
     private static Logger LOGGER = LoggerFactory.getLogger(ElasticIndexApi.class);
+    private static final int DEFAULT_BULK_CHUNK_SIZE = 1000;
+    private static final long DEFAULT_BULK_CHUNK_BYTES = 5 * 1024 * 1024;
+    public static final int AUTO_SLICES = AbstractBulkByScrollRequest.AUTO_SLICES;
     private final RestHighLevelClient client;
     private final SearchProperties searchProperties;
 
@@ -39,10 +66,25 @@ public class ElasticDocApi {
     }
 
     public void reindex(final String fromIndex, final String toIndex) {
+        reindex(fromIndex, toIndex, null);
+    }
+
+    /**
+     * Synchronously copies documents matching the query.
+     *
+     * @param fromIndex source index
+     * @param toIndex   destination index
+     * @param query     documents to copy, all documents when {@code null}
+     * @return number of copied documents
+     */
+    public long reindex(final String fromIndex, final String toIndex, final QueryBuilder query) {
         try {
             LOGGER.info("Reindexing documents from {} to {}", fromIndex, toIndex);
 
-            ReindexRequest request = prepareReindexRequest(fromIndex, toIndex);
+            ReindexRequest request = prepareReindexRequest(fromIndex, toIndex, 1);
+            if (query != null) {
+                request.setSourceQuery(query);
+            }
             request.setTimeout(TimeValue.timeValueMinutes(60));
 
             BulkByScrollResponse bulkResponse =
@@ -52,9 +94,14 @@ public class ElasticDocApi {
                 LOGGER.info("Could not reindex documents from {} to {}", fromIndex, toIndex);
                 throw new ElasticActionFailedException("Could not reindex documents.");
             }
+            if (!bulkResponse.getBulkFailures().isEmpty() || !bulkResponse.getSearchFailures().isEmpty()) {
+                LOGGER.info("Reindexing from {} to {} failed: {} {}", fromIndex, toIndex,
+                        bulkResponse.getBulkFailures(), bulkResponse.getSearchFailures());
+                throw new ElasticActionFailedException("Could not reindex documents.");
+            }
             LOGGER.info("Successfully reindexed {} documents from {} to {} in {} ms",
                     bulkResponse.getTotal(), fromIndex, toIndex, bulkResponse.getTook().millis());
-
+            return bulkResponse.getTotal();
 
         } catch (IOException | ElasticsearchException e) {
             LOGGER.warn("Error occurred while reindexing", e);
@@ -62,10 +109,66 @@ public class ElasticDocApi {
         }
     }
 
+    public long countDocuments(final String indexName, final QueryBuilder query) {
+        try {
+            CountResponse response = client.count(new CountRequest(indexName).query(query), RequestOptions.DEFAULT);
+            return response.getCount();
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while counting documents", e);
+            throw new ElasticActionFailedException("Error occurred while counting documents.", e);
+        }
+    }
+
     public String submitReindexTask(final String fromIndex, final String toIndex) {
+        return submitReindexTask(fromIndex, toIndex, 1);
+    }
+
+    /**
+     * Submits reindex task split into {@code slices} sub-tasks, each scrolling its own part of the source index.
+     *
+     * @param fromIndex source index
+     * @param toIndex   destination index
+     * @param slices    number of slices or {@link #AUTO_SLICES} to use one slice per shard of the source index
+     * @return id of the parent task
+     */
+    public String submitReindexTask(final String fromIndex, final String toIndex, final int slices) {
+        return submitReindexTask(fromIndex, toIndex, slices, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Submits reindex task split into {@code slices} sub-tasks and throttled to {@code requestsPerSecond}.
+     *
+     * @param fromIndex         source index
+     * @param toIndex           destination index
+     * @param slices            number of slices or {@link #AUTO_SLICES}
+     * @param requestsPerSecond documents per second, {@link Float#POSITIVE_INFINITY} to run unthrottled
+     * @return id of the parent task
+     */
+    public String submitReindexTask(final String fromIndex, final String toIndex, final int slices,
+                                    final float requestsPerSecond) {
+        return submitReindexTask(fromIndex, toIndex, slices, requestsPerSecond, null);
+    }
+
+    /**
+     * Submits reindex task copying documents matching the query.
+     *
+     * @param fromIndex         source index
+     * @param toIndex           destination index
+     * @param slices            number of slices or {@link #AUTO_SLICES}
+     * @param requestsPerSecond documents per second, {@link Float#POSITIVE_INFINITY} to run unthrottled
+     * @param query             documents to copy, all documents when {@code null}
+     * @return id of the parent task
+     */
+    public String submitReindexTask(final String fromIndex, final String toIndex, final int slices,
+                                    final float requestsPerSecond, final QueryBuilder query) {
         try {
-            LOGGER.info("Submitting a task to reindex documents from {} to {}", fromIndex, toIndex);
-            ReindexRequest request = prepareReindexRequest(fromIndex, toIndex);
+            LOGGER.info("Submitting a task to reindex documents from {} to {} with {} slices, {} requests per second",
+                    fromIndex, toIndex, slices == AUTO_SLICES ? "auto" : slices, requestsPerSecond);
+            ReindexRequest request = prepareReindexRequest(fromIndex, toIndex, slices);
+            request.setRequestsPerSecond(requestsPerSecond);
+            if (query != null) {
+                request.setSourceQuery(query);
+            }
             TaskSubmissionResponse response = client.submitReindexTask(request, RequestOptions.DEFAULT);
             String taskId = response.getTask();
             LOGGER.info("Reindexing task successfully submitted, task id: {}", taskId);
@@ -76,6 +179,30 @@ public class ElasticDocApi {
         }
     }
 
+    /**
+     * Changes throttling of a running reindex task, the new value takes effect with the next batch.
+     *
+     * @param taskId            id of the reindex task
+     * @param requestsPerSecond documents per second, {@link Float#POSITIVE_INFINITY} to disable throttling
+     */
+    public void rethrottleReindexTask(final String taskId, final float requestsPerSecond) {
+        try {
+            LOGGER.info("Rethrottling reindex task {} to {} requests per second", taskId, requestsPerSecond);
+            RethrottleRequest request = requestsPerSecond == Float.POSITIVE_INFINITY
+                    ? new RethrottleRequest(new TaskId(taskId))
+                    : new RethrottleRequest(new TaskId(taskId), requestsPerSecond);
+            ListTasksResponse response = client.reindexRethrottle(request, RequestOptions.DEFAULT);
+            if (!response.getNodeFailures().isEmpty() || !response.getTaskFailures().isEmpty()) {
+                LOGGER.warn("Could not rethrottle reindex task {}: {} {}", taskId,
+                        response.getNodeFailures(), response.getTaskFailures());
+                throw new ElasticActionFailedException("Could not rethrottle reindex task.");
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while rethrottling reindex task.", e);
+            throw new ElasticActionFailedException("Error occurred while rethrottling reindex task.", e);
+        }
+    }
+
     public boolean bulkIndexFromNdJsonFile(final String indexName, final String ndJsonFileName) throws IOException {
         try {
             LOGGER.info("Indexing documents into {} from file {}", indexName, ndJsonFileName);
@@ -107,13 +234,13 @@ public class ElasticDocApi {
 
             BulkResponse bulkResponse = client.bulk(bulkRequest, RequestOptions.DEFAULT);
 
-            if (bulkResponse.status() == RestStatus.OK) {
+            if (bulkResponse.status() == RestStatus.OK && !bulkResponse.hasFailures()) {
                 LOGGER.info("{} Documents were successfully indexed from file in {} ms",
                         bulkResponse.getItems().length,
                         bulkResponse.getTook().millis());
                 return true;
             } else {
-                LOGGER.info("Could not index documents form file");
+                LOGGER.info("Could not index documents form file: {}", bulkResponse.buildFailureMessage());
                 return false;
             }
 
@@ -123,13 +250,420 @@ public class ElasticDocApi {
         }
     }
 
-    private ReindexRequest prepareReindexRequest(final String fromIndex, final String toIndex) {
+    public BulkIngestReport streamBulkIndexFromNdJsonFile(final String indexName, final String ndJsonFileName)
+            throws IOException {
+        return streamBulkIndexFromNdJsonFile(indexName, ndJsonFileName,
+                searchProperties.getBulkChunkSize(), searchProperties.getBulkChunkBytes());
+    }
+
+    /**
+     * Indexes documents from NDJSON file reading it line by line and flushing a bulk request
+     * every time the chunk reaches the document count or byte size threshold,
+     * so that only a single chunk is kept in memory.
+     *
+     * @param indexName      index to put documents into
+     * @param ndJsonFileName classpath NDJSON file with action and source lines
+     * @param maxChunkDocs   maximum number of documents in a single bulk request
+     * @param maxChunkBytes  maximum estimated size of a single bulk request
+     * @return per-chunk and aggregate ingest statistics
+     */
+    public BulkIngestReport streamBulkIndexFromNdJsonFile(final String indexName, final String ndJsonFileName,
+                                                          final int maxChunkDocs, final long maxChunkBytes)
+            throws IOException {
+        try {
+            LOGGER.info("Streaming documents into {} from file {} in chunks of {} docs / {} bytes",
+                    indexName, ndJsonFileName, maxChunkDocs, maxChunkBytes);
+            InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream(ndJsonFileName);
+            if (resourceAsStream == null) {
+                LOGGER.warn("Cannot find content json file {}", ndJsonFileName);
+                throw new ElasticActionFailedException("Cannot find content json file.");
+            }
+            try (InputStreamReader inputStreamReader = new InputStreamReader(resourceAsStream, Charset.defaultCharset());
+                 BufferedReader reader = new BufferedReader(inputStreamReader)
+            ) {
+                BulkIngestReport report = new BulkIngestReport(indexName, ndJsonFileName);
+                final long startTime = System.nanoTime();
+                streamBulkIndex(indexName, reader, maxChunkDocs, maxChunkBytes,
+                        bulkRequest -> report.addChunk(flushChunk(bulkRequest, report.getChunks().size() + 1)));
+                logIngestSummary(report, startTime);
+                return report;
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error during streaming bulk indexing", e);
+            throw e;
+        }
+    }
+
+    public BulkIngestReport concurrentBulkIndexFromNdJsonFile(final String indexName, final String ndJsonFileName)
+            throws IOException {
+        return concurrentBulkIndexFromNdJsonFile(indexName, ndJsonFileName,
+                searchProperties.getBulkConcurrentRequests());
+    }
+
+    /**
+     * Same as {@link #streamBulkIndexFromNdJsonFile(String, String)} but keeps up to {@code concurrentRequests}
+     * bulk requests in flight. Reading the file is paused while all of them are pending.
+     * Items rejected by the cluster are retried with exponential backoff.
+     *
+     * @param indexName          index to put documents into
+     * @param ndJsonFileName     classpath NDJSON file with action and source lines
+     * @param concurrentRequests number of bulk requests in flight
+     * @return per-chunk and aggregate ingest statistics
+     */
+    public BulkIngestReport concurrentBulkIndexFromNdJsonFile(final String indexName, final String ndJsonFileName,
+                                                              final int concurrentRequests) throws IOException {
+        try {
+            LOGGER.info("Indexing documents into {} from file {} with {} concurrent bulk requests",
+                    indexName, ndJsonFileName, concurrentRequests);
+            InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream(ndJsonFileName);
+            if (resourceAsStream == null) {
+                LOGGER.warn("Cannot find content json file {}", ndJsonFileName);
+                throw new ElasticActionFailedException("Cannot find content json file.");
+            }
+            BulkIngestReport report = new BulkIngestReport(indexName, ndJsonFileName);
+            final long startTime = System.nanoTime();
+            try (InputStreamReader inputStreamReader = new InputStreamReader(resourceAsStream, Charset.defaultCharset());
+                 BufferedReader reader = new BufferedReader(inputStreamReader);
+                 ElasticBulkPipeline pipeline = createBulkPipeline(report, concurrentRequests)
+            ) {
+                streamBulkIndex(indexName, reader, searchProperties.getBulkChunkSize(),
+                        searchProperties.getBulkChunkBytes(), pipeline::submit);
+            }
+            logIngestSummary(report, startTime);
+            return report;
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error during concurrent bulk indexing", e);
+            throw e;
+        }
+    }
+
+    public BulkIngestReport fastBulkIndexFromNdJsonFile(final String indexName, final String ndJsonFileName)
+            throws IOException {
+        return bulkIndexFromSources(indexName, ndJsonFileName, List.of(NdJsonSource.fromClasspath(ndJsonFileName)));
+    }
+
+    public BulkIngestReport fastBulkIndexFromNdJsonFile(final String indexName, final Path ndJsonFile)
+            throws IOException {
+        return bulkIndexFromPath(indexName, ndJsonFile);
+    }
+
+    /**
+     * Indexes NDJSON from a local file or from every NDJSON shard of a directory.
+     * Files with .gz or .zst extension are decompressed on the fly, shards are read in parallel.
+     *
+     * @param indexName index to put documents into
+     * @param path      file or directory
+     * @return per-chunk and aggregate ingest statistics
+     */
+    public BulkIngestReport bulkIndexFromPath(final String indexName, final Path path) throws IOException {
+        return bulkIndexFromSources(indexName, path.toString(), NdJsonSource.fromPath(path));
+    }
+
+    public BulkIngestReport resumableBulkIndexFromPath(final String indexName, final Path path) throws IOException {
+        return resumableBulkIndexFromPath(indexName, path, Path.of(searchProperties.getIngestCheckpointFile()));
+    }
+
+    /**
+     * Same as {@link #bulkIndexFromPath(String, Path)}, but records the last acknowledged byte offset
+     * of every source in the checkpoint file. When started again with the same checkpoint file
+     * completed sources are skipped and the rest continue from the recorded offset.
+     *
+     * @param indexName      index to put documents into
+     * @param path           file or directory
+     * @param checkpointFile local file with checkpoints
+     * @return per-chunk and aggregate ingest statistics of this run
+     */
+    public BulkIngestReport resumableBulkIndexFromPath(final String indexName, final Path path,
+                                                       final Path checkpointFile) throws IOException {
+        try (IngestCheckpointJournal journal = new IngestCheckpointJournal(checkpointFile)) {
+            return bulkIndexFromSources(indexName, path.toString(), NdJsonSource.fromPath(path), journal, null);
+        }
+    }
+
+    public BulkIngestReport fastBulkIndexFromChannel(final String indexName, final String sourceName,
+                                                     final ReadableByteChannel channel) throws IOException {
+        return fastBulkIndexFromChannel(indexName, sourceName, channel, false);
+    }
+
+    public BulkIngestReport fastBulkIndexFromChannel(final String indexName, final String sourceName,
+                                                     final ReadableByteChannel channel,
+                                                     final boolean skipUnchanged) throws IOException {
+        NdJsonSource source = new NdJsonSource() {
+            @Override
+            public String getName() {
+                return sourceName;
+            }
+
+            @Override
+            public ReadableByteChannel open() {
+                return channel;
+            }
+        };
+        return bulkIndexFromSources(indexName, sourceName, List.of(source), null,
+                skipUnchanged ? createContentHashFilter() : null);
+    }
+
+    /**
+     * Same as {@link #bulkIndexFromPath(String, Path)}, but sends only documents whose content changed.
+     * A murmur3 hash of every source is kept in the {@code search.contentHashField} field of the document,
+     * stored hashes are fetched with one mget per chunk. Documents with the same hash are not sent at all.
+     *
+     * @param indexName index to put documents into
+     * @param path      file or directory
+     * @return per-chunk and aggregate ingest statistics, unchanged documents are counted as skipped
+     */
+    public BulkIngestReport bulkIndexChangedFromPath(final String indexName, final Path path) throws IOException {
+        return bulkIndexFromSources(indexName, path.toString(), NdJsonSource.fromPath(path), null,
+                createContentHashFilter());
+    }
+
+    /**
+     * Indexes NDJSON sources with {@link NdJsonBulkReader}: document ids are taken with a streaming
+     * token scan of the action line and source lines are sent as byte slices of the read buffer.
+     * Up to {@code search.bulkParallelSources} sources are read in parallel, all of them share
+     * a single concurrent bulk pipeline so the number of requests in flight stays bounded.
+     *
+     * @param indexName  index to put documents into
+     * @param reportName name of the ingest for reporting
+     * @param sources    NDJSON sources
+     * @return per-chunk and aggregate ingest statistics
+     */
+    public BulkIngestReport bulkIndexFromSources(final String indexName, final String reportName,
+                                                 final List<NdJsonSource> sources) throws IOException {
+        return bulkIndexFromSources(indexName, reportName, sources, null, null);
+    }
+
+    private BulkIngestReport bulkIndexFromSources(final String indexName, final String reportName,
+                                                  final List<NdJsonSource> sources,
+                                                  final IngestCheckpointJournal journal,
+                                                  final ContentHashFilter hashFilter) throws IOException {
+        final int parallelism = Math.max(1, Math.min(sources.size(), searchProperties.getBulkParallelSources()));
+        LOGGER.info("Indexing documents into {} from {} ({} sources, {} in parallel)",
+                indexName, reportName, sources.size(), parallelism);
+
+        BulkIngestReport report = new BulkIngestReport(indexName, reportName);
+        final long startTime = System.nanoTime();
+        ExecutorService executor = parallelism > 1
+                ? Executors.newFixedThreadPool(parallelism, sourceThreadFactory(indexName)) : null;
+        try (ElasticBulkPipeline pipeline = createBulkPipeline(report, searchProperties.getBulkConcurrentRequests())) {
+            if (executor == null) {
+                for (NdJsonSource source : sources) {
+                    bulkIndexFromSource(indexName, source, pipeline, report, journal, hashFilter);
+                }
+            } else {
+                List<Future<?>> futures = new ArrayList<>();
+                for (NdJsonSource source : sources) {
+                    futures.add(executor.submit(() -> {
+                        bulkIndexFromSource(indexName, source, pipeline, report, journal, hashFilter);
+                        return null;
+                    }));
+                }
+                awaitSources(futures);
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error during bulk indexing from {}", reportName, e);
+            throw e;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        logIngestSummary(report, startTime);
+        return report;
+    }
+
+    private void bulkIndexFromSource(final String indexName, final NdJsonSource source,
+                                     final ElasticBulkPipeline pipeline, final BulkIngestReport report,
+                                     final IngestCheckpointJournal journal,
+                                     final ContentHashFilter hashFilter) throws IOException {
+        String checkpointKey = indexName + "/" + source.getName();
+        if (journal != null && journal.isCompleted(checkpointKey)) {
+            LOGGER.info("Skipping {}, it was completely indexed into {} before", source.getName(), indexName);
+            return;
+        }
+        long startOffset = journal != null ? journal.getOffset(checkpointKey) : 0;
+        LOGGER.info("Reading documents from {} starting at offset {}", source.getName(), startOffset);
+        IngestCheckpointJournal.Progress progress = journal != null ? journal.track(checkpointKey, startOffset) : null;
+        try (NdJsonBulkReader reader = new NdJsonBulkReader(source.open(startOffset), indexName,
+                NdJsonBulkReader.DEFAULT_BLOCK_SIZE, startOffset)) {
+            streamBulkIndex(reader, searchProperties.getBulkChunkSize(), searchProperties.getBulkChunkBytes(),
+                    bulkRequest -> {
+                        BulkRequest changedRequest = bulkRequest;
+                        if (hashFilter != null) {
+                            changedRequest = hashFilter.filter(bulkRequest);
+                            report.addSkipped(bulkRequest.numberOfActions() - changedRequest.numberOfActions());
+                        }
+                        if (progress == null) {
+                            pipeline.submit(changedRequest);
+                            return;
+                        }
+                        long chunk = progress.register(reader.getOffset());
+                        if (changedRequest.numberOfActions() == 0) {
+                            progress.acknowledge(chunk);
+                        } else {
+                            pipeline.submit(changedRequest, chunkReport -> progress.acknowledge(chunk));
+                        }
+                    });
+        }
+        if (progress != null) {
+            progress.sourceRead();
+        }
+        LOGGER.info("Finished reading documents from {}", source.getName());
+    }
+
+    private static ThreadFactory sourceThreadFactory(final String indexName) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bulk-ingest-" + indexName + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void awaitSources(final List<Future<?>> futures) throws IOException {
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new ElasticActionFailedException("Interrupted while reading sources.", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                    futures.forEach(f -> f.cancel(true));
+                }
+            }
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new ElasticActionFailedException("Error occurred while reading sources.", failure);
+        }
+    }
+
+    private ContentHashFilter createContentHashFilter() {
+        return new ContentHashFilter(client, searchProperties.getContentHashField());
+    }
+
+    public ElasticBulkPipeline createBulkPipeline(final BulkIngestReport report, final int concurrentRequests) {
+        return new ElasticBulkPipeline(client, report, concurrentRequests,
+                searchProperties.getBulkMaxRetries(), searchProperties.getBulkRetryInitialBackoffMs());
+    }
+
+    private void streamBulkIndex(final String indexName, final BufferedReader reader,
+                                 final int maxChunkDocs, final long maxChunkBytes,
+                                 final BulkChunkSink sink) throws IOException {
+        final int chunkDocs = maxChunkDocs > 0 ? maxChunkDocs : DEFAULT_BULK_CHUNK_SIZE;
+        final long chunkBytes = maxChunkBytes > 0 ? maxChunkBytes : DEFAULT_BULK_CHUNK_BYTES;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        BulkRequest bulkRequest = new BulkRequest();
+        String actionString;
+        while ((actionString = reader.readLine()) != null) {
+            if (actionString.isBlank()) {
+                continue;
+            }
+            JsonNode docIdJson = objectMapper.readTree(actionString);
+            ObjectNode indexNode = (ObjectNode) docIdJson.get("index");
+            String documentId = indexNode.get("_id").asText();
+            String objectString = reader.readLine();
+            if (objectString == null) {
+                throw new ElasticActionFailedException("Unexpected end of file after action line for document "
+                        + documentId);
+            }
+
+            bulkRequest.add(new IndexRequest(indexName)
+                    .id(documentId)
+                    .source(objectString, XContentType.JSON));
+
+            if (bulkRequest.numberOfActions() >= chunkDocs || bulkRequest.estimatedSizeInBytes() >= chunkBytes) {
+                sendChunk(sink, bulkRequest);
+                bulkRequest = new BulkRequest();
+            }
+        }
+        if (bulkRequest.numberOfActions() > 0) {
+            sendChunk(sink, bulkRequest);
+        }
+    }
+
+    private void streamBulkIndex(final NdJsonBulkReader reader, final int maxChunkDocs, final long maxChunkBytes,
+                                 final BulkChunkSink sink) throws IOException {
+        final int chunkDocs = maxChunkDocs > 0 ? maxChunkDocs : DEFAULT_BULK_CHUNK_SIZE;
+        final long chunkBytes = maxChunkBytes > 0 ? maxChunkBytes : DEFAULT_BULK_CHUNK_BYTES;
+
+        BulkRequest bulkRequest = new BulkRequest();
+        IndexRequest request;
+        while ((request = reader.next()) != null) {
+            bulkRequest.add(request);
+            if (bulkRequest.numberOfActions() >= chunkDocs || bulkRequest.estimatedSizeInBytes() >= chunkBytes) {
+                sendChunk(sink, bulkRequest);
+                bulkRequest = new BulkRequest();
+            }
+        }
+        if (bulkRequest.numberOfActions() > 0) {
+            sendChunk(sink, bulkRequest);
+        }
+    }
+
+    private void sendChunk(final BulkChunkSink sink, final BulkRequest bulkRequest) throws IOException {
+        try {
+            sink.accept(bulkRequest);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticActionFailedException("Interrupted while sending bulk request.", e);
+        }
+    }
+
+    private void logIngestSummary(final BulkIngestReport report, final long startTime) {
+        report.setElapsedMs((System.nanoTime() - startTime) / 1000000);
+        LOGGER.info("{} documents ({} failed, {} unchanged skipped) were indexed into {} in {} chunks within {} ms: "
+                        + "{} docs/s, {} MB/s, cluster took {} ms",
+                report.getItems(), report.getFailed(), report.getSkipped(), report.getIndexName(),
+                report.getChunks().size(),
+                report.getElapsedMs(),
+                String.format("%.1f", report.getDocsPerSecond()), String.format("%.2f", report.getMegabytesPerSecond()),
+                report.getTookMs());
+    }
+
+    private BulkChunkReport flushChunk(final BulkRequest bulkRequest, final int chunkNumber) throws IOException {
+        long chunkBytes = bulkRequest.estimatedSizeInBytes();
+        BulkResponse bulkResponse = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+
+        int failed = 0;
+        for (BulkItemResponse item : bulkResponse.getItems()) {
+            if (item.isFailed()) {
+                if (failed == 0) {
+                    LOGGER.warn("Could not index document {} in chunk {}: {}",
+                            item.getId(), chunkNumber, item.getFailureMessage());
+                }
+                failed++;
+            }
+        }
+        LOGGER.info("Chunk {}: {} items ({} failed, {} bytes) indexed in {} ms",
+                chunkNumber, bulkResponse.getItems().length, failed, chunkBytes, bulkResponse.getTook().millis());
+        return new BulkChunkReport(chunkNumber, bulkResponse.getItems().length, failed,
+                chunkBytes, bulkResponse.getTook().millis());
+    }
+
+    private ReindexRequest prepareReindexRequest(final String fromIndex, final String toIndex, final int slices) {
         ReindexRequest request = new ReindexRequest();
         request.setSourceIndices(fromIndex);
         request.setDestIndex(toIndex);
         request.setDestVersionType(VersionType.INTERNAL);
         request.setConflicts("proceed");
         request.setSourceBatchSize(searchProperties.getBatchSize());
+        request.setSlices(slices);
         return request;
     }
+
+    @FunctionalInterface
+    private interface BulkChunkSink {
+        void accept(BulkRequest bulkRequest) throws IOException, InterruptedException;
+    }
 }
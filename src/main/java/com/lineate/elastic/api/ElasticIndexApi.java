@@ -1,18 +1,46 @@
 package com.lineate.elastic.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lineate.elastic.exception.ElasticActionFailedException;
+import com.lineate.elastic.model.BulkLoadSettings;
+import com.lineate.elastic.model.IndexStats;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthRequest;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeRequest;
+import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeResponse;
+import org.elasticsearch.action.admin.indices.open.OpenIndexRequest;
+import org.elasticsearch.action.admin.indices.open.OpenIndexResponse;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.action.admin.indices.shrink.ResizeRequest;
+import org.elasticsearch.action.admin.indices.shrink.ResizeResponse;
+import org.elasticsearch.action.admin.indices.shrink.ResizeType;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.CloseIndexRequest;
+import org.elasticsearch.client.indices.CloseIndexResponse;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.CreateIndexResponse;
 import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.GetMappingsRequest;
+import org.elasticsearch.client.indices.GetMappingsResponse;
+import org.elasticsearch.client.indices.PutMappingRequest;
+import org.elasticsearch.cluster.metadata.MappingMetadata;
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,34 +49,66 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class ElasticIndexApi {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticIndexApi.class);
+    private static final String REFRESH_INTERVAL_SETTING = "index.refresh_interval";
+    private static final String NUMBER_OF_REPLICAS_SETTING = "index.number_of_replicas";
+    private static final String WRITE_BLOCK_SETTING = "index.blocks.write";
+    // well below the default socket timeout of the client
+    private static final TimeValue HEALTH_POLL_TIMEOUT = TimeValue.timeValueSeconds(20);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private final RestHighLevelClient client;
+    private final RestHighLevelClient longRequestClient;
 
     public ElasticIndexApi(RestHighLevelClient client) {
+        this(client, client);
+    }
+
+    /**
+     * Creates API.
+     *
+     * @param client            client for regular calls
+     * @param longRequestClient client with a socket timeout long enough for a force merge
+     */
+    public ElasticIndexApi(RestHighLevelClient client, RestHighLevelClient longRequestClient) {
         this.client = client;
+        this.longRequestClient = longRequestClient;
     }
 
     public void createIndex(final String indexName, final String indexConfigFileName) {
+        createIndex(indexName, indexConfigFileName, Settings.EMPTY);
+    }
+
+    /**
+     * Creates index from the config file.
+     *
+     * @param indexName           index name
+     * @param indexConfigFileName classpath JSON with settings and mappings
+     * @param settingsOverrides   settings replacing the ones from the config file
+     */
+    public void createIndex(final String indexName, final String indexConfigFileName,
+                            final Settings settingsOverrides) {
 
         try {
             LOGGER.info("Creating index: {}", indexName);
 
-            final String indexConfigString;
-            try (InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream(indexConfigFileName)) {
-                if (resourceAsStream == null) {
-                    LOGGER.warn("Cannot find index config file file {}", indexConfigFileName);
-                    throw new ElasticActionFailedException("Cannot find index config file file");
-                }
-                byte[] bytes = resourceAsStream.readAllBytes();
-                indexConfigString = new String(bytes, Charset.defaultCharset());
-            }
+            final String indexConfigString = readIndexConfig(indexConfigFileName);
 
             final CreateIndexRequest createRequest = new CreateIndexRequest(indexName);
             createRequest.source(indexConfigString, XContentType.JSON);
+            if (!settingsOverrides.isEmpty()) {
+                LOGGER.info("Overriding settings of index {}: {}", indexName, settingsOverrides);
+                // config files may omit the index. prefix, keys are normalized so that overrides replace them
+                createRequest.settings(Settings.builder()
+                        .put(createRequest.settings())
+                        .normalizePrefix("index.")
+                        .put(settingsOverrides));
+            }
 
             final CreateIndexResponse createIndexResponse = client.indices().create(createRequest, RequestOptions.DEFAULT);
 
@@ -64,6 +124,56 @@ public class ElasticIndexApi {
         }
     }
 
+    /**
+     * Returns mapping defined in the config file.
+     *
+     * @param indexConfigFileName classpath JSON with settings and mappings
+     * @return mapping source, empty when the file has no mappings
+     */
+    public Map<String, Object> getIndexConfigMapping(final String indexConfigFileName) {
+        try {
+            Object mappings = XContentHelper.convertToMap(new BytesArray(readIndexConfig(indexConfigFileName)), true,
+                    XContentType.JSON).v2().get("mappings");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> mapping = mappings instanceof Map ? (Map<String, Object>) mappings : Map.of();
+            return mapping;
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while reading index config file.", e);
+            throw new ElasticActionFailedException("Error occurred while reading index config file.", e);
+        }
+    }
+
+    /**
+     * Returns settings defined in the config file.
+     *
+     * @param indexConfigFileName classpath JSON with settings and mappings
+     * @return settings with keys prefixed by {@code index.}
+     */
+    public Settings getIndexConfigSettings(final String indexConfigFileName) {
+        try {
+            CreateIndexRequest request = new CreateIndexRequest("config")
+                    .source(readIndexConfig(indexConfigFileName), XContentType.JSON);
+            return Settings.builder()
+                    .put(request.settings())
+                    .normalizePrefix("index.")
+                    .build();
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while reading index config file.", e);
+            throw new ElasticActionFailedException("Error occurred while reading index config file.", e);
+        }
+    }
+
+    private String readIndexConfig(final String indexConfigFileName) throws IOException {
+        try (InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream(indexConfigFileName)) {
+            if (resourceAsStream == null) {
+                LOGGER.warn("Cannot find index config file file {}", indexConfigFileName);
+                throw new ElasticActionFailedException("Cannot find index config file file");
+            }
+            byte[] bytes = resourceAsStream.readAllBytes();
+            return new String(bytes, Charset.defaultCharset());
+        }
+    }
+
     public boolean checkIndexExists(final String indexName) {
         try {
             LOGGER.info("Checking index {} exists", indexName);
@@ -125,6 +235,41 @@ public class ElasticIndexApi {
         }
     }
 
+    /**
+     * Moves the alias from one index to another with a single aliases request,
+     * so the alias always resolves to exactly one of the indices.
+     *
+     * @param alias     alias to move
+     * @param fromIndex index the alias points to now
+     * @param toIndex   index the alias should point to
+     */
+    public void swapAlias(final String alias, final String fromIndex, final String toIndex) {
+        try {
+            LOGGER.info("Moving alias {} from index {} to index {}", alias, fromIndex, toIndex);
+
+            IndicesAliasesRequest request = new IndicesAliasesRequest();
+            request.addAliasAction(new IndicesAliasesRequest.AliasActions(IndicesAliasesRequest.AliasActions.Type.REMOVE)
+                    .index(fromIndex)
+                    .alias(alias));
+            request.addAliasAction(new IndicesAliasesRequest.AliasActions(IndicesAliasesRequest.AliasActions.Type.ADD)
+                    .index(toIndex)
+                    .alias(alias));
+
+            AcknowledgedResponse indicesAliasesResponse =
+                    client.indices().updateAliases(request, RequestOptions.DEFAULT);
+
+            if (indicesAliasesResponse.isAcknowledged()) {
+                LOGGER.info("Alias was successfully moved.");
+            } else {
+                LOGGER.info("Could not move alias.");
+                throw new ElasticActionFailedException("Could not move alias.");
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while moving alias.", e);
+            throw new ElasticActionFailedException("Error occurred while moving alias.", e);
+        }
+    }
+
     public void removeAliasFromIndex(final String indexName, final String alias) {
         try {
             LOGGER.info("Removing alias {} from index {}", alias, indexName);
@@ -184,4 +329,399 @@ public class ElasticIndexApi {
             throw new ElasticActionFailedException("Error occurred while getting aliases for index.", e);
         }
     }
+
+    public Settings getIndexSettings(final String indexName, final String... settingNames) {
+        try {
+            LOGGER.info("Getting settings of index {}", indexName);
+            GetSettingsRequest request = new GetSettingsRequest().indices(indexName);
+            if (settingNames.length > 0) {
+                request.names(settingNames);
+            }
+            GetSettingsResponse response = client.indices().getSettings(request, RequestOptions.DEFAULT);
+
+            Iterator<Settings> settingsIterator = response.getIndexToSettings().valuesIt();
+            if (settingsIterator.hasNext()) {
+                return settingsIterator.next();
+            }
+            LOGGER.info("Could not get settings of index {}", indexName);
+            throw new ElasticActionFailedException("Could not get settings of index.");
+
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while getting index settings.", e);
+            throw new ElasticActionFailedException("Error occurred while getting index settings.", e);
+        }
+    }
+
+    /**
+     * Returns mapping of the index.
+     *
+     * @param indexName index or alias resolving to a single index
+     * @return mapping source, empty when the index has no mapping
+     */
+    public Map<String, Object> getMapping(final String indexName) {
+        try {
+            LOGGER.info("Getting mapping of index {}", indexName);
+            GetMappingsRequest request = new GetMappingsRequest().indices(indexName);
+            GetMappingsResponse response = client.indices().getMapping(request, RequestOptions.DEFAULT);
+
+            Iterator<MappingMetadata> mappingsIterator = response.mappings().values().iterator();
+            if (mappingsIterator.hasNext()) {
+                MappingMetadata mapping = mappingsIterator.next();
+                return mapping != null ? mapping.sourceAsMap() : Map.of();
+            }
+            LOGGER.info("Could not get mapping of index {}", indexName);
+            throw new ElasticActionFailedException("Could not get mapping of index.");
+
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while getting index mapping.", e);
+            throw new ElasticActionFailedException("Error occurred while getting index mapping.", e);
+        }
+    }
+
+    /**
+     * Adds fields and updates mapping parameters, ES merges the request with the current mapping.
+     *
+     * @param indexName index name
+     * @param mapping   mapping source with new or changed fields only
+     */
+    public void putMapping(final String indexName, final Map<String, Object> mapping) {
+        try {
+            LOGGER.info("Updating mapping of index {}", indexName);
+            PutMappingRequest request = new PutMappingRequest(indexName).source(mapping);
+
+            AcknowledgedResponse response = client.indices().putMapping(request, RequestOptions.DEFAULT);
+            if (response.isAcknowledged()) {
+                LOGGER.info("Mapping of index {} updated", indexName);
+            } else {
+                LOGGER.info("Could not update mapping of index {}", indexName);
+                throw new ElasticActionFailedException("Could not update index mapping.");
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while updating index mapping.", e);
+            throw new ElasticActionFailedException("Error occurred while updating index mapping.", e);
+        }
+    }
+
+    public void closeIndex(final String indexName) {
+        try {
+            LOGGER.info("Closing index {}", indexName);
+            CloseIndexResponse response = client.indices().close(new CloseIndexRequest(indexName),
+                    RequestOptions.DEFAULT);
+            if (response.isAcknowledged()) {
+                LOGGER.info("Index {} closed", indexName);
+            } else {
+                LOGGER.info("Could not close index {}", indexName);
+                throw new ElasticActionFailedException("Could not close index.");
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while closing index.", e);
+            throw new ElasticActionFailedException("Error occurred while closing index.", e);
+        }
+    }
+
+    public void openIndex(final String indexName) {
+        try {
+            LOGGER.info("Opening index {}", indexName);
+            OpenIndexResponse response = client.indices().open(new OpenIndexRequest(indexName),
+                    RequestOptions.DEFAULT);
+            if (response.isAcknowledged()) {
+                LOGGER.info("Index {} opened", indexName);
+            } else {
+                LOGGER.info("Could not open index {}", indexName);
+                throw new ElasticActionFailedException("Could not open index.");
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while opening index.", e);
+            throw new ElasticActionFailedException("Error occurred while opening index.", e);
+        }
+    }
+
+    public void updateIndexSettings(final String indexName, final Settings settings) {
+        try {
+            LOGGER.info("Updating settings of index {}: {}", indexName, settings);
+            UpdateSettingsRequest request = new UpdateSettingsRequest(indexName).settings(settings);
+
+            AcknowledgedResponse response = client.indices().putSettings(request, RequestOptions.DEFAULT);
+            if (response.isAcknowledged()) {
+                LOGGER.info("Settings of index {} updated", indexName);
+            } else {
+                LOGGER.info("Could not update settings of index {}", indexName);
+                throw new ElasticActionFailedException("Could not update index settings.");
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while updating index settings.", e);
+            throw new ElasticActionFailedException("Error occurred while updating index settings.", e);
+        }
+    }
+
+    /**
+     * Blocks or unblocks writes into the index, reads and metadata changes stay allowed.
+     *
+     * @param indexName index name
+     * @param blocked   {@code true} to reject writes
+     */
+    public void setWriteBlock(final String indexName, final boolean blocked) {
+        updateIndexSettings(indexName, Settings.builder().put(WRITE_BLOCK_SETTING, blocked).build());
+    }
+
+    public void refreshIndex(final String indexName) {
+        try {
+            LOGGER.info("Refreshing index {}", indexName);
+            client.indices().refresh(new RefreshRequest(indexName), RequestOptions.DEFAULT);
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while refreshing index.", e);
+            throw new ElasticActionFailedException("Error occurred while refreshing index.", e);
+        }
+    }
+
+    /**
+     * Force merges the index and waits for the merge, the call runs on the long request client
+     * as the merge of a large index outlives the default socket timeout.
+     *
+     * @param indexName      index name
+     * @param maxNumSegments number of segments to merge to
+     */
+    public void forceMerge(final String indexName, final int maxNumSegments) {
+        try {
+            LOGGER.info("Force merging index {} to {} segments", indexName, maxNumSegments);
+            ForceMergeRequest request = new ForceMergeRequest(indexName);
+            request.maxNumSegments(maxNumSegments);
+
+            ForceMergeResponse response = longRequestClient.indices().forcemerge(request, RequestOptions.DEFAULT);
+            if (response.getFailedShards() > 0) {
+                LOGGER.info("Force merge failed on {} shards of index {}", response.getFailedShards(), indexName);
+                throw new ElasticActionFailedException("Could not force merge index.");
+            }
+            LOGGER.info("Index {} force merged", indexName);
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while force merging index.", e);
+            throw new ElasticActionFailedException("Error occurred while force merging index.", e);
+        }
+    }
+
+    public void waitForGreenStatus(final String indexName, final TimeValue timeout) {
+        waitForGreenStatus(indexName, timeout, false);
+    }
+
+    /**
+     * Waits for the index to become green. The wait is split into health calls of up to
+     * {@link #HEALTH_POLL_TIMEOUT}, so that no call outlives the client socket timeout.
+     *
+     * @param indexName          index name
+     * @param timeout            how long to wait
+     * @param noRelocatingShards also wait until no shard of the index is being moved to another node
+     */
+    public void waitForGreenStatus(final String indexName, final TimeValue timeout,
+                                   final boolean noRelocatingShards) {
+        try {
+            LOGGER.info("Waiting up to {} for index {} to become green", timeout, indexName);
+            long deadline = System.nanoTime() + timeout.nanos();
+            while (true) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                ClusterHealthRequest request = new ClusterHealthRequest(indexName)
+                        .waitForGreenStatus()
+                        .waitForNoRelocatingShards(noRelocatingShards)
+                        .timeout(TimeValue.timeValueMillis(
+                                Math.max(0, Math.min(remainingMs, HEALTH_POLL_TIMEOUT.millis()))));
+
+                ClusterHealthResponse response = client.cluster().health(request, RequestOptions.DEFAULT);
+                if (!response.isTimedOut()) {
+                    break;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    LOGGER.info("Index {} is still {} after {}", indexName, response.getStatus(), timeout);
+                    throw new ElasticActionFailedException("Timed out waiting for index to become green.");
+                }
+            }
+            LOGGER.info("Index {} is green", indexName);
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while waiting for index health.", e);
+            throw new ElasticActionFailedException("Error occurred while waiting for index health.", e);
+        }
+    }
+
+    /**
+     * Creates a new index from the segments of the source index with the clone, split or shrink API,
+     * documents are not reindexed. The source index has to be write blocked, for shrinking a copy of every
+     * shard has to be allocated on one node.
+     *
+     * @param resizeType     clone keeps the number of shards, split multiplies it, shrink divides it
+     * @param sourceIndex    source index
+     * @param targetIndex    index to create
+     * @param targetSettings settings of the new index replacing the ones copied from the source,
+     *                       including the number of shards for split and shrink
+     */
+    public void resizeIndex(final ResizeType resizeType, final String sourceIndex, final String targetIndex,
+                            final Settings targetSettings) {
+        try {
+            LOGGER.info("Resizing index {} into {} with {}: {}", sourceIndex, targetIndex, resizeType, targetSettings);
+            ResizeRequest request = new ResizeRequest(targetIndex, sourceIndex);
+            request.setResizeType(resizeType);
+            request.getTargetIndexRequest().settings(targetSettings);
+
+            ResizeResponse response;
+            switch (resizeType) {
+                case CLONE:
+                    response = client.indices().clone(request, RequestOptions.DEFAULT);
+                    break;
+                case SPLIT:
+                    response = client.indices().split(request, RequestOptions.DEFAULT);
+                    break;
+                default:
+                    response = client.indices().shrink(request, RequestOptions.DEFAULT);
+            }
+            if (!response.isAcknowledged()) {
+                LOGGER.warn("Index resize request failed.");
+                throw new ElasticActionFailedException("Index resize request failed.");
+            }
+            LOGGER.info("Index {} was resized into {}", sourceIndex, targetIndex);
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while resizing index.", e);
+            throw new ElasticActionFailedException("Error occurred while resizing index.", e);
+        }
+    }
+
+    /**
+     * Runs representative queries against the index to load file system cache, global ordinals and field data
+     * before it starts serving traffic.
+     *
+     * @param indexName        index to warm up
+     * @param queriesFileName  classpath JSON file with an array of search request bodies
+     * @return number of executed queries
+     */
+    public int warmUpIndex(final String indexName, final String queriesFileName) {
+        try {
+            LOGGER.info("Warming up index {} with queries from {}", indexName, queriesFileName);
+            JsonNode queries;
+            try (InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream(queriesFileName)) {
+                if (resourceAsStream == null) {
+                    LOGGER.warn("Cannot find warmup queries file {}", queriesFileName);
+                    throw new ElasticActionFailedException("Cannot find warmup queries file");
+                }
+                queries = OBJECT_MAPPER.readTree(resourceAsStream);
+            }
+
+            int executed = 0;
+            long startTime = System.nanoTime();
+            for (JsonNode query : queries) {
+                Request request = new Request("POST", "/" + indexName + "/_search");
+                request.setJsonEntity(query.toString());
+                client.getLowLevelClient().performRequest(request);
+                executed++;
+            }
+            LOGGER.info("{} warmup queries executed against {} in {} ms",
+                    executed, indexName, (System.nanoTime() - startTime) / 1000000);
+            return executed;
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while warming up index.", e);
+            throw new ElasticActionFailedException("Error occurred while warming up index.", e);
+        }
+    }
+
+    /**
+     * Returns document count and store size of the index.
+     *
+     * @param indexName index or alias
+     * @return index stats
+     */
+    public IndexStats getIndexStats(final String indexName) {
+        try {
+            Request request = new Request("GET", "/" + indexName + "/_stats/docs,store");
+            request.addParameter("filter_path", "_all.primaries.docs.count,_all.primaries.store.size_in_bytes,"
+                    + "_all.total.store.size_in_bytes");
+            Response response = client.getLowLevelClient().performRequest(request);
+            try (InputStream content = response.getEntity().getContent()) {
+                JsonNode statsJson = OBJECT_MAPPER.readTree(content).path("_all");
+                return new IndexStats(statsJson.path("primaries").path("docs").path("count").asLong(),
+                        statsJson.path("primaries").path("store").path("size_in_bytes").asLong(),
+                        statsJson.path("total").path("store").path("size_in_bytes").asLong());
+            }
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while retrieving index stats.", e);
+            throw new ElasticActionFailedException("Error occurred while retrieving index stats.", e);
+        }
+    }
+
+    /**
+     * Disables refresh and replicas of the index before initial population.
+     *
+     * @param indexName index to be populated
+     * @return original settings to be passed to {@link #disableBulkLoadMode}
+     */
+    public BulkLoadSettings enableBulkLoadMode(final String indexName) {
+        LOGGER.info("Enabling bulk load mode for index {}", indexName);
+        Settings settings = getIndexSettings(indexName, REFRESH_INTERVAL_SETTING, NUMBER_OF_REPLICAS_SETTING);
+        BulkLoadSettings originalSettings = new BulkLoadSettings(
+                settings.get(REFRESH_INTERVAL_SETTING), settings.get(NUMBER_OF_REPLICAS_SETTING));
+
+        updateIndexSettings(indexName, Settings.builder()
+                .put(REFRESH_INTERVAL_SETTING, "-1")
+                .put(NUMBER_OF_REPLICAS_SETTING, 0)
+                .build());
+        return originalSettings;
+    }
+
+    /**
+     * Force merges the index, restores settings replaced by {@link #enableBulkLoadMode}
+     * and waits until the restored replicas are allocated.
+     *
+     * @param indexName        populated index
+     * @param originalSettings settings returned by {@link #enableBulkLoadMode}
+     * @param maxNumSegments   number of segments to merge to, force merge is skipped when not positive
+     * @param greenTimeout     how long to wait for green status
+     */
+    public void disableBulkLoadMode(final String indexName, final BulkLoadSettings originalSettings,
+                                    final int maxNumSegments, final TimeValue greenTimeout) {
+        LOGGER.info("Disabling bulk load mode for index {}", indexName);
+        // merge before replicas are restored, so they copy already merged segments
+        if (maxNumSegments > 0) {
+            forceMerge(indexName, maxNumSegments);
+        }
+        restoreBulkLoadSettings(indexName, originalSettings);
+        refreshIndex(indexName);
+        waitForGreenStatus(indexName, greenTimeout);
+    }
+
+    /**
+     * Runs initial population of the index with refresh and replicas disabled.
+     *
+     * @param indexName      index to be populated
+     * @param maxNumSegments number of segments to merge to after the load
+     * @param greenTimeout   how long to wait for green status after the load
+     * @param load           population action
+     * @return result of the population action
+     */
+    public <T> T runInBulkLoadMode(final String indexName, final int maxNumSegments, final TimeValue greenTimeout,
+                                   final CheckedSupplier<T, IOException> load) throws IOException {
+        BulkLoadSettings originalSettings = enableBulkLoadMode(indexName);
+        T result;
+        try {
+            result = load.get();
+        } catch (IOException | RuntimeException e) {
+            try {
+                restoreBulkLoadSettings(indexName, originalSettings);
+            } catch (ElasticActionFailedException restoreException) {
+                LOGGER.warn("Could not restore settings of index {} after failed bulk load", indexName);
+                e.addSuppressed(restoreException);
+            }
+            throw e;
+        }
+        disableBulkLoadMode(indexName, originalSettings, maxNumSegments, greenTimeout);
+        return result;
+    }
+
+    private void restoreBulkLoadSettings(final String indexName, final BulkLoadSettings originalSettings) {
+        Settings.Builder settings = Settings.builder();
+        if (originalSettings.getRefreshInterval() != null) {
+            settings.put(REFRESH_INTERVAL_SETTING, originalSettings.getRefreshInterval());
+        } else {
+            settings.putNull(REFRESH_INTERVAL_SETTING);
+        }
+        if (originalSettings.getNumberOfReplicas() != null) {
+            settings.put(NUMBER_OF_REPLICAS_SETTING, originalSettings.getNumberOfReplicas());
+        } else {
+            settings.putNull(NUMBER_OF_REPLICAS_SETTING);
+        }
+        updateIndexSettings(indexName, settings.build());
+    }
 }
@@ -1,10 +1,19 @@
 package com.lineate.elastic.api;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.lineate.elastic.exception.ElasticActionFailedException;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
@@ -12,19 +21,87 @@ import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class ElasticSearchApi {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticSearchApi.class);
+    protected static final int STREAM_PAGE_SIZE = 1000;
+    /**
+     * Tiebreaker present in every index, sorting by it loads the ids into fielddata,
+     * so indices with an own unique field with doc values should be configured with it.
+     */
+    public static final String DEFAULT_TIEBREAKER_FIELD = "_id";
+    // longer than the client socket timeout, which normally fails a stuck search first
+    private static final long BATCHED_SEARCH_TIMEOUT_MS = 60_000;
+    // types may declare a part of the document only, e.g. when the source is projected
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ConcurrentMap<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
 
     private final RestHighLevelClient client;
+    private final MultiSearchBatcher batcher;
+    private final SearchResultCache resultCache;
+    private final String tiebreakerField;
+    private final Map<String, String> indexTiebreakerFields;
 
     public ElasticSearchApi(RestHighLevelClient client) {
+        this(client, null);
+    }
+
+    public ElasticSearchApi(RestHighLevelClient client, MultiSearchBatcher batcher) {
+        this(client, batcher, null);
+    }
+
+    public ElasticSearchApi(RestHighLevelClient client, MultiSearchBatcher batcher, SearchResultCache resultCache) {
+        this(client, batcher, resultCache, DEFAULT_TIEBREAKER_FIELD);
+    }
+
+    public ElasticSearchApi(RestHighLevelClient client, MultiSearchBatcher batcher, SearchResultCache resultCache,
+                            String tiebreakerField) {
+        this(client, batcher, resultCache, tiebreakerField, Map.of());
+    }
+
+    /**
+     * Sends single page searches through the batcher and the result cache, scrolling searches use neither.
+     *
+     * @param client          elastic client
+     * @param batcher         coalesces concurrent searches into multi search requests, {@code null} to send them
+     *                        directly
+     * @param resultCache     returns repeated searches from memory, {@code null} to always search
+     * @param tiebreakerField field unique per document with doc values, e.g. a keyword or numeric id, streamed
+     *                        searches are sorted by it last; {@code null} disables streaming
+     * @param indexTiebreakerFields tiebreaker fields of the indices or aliases whose documents do not have
+     *                              the default one
+     */
+    public ElasticSearchApi(RestHighLevelClient client, MultiSearchBatcher batcher, SearchResultCache resultCache,
+                            String tiebreakerField, Map<String, String> indexTiebreakerFields) {
         this.client = client;
+        this.batcher = batcher;
+        this.resultCache = resultCache;
+        this.tiebreakerField = tiebreakerField;
+        this.indexTiebreakerFields = Map.copyOf(indexTiebreakerFields);
     }
 
     protected List<String> performSearchQuery(final String index, final QueryBuilder queryBuilder) throws IOException {
@@ -33,30 +110,279 @@ public abstract class ElasticSearchApi {
 
     protected List<String> performSearchQuery(final String index, final QueryBuilder queryBuilder,
                                               final List<FieldSortSetting> sortSettings) throws IOException {
+        SearchRequest searchRequest = buildSearchRequest(index, queryBuilder, sortSettings, Strings.EMPTY_ARRAY);
+        SearchResponse searchResponse = search(searchRequest);
+        if (searchResponse.status() != RestStatus.OK) {
+            throw new ElasticActionFailedException("Could not get search results from cluster.");
+        }
+        return getSources(searchResponse);
+    }
 
+    public <T> List<T> performSearchQuery(final String index, final QueryBuilder queryBuilder,
+                                          final List<FieldSortSetting> sortSettings, final Class<T> type,
+                                          final String... includeFields) {
+        return performSearchQuery(index, queryBuilder, sortSettings, OBJECT_MAPPER.constructType(type), includeFields);
+    }
+
+    /**
+     * Searches and reads each hit source into the type directly from the response bytes.
+     *
+     * @param index         index or alias
+     * @param queryBuilder  query
+     * @param sortSettings  sort fields
+     * @param type          type of the documents, properties missing in it are ignored
+     * @param includeFields source fields to fetch, the whole source when there are none
+     * @param <T>           document type
+     * @return documents, {@code null} for hits without source
+     */
+    public <T> List<T> performSearchQuery(final String index, final QueryBuilder queryBuilder,
+                                          final List<FieldSortSetting> sortSettings, final JavaType type,
+                                          final String... includeFields) {
+        try {
+            SearchRequest searchRequest = buildSearchRequest(index, queryBuilder, sortSettings, includeFields);
+            SearchResponse searchResponse = search(searchRequest);
+            if (searchResponse.status() != RestStatus.OK) {
+                throw new ElasticActionFailedException("Could not get search results from cluster.");
+            }
+            return readSources(searchResponse, getReader(type));
+        } catch (IOException | ElasticsearchException ex) {
+            LOGGER.warn("Error occurred while performing typed search query.", ex);
+            throw new ElasticActionFailedException("Error occurred while performing typed search query.", ex);
+        }
+    }
+
+    protected CompletableFuture<List<String>> performSearchQueryAsync(final String index,
+                                                                      final QueryBuilder queryBuilder,
+                                                                      final List<FieldSortSetting> sortSettings) {
+        return searchAsync(buildSearchRequest(index, queryBuilder, sortSettings, Strings.EMPTY_ARRAY))
+                .thenApply(ElasticSearchApi::getSources);
+    }
+
+    public <T> CompletableFuture<List<T>> performSearchQueryAsync(final String index, final QueryBuilder queryBuilder,
+                                                                  final List<FieldSortSetting> sortSettings,
+                                                                  final Class<T> type,
+                                                                  final String... includeFields) {
+        return performSearchQueryAsync(index, queryBuilder, sortSettings, OBJECT_MAPPER.constructType(type),
+                includeFields);
+    }
+
+    public <T> CompletableFuture<List<T>> performSearchQueryAsync(final String index, final QueryBuilder queryBuilder,
+                                                                  final List<FieldSortSetting> sortSettings,
+                                                                  final JavaType type,
+                                                                  final String... includeFields) {
+        ObjectReader reader = getReader(type);
+        return mapFailure(searchAsync(buildSearchRequest(index, queryBuilder, sortSettings, includeFields))
+                        .thenApply(searchResponse -> readSources(searchResponse, reader)), LOGGER,
+                "Error occurred while performing typed search query.");
+    }
+
+    protected Stream<String> streamSearchQuery(final String index, final QueryBuilder queryBuilder,
+                                               final List<FieldSortSetting> sortSettings) {
+        return streamSearchHits(index, queryBuilder, sortSettings, Strings.EMPTY_ARRAY, STREAM_PAGE_SIZE)
+                .map(SearchHit::getSourceAsString);
+    }
+
+    public <T> Stream<T> streamSearchQuery(final String index, final QueryBuilder queryBuilder,
+                                           final List<FieldSortSetting> sortSettings, final Class<T> type,
+                                           final String... includeFields) {
+        return streamSearchQuery(index, queryBuilder, sortSettings, OBJECT_MAPPER.constructType(type), includeFields);
+    }
+
+    public <T> Stream<T> streamSearchQuery(final String index, final QueryBuilder queryBuilder,
+                                           final List<FieldSortSetting> sortSettings, final JavaType type,
+                                           final String... includeFields) {
+        ObjectReader reader = getReader(type);
+        return streamSearchHits(index, queryBuilder, sortSettings, includeFields, STREAM_PAGE_SIZE)
+                .map(hit -> readSource(hit, reader));
+    }
+
+    /**
+     * Returns all hits of the query lazily, pages are fetched with {@code search_after} sorted by the given fields,
+     * or by score when there are none, and by the tiebreaker field. The stream holds up to two pages
+     * and should be closed when it is not consumed to the end. Fails when the tiebreaker field is not configured
+     * or not mapped in the index.
+     *
+     * @param index         index or alias
+     * @param queryBuilder  query
+     * @param sortSettings  sort fields
+     * @param includeFields source fields to fetch, the whole source when there are none
+     * @param pageSize      hits per request
+     * @return lazy stream of hits
+     */
+    protected Stream<SearchHit> streamSearchHits(final String index, final QueryBuilder queryBuilder,
+                                                 final List<FieldSortSetting> sortSettings,
+                                                 final String[] includeFields, final int pageSize) {
+        String tiebreakerField = indexTiebreakerFields.getOrDefault(index, this.tiebreakerField);
+        if (tiebreakerField == null || tiebreakerField.isBlank()) {
+            throw new ElasticActionFailedException("No tiebreaker field is configured for paging search results.");
+        }
         SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
         sourceBuilder.query(queryBuilder);
-        sourceBuilder.fetchSource(true);
+        fetchSource(sourceBuilder, includeFields);
+        if (sortSettings.isEmpty()) {
+            sourceBuilder.sort(SortBuilders.scoreSort());
+        }
         sortSettings.forEach(fieldSortSetting ->
                 sourceBuilder.sort(
                         new FieldSortBuilder(fieldSortSetting.getFieldName()).order(fieldSortSetting.getSortOrder())
                 )
         );
-        SearchRequest searchRequest = new SearchRequest();
-        searchRequest.indices(index);
-        searchRequest.source(sourceBuilder);
-        SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+        // an unmapped sort field fails the search
+        sourceBuilder.sort(new FieldSortBuilder(tiebreakerField).order(SortOrder.ASC));
+
+        SearchAfterIterator iterator = new SearchAfterIterator(client, index, sourceBuilder, pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    public Aggregations performSearchQueryWithAggregation(final String index, final QueryBuilder queryBuilder,
+                                                       final AggregationBuilder aggregationBuilder) throws IOException {
+        SearchRequest searchRequest = buildAggregationRequest(index, queryBuilder, aggregationBuilder);
+        SearchResponse searchResponse = search(searchRequest);
         if (searchResponse.status() != RestStatus.OK) {
             throw new ElasticActionFailedException("Could not get search results from cluster.");
         }
-        return Arrays.stream(searchResponse.getHits().getHits())
-                .map(SearchHit::getSourceAsString)
-                .collect(Collectors.toList());
 
+        return searchResponse.getAggregations();
     }
 
-    public Aggregations performSearchQueryWithAggregation(final String index, final QueryBuilder queryBuilder,
-                                                       final AggregationBuilder aggregationBuilder) throws IOException {
+    public CompletableFuture<Aggregations> performSearchQueryWithAggregationAsync(
+            final String index, final QueryBuilder queryBuilder, final AggregationBuilder aggregationBuilder) {
+        return mapFailure(searchAsync(buildAggregationRequest(index, queryBuilder, aggregationBuilder))
+                .thenApply(SearchResponse::getAggregations), LOGGER,
+                "Error occurred while performing search query with aggregation.");
+    }
+
+    /**
+     * Maps a failure of an async search the same way the blocking methods do: a failed search status is passed
+     * as is, other errors are logged and wrapped into {@link ElasticActionFailedException} with the given message.
+     * <p>
+     * The returned future completes on the client I/O thread, heavy dependent stages should use an executor.
+     *
+     * @param future  async search
+     * @param logger  logger of the calling API
+     * @param message error message
+     * @param <T>     result type
+     * @return future failing with {@link ElasticActionFailedException} only
+     */
+    protected static <T> CompletableFuture<T> mapFailure(final CompletableFuture<T> future, final Logger logger,
+                                                         final String message) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ElasticActionFailedException) {
+                result.completeExceptionally(cause);
+            } else {
+                logger.warn(message, cause);
+                result.completeExceptionally(new ElasticActionFailedException(message, cause));
+            }
+        });
+        return result;
+    }
+
+    private SearchResponse search(final SearchRequest searchRequest) throws IOException {
+        if (resultCache == null) {
+            return sendSearch(searchRequest);
+        }
+        SearchResultCache.Key cacheKey = resultCache.key(searchRequest);
+        SearchResponse searchResponse = resultCache.get(cacheKey);
+        if (searchResponse == null) {
+            searchResponse = sendSearch(searchRequest);
+            if (searchResponse.status() == RestStatus.OK) {
+                resultCache.put(cacheKey, searchResponse);
+            }
+        }
+        return searchResponse;
+    }
+
+    private SearchResponse sendSearch(final SearchRequest searchRequest) throws IOException {
+        if (batcher == null) {
+            return client.search(searchRequest, RequestOptions.DEFAULT);
+        }
+        try {
+            return batcher.search(searchRequest).get(BATCHED_SEARCH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticActionFailedException("Interrupted while waiting for search results.", e);
+        } catch (TimeoutException e) {
+            throw new ElasticActionFailedException("Timed out waiting for search results.", e);
+        } catch (ExecutionException e) {
+            // rethrown as is, so that callers handle it like an error of the blocking client
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ElasticActionFailedException(e.getCause());
+        }
+    }
+
+    private CompletableFuture<SearchResponse> searchAsync(final SearchRequest searchRequest) {
+        if (resultCache == null) {
+            return sendSearchAsync(searchRequest);
+        }
+        SearchResultCache.Key cacheKey = resultCache.key(searchRequest);
+        SearchResponse searchResponse = resultCache.get(cacheKey);
+        if (searchResponse != null) {
+            return CompletableFuture.completedFuture(searchResponse);
+        }
+        return sendSearchAsync(searchRequest).thenApply(response -> {
+            resultCache.put(cacheKey, response);
+            return response;
+        });
+    }
+
+    private CompletableFuture<SearchResponse> sendSearchAsync(final SearchRequest searchRequest) {
+        CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+        ActionListener<SearchResponse> listener = ActionListener.wrap(
+                searchResponse -> {
+                    if (searchResponse.status() != RestStatus.OK) {
+                        future.completeExceptionally(
+                                new ElasticActionFailedException("Could not get search results from cluster."));
+                    } else {
+                        future.complete(searchResponse);
+                    }
+                },
+                future::completeExceptionally);
+        if (batcher == null) {
+            client.searchAsync(searchRequest, RequestOptions.DEFAULT, listener);
+        } else {
+            batcher.search(searchRequest).whenComplete((searchResponse, e) -> {
+                if (e != null) {
+                    listener.onFailure(e instanceof Exception ? (Exception) e : new ElasticActionFailedException(e));
+                } else {
+                    listener.onResponse(searchResponse);
+                }
+            });
+        }
+        return future;
+    }
+
+    private static SearchRequest buildSearchRequest(final String index, final QueryBuilder queryBuilder,
+                                                    final List<FieldSortSetting> sortSettings,
+                                                    final String[] includeFields) {
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
+        sourceBuilder.query(queryBuilder);
+        fetchSource(sourceBuilder, includeFields);
+        sortSettings.forEach(fieldSortSetting ->
+                sourceBuilder.sort(
+                        new FieldSortBuilder(fieldSortSetting.getFieldName()).order(fieldSortSetting.getSortOrder())
+                )
+        );
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.indices(index);
+        searchRequest.source(sourceBuilder);
+        return searchRequest;
+    }
+
+    private static SearchRequest buildAggregationRequest(final String index, final QueryBuilder queryBuilder,
+                                                         final AggregationBuilder aggregationBuilder) {
         SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
         sourceBuilder.query(queryBuilder);
         sourceBuilder.fetchSource(false);
@@ -64,11 +390,47 @@ public abstract class ElasticSearchApi {
         SearchRequest searchRequest = new SearchRequest();
         searchRequest.indices(index);
         searchRequest.source(sourceBuilder);
-        SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
-        if (searchResponse.status() != RestStatus.OK) {
-            throw new ElasticActionFailedException("Could not get search results from cluster.");
+        return searchRequest;
+    }
+
+    private static void fetchSource(final SearchSourceBuilder sourceBuilder, final String[] includeFields) {
+        if (includeFields.length == 0) {
+            sourceBuilder.fetchSource(true);
+        } else {
+            sourceBuilder.fetchSource(includeFields, null);
         }
+    }
 
-        return searchResponse.getAggregations();
+    private static List<String> getSources(final SearchResponse searchResponse) {
+        return Arrays.stream(searchResponse.getHits().getHits())
+                .map(SearchHit::getSourceAsString)
+                .collect(Collectors.toList());
+    }
+
+    private static <T> List<T> readSources(final SearchResponse searchResponse, final ObjectReader reader) {
+        SearchHit[] hits = searchResponse.getHits().getHits();
+        List<T> documents = new ArrayList<>(hits.length);
+        for (SearchHit hit : hits) {
+            documents.add(readSource(hit, reader));
+        }
+        return documents;
+    }
+
+    private static <T> T readSource(final SearchHit hit, final ObjectReader reader) {
+        BytesReference source = hit.getSourceRef();
+        if (source == null) {
+            return null;
+        }
+        // the bytes of a single page source are read in place without a copy
+        BytesRef bytesRef = source.toBytesRef();
+        try {
+            return reader.readValue(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+        } catch (IOException e) {
+            throw new ElasticActionFailedException("Could not read source of document " + hit.getId(), e);
+        }
+    }
+
+    private static ObjectReader getReader(final JavaType type) {
+        return READERS.computeIfAbsent(type, OBJECT_MAPPER::readerFor);
     }
 }
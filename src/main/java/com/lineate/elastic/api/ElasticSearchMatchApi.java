@@ -14,6 +14,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class ElasticSearchMatchApi extends ElasticSearchApi {
 
@@ -23,6 +26,26 @@ public class ElasticSearchMatchApi extends ElasticSearchApi {
         super(client);
     }
 
+    public ElasticSearchMatchApi(RestHighLevelClient client, MultiSearchBatcher batcher) {
+        super(client, batcher);
+    }
+
+    public ElasticSearchMatchApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                 SearchResultCache resultCache) {
+        super(client, batcher, resultCache);
+    }
+
+    public ElasticSearchMatchApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                 SearchResultCache resultCache, String tiebreakerField) {
+        super(client, batcher, resultCache, tiebreakerField);
+    }
+
+    public ElasticSearchMatchApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                 SearchResultCache resultCache, String tiebreakerField,
+                                 Map<String, String> indexTiebreakerFields) {
+        super(client, batcher, resultCache, tiebreakerField, indexTiebreakerFields);
+    }
+
     public List<String> performMatchQuery(final String index, final String field,
                                           final String wordsToMatch, final Operator operator) {
         return performMatchQuery(index, field, wordsToMatch, operator, Collections.emptyList());
@@ -41,6 +64,27 @@ public class ElasticSearchMatchApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performMatchQuery(String, String, String, Operator, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamMatchQuery(final String index, final String field, final String wordsToMatch,
+                                           final Operator operator, final List<FieldSortSetting> sortSettings) {
+        MatchQueryBuilder matchQueryBuilder = QueryBuilders.matchQuery(field, wordsToMatch);
+        matchQueryBuilder.operator(operator);
+        return streamSearchQuery(index, matchQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performMatchQueryAsync(final String index, final String field,
+                                                                  final String wordsToMatch,
+                                                                  final Operator operator,
+                                                                  final List<FieldSortSetting> sortSettings) {
+        MatchQueryBuilder matchQueryBuilder = QueryBuilders.matchQuery(field, wordsToMatch);
+        matchQueryBuilder.operator(operator);
+        return mapFailure(performSearchQueryAsync(index, matchQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing simple match query and sorting results.");
+    }
+
     public List<String> performMatchPhraseQuery(final String index, final String field, final String phrase) {
         return performMatchPhraseQuery(index, field, phrase, Collections.emptyList());
     }
@@ -56,6 +100,24 @@ public class ElasticSearchMatchApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performMatchPhraseQuery(String, String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamMatchPhraseQuery(final String index, final String field, final String phrase,
+                                                 final List<FieldSortSetting> sortSettings) {
+        MatchPhraseQueryBuilder matchPhraseQueryBuilder = QueryBuilders.matchPhraseQuery(field, phrase);
+        return streamSearchQuery(index, matchPhraseQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performMatchPhraseQueryAsync(final String index, final String field,
+                                                                        final String phrase,
+                                                                        final List<FieldSortSetting> sortSettings) {
+        MatchPhraseQueryBuilder matchPhraseQueryBuilder = QueryBuilders.matchPhraseQuery(field, phrase);
+        return mapFailure(performSearchQueryAsync(index, matchPhraseQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing match phrase query.");
+    }
+
     public List<String> performMultiMatchQuery(final String index, final List<String> fields, final String wordsToMatch) {
         return performMultiMatchQuery(index, fields, wordsToMatch, Collections.emptyList());
     }
@@ -71,4 +133,24 @@ public class ElasticSearchMatchApi extends ElasticSearchApi {
             throw new ElasticActionFailedException("Error occurred while performing multi match query.", ex);
         }
     }
+
+    /**
+     * Same as {@link #performMultiMatchQuery(String, List, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamMultiMatchQuery(final String index, final List<String> fields,
+                                                final String wordsToMatch, final List<FieldSortSetting> sortSettings) {
+        MultiMatchQueryBuilder multiMatchQueryBuilder = QueryBuilders.multiMatchQuery(wordsToMatch);
+        fields.forEach(multiMatchQueryBuilder::field);
+        return streamSearchQuery(index, multiMatchQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performMultiMatchQueryAsync(final String index, final List<String> fields,
+                                                                       final String wordsToMatch,
+                                                                       final List<FieldSortSetting> sortSettings) {
+        MultiMatchQueryBuilder multiMatchQueryBuilder = QueryBuilders.multiMatchQuery(wordsToMatch);
+        fields.forEach(multiMatchQueryBuilder::field);
+        return mapFailure(performSearchQueryAsync(index, multiMatchQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing multi match query.");
+    }
 }
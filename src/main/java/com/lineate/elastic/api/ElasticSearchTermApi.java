@@ -26,6 +26,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public class ElasticSearchTermApi extends ElasticSearchApi {
 
@@ -35,6 +38,25 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         super(client);
     }
 
+    public ElasticSearchTermApi(RestHighLevelClient client, MultiSearchBatcher batcher) {
+        super(client, batcher);
+    }
+
+    public ElasticSearchTermApi(RestHighLevelClient client, MultiSearchBatcher batcher, SearchResultCache resultCache) {
+        super(client, batcher, resultCache);
+    }
+
+    public ElasticSearchTermApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                SearchResultCache resultCache, String tiebreakerField) {
+        super(client, batcher, resultCache, tiebreakerField);
+    }
+
+    public ElasticSearchTermApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                SearchResultCache resultCache, String tiebreakerField,
+                                Map<String, String> indexTiebreakerFields) {
+        super(client, batcher, resultCache, tiebreakerField, indexTiebreakerFields);
+    }
+
     public List<String> performTermQuery(final String index, final String field, final String value) {
         return performTermQuery(index, field, value, Collections.emptyList());
     }
@@ -51,6 +73,24 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performTermQuery(String, String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamTermQuery(final String index, final String field, final String value,
+                                          final List<FieldSortSetting> sortSettings) {
+        TermQueryBuilder termQueryBuilder = QueryBuilders.termQuery(field, value);
+        return streamSearchQuery(index, termQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performTermQueryAsync(final String index, final String field,
+                                                                 final String value,
+                                                                 final List<FieldSortSetting> sortSettings) {
+        TermQueryBuilder termQueryBuilder = QueryBuilders.termQuery(field, value);
+        return mapFailure(performSearchQueryAsync(index, termQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing simple term query.");
+    }
+
 
     public double performTermQueryWithSumAggregation(final String index, final String field,
                                                      final String value, final String numericFieldToSumOver) {
@@ -68,6 +108,18 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    public CompletableFuture<Double> performTermQueryWithSumAggregationAsync(final String index, final String field,
+                                                                             final String value,
+                                                                             final String numericFieldToSumOver) {
+        final String aggregationName = "sum_aggregation";
+        TermQueryBuilder termQueryBuilder = QueryBuilders.termQuery(field, value);
+        SumAggregationBuilder sumAggregationBuilder = AggregationBuilders.sum(aggregationName);
+        sumAggregationBuilder.field(numericFieldToSumOver);
+        return mapFailure(performSearchQueryWithAggregationAsync(index, termQueryBuilder, sumAggregationBuilder)
+                        .thenApply(aggregations -> aggregations.<Sum>get(aggregationName).getValue()), LOGGER,
+                "Error occurred while performing simple term query with sum aggregation.");
+    }
+
     public Terms performTermQueryWithTermsAggregation(final String index, final String field,
                                                       final String value, final String fieldNameForAggregation) {
         try {
@@ -84,6 +136,19 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    public CompletableFuture<Terms> performTermQueryWithTermsAggregationAsync(final String index, final String field,
+                                                                              final String value,
+                                                                              final String fieldNameForAggregation) {
+        final String aggregationName = "sum_aggregation";
+        TermQueryBuilder termQueryBuilder = QueryBuilders.termQuery(field, value);
+        TermsAggregationBuilder termsAggregationBuilder = AggregationBuilders.terms(aggregationName);
+        termsAggregationBuilder.field(fieldNameForAggregation);
+        termsAggregationBuilder.missing("missing_value");
+        return mapFailure(performSearchQueryWithAggregationAsync(index, termQueryBuilder, termsAggregationBuilder)
+                        .thenApply(aggregations -> aggregations.<Terms>get(aggregationName)), LOGGER,
+                "Error occurred while performing simple term query with terms aggregation.");
+    }
+
     public List<String> performMultipleTermsQuery(final String index, final String field, final List<String> values) {
         return performMultipleTermsQuery(index, field, values, Collections.emptyList());
     }
@@ -99,6 +164,24 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performMultipleTermsQuery(String, String, List, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamMultipleTermsQuery(final String index, final String field, final List<String> values,
+                                                   final List<FieldSortSetting> sortSettings) {
+        TermsQueryBuilder termsQueryBuilder = QueryBuilders.termsQuery(field, values);
+        return streamSearchQuery(index, termsQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performMultipleTermsQueryAsync(final String index, final String field,
+                                                                          final List<String> values,
+                                                                          final List<FieldSortSetting> sortSettings) {
+        TermsQueryBuilder termsQueryBuilder = QueryBuilders.termsQuery(field, values);
+        return mapFailure(performSearchQueryAsync(index, termsQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing multi term query.");
+    }
+
     public List<String> performGetDocumentById(final String index, final List<String> ids) {
         return performGetDocumentById(index, ids, Collections.emptyList());
     }
@@ -115,6 +198,25 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performGetDocumentById(String, List, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamGetDocumentById(final String index, final List<String> ids,
+                                                final List<FieldSortSetting> sortSettings) {
+        IdsQueryBuilder idsQueryBuilder = QueryBuilders.idsQuery();
+        ids.forEach(idsQueryBuilder::addIds);
+        return streamSearchQuery(index, idsQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performGetDocumentByIdAsync(final String index, final List<String> ids,
+                                                                       final List<FieldSortSetting> sortSettings) {
+        IdsQueryBuilder idsQueryBuilder = QueryBuilders.idsQuery();
+        ids.forEach(idsQueryBuilder::addIds);
+        return mapFailure(performSearchQueryAsync(index, idsQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing fetch by id query.");
+    }
+
     public double performGetDocumentByIdWithSumAggregation(final String index, final List<String> ids,
                                                            final String numericFieldToSumOver) {
         try {
@@ -132,6 +234,19 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    public CompletableFuture<Double> performGetDocumentByIdWithSumAggregationAsync(final String index,
+                                                                                   final List<String> ids,
+                                                                                   final String numericFieldToSumOver) {
+        final String aggregationName = "sum_aggregation";
+        IdsQueryBuilder idsQueryBuilder = QueryBuilders.idsQuery();
+        ids.forEach(idsQueryBuilder::addIds);
+        SumAggregationBuilder sumAggregationBuilder = AggregationBuilders.sum(aggregationName);
+        sumAggregationBuilder.field(numericFieldToSumOver);
+        return mapFailure(performSearchQueryWithAggregationAsync(index, idsQueryBuilder, sumAggregationBuilder)
+                        .thenApply(aggregations -> aggregations.<Sum>get(aggregationName).getValue()), LOGGER,
+                "Error occurred while performing fetch by id query.");
+    }
+
     public double performTermQueryWithAvgAggregation(final String index, final List<String> ids,
                                                      final String numericFieldToAvgOver) {
         try {
@@ -149,6 +264,18 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    public CompletableFuture<Double> performTermQueryWithAvgAggregationAsync(final String index, final List<String> ids,
+                                                                             final String numericFieldToAvgOver) {
+        final String aggregationName = "avg_aggregation";
+        IdsQueryBuilder idsQueryBuilder = QueryBuilders.idsQuery();
+        ids.forEach(idsQueryBuilder::addIds);
+        AvgAggregationBuilder avgAggregationBuilder = AggregationBuilders.avg(aggregationName);
+        avgAggregationBuilder.field(numericFieldToAvgOver);
+        return mapFailure(performSearchQueryWithAggregationAsync(index, idsQueryBuilder, avgAggregationBuilder)
+                        .thenApply(aggregations -> aggregations.<Avg>get(aggregationName).getValue()), LOGGER,
+                "Error occurred while performing simple term query with avg aggregation.");
+    }
+
     public List<String> performRangeQuery(final String index, final String field,
                                           final String lowerBound, final String upperBound) {
         return performRangeQuery(index, field, lowerBound, upperBound, Collections.emptyList());
@@ -168,6 +295,29 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performRangeQuery(String, String, String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamRangeQuery(final String index, final String field,
+                                           final String lowerBound, final String upperBound,
+                                           final List<FieldSortSetting> sortSettings) {
+        RangeQueryBuilder rangeQueryBuilder = QueryBuilders.rangeQuery(field);
+        rangeQueryBuilder.gte(lowerBound);
+        rangeQueryBuilder.lte(upperBound);
+        return streamSearchQuery(index, rangeQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performRangeQueryAsync(final String index, final String field,
+                                                                  final String lowerBound, final String upperBound,
+                                                                  final List<FieldSortSetting> sortSettings) {
+        RangeQueryBuilder rangeQueryBuilder = QueryBuilders.rangeQuery(field);
+        rangeQueryBuilder.gte(lowerBound);
+        rangeQueryBuilder.lte(upperBound);
+        return mapFailure(performSearchQueryAsync(index, rangeQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing range search query.");
+    }
+
     public List<String> performExistsQuery(final String index, final String field) {
         return performExistsQuery(index, field, Collections.emptyList());
     }
@@ -183,6 +333,23 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performExistsQuery(String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamExistsQuery(final String index, final String field,
+                                            final List<FieldSortSetting> sortSettings) {
+        ExistsQueryBuilder queryBuilder = QueryBuilders.existsQuery(field);
+        return streamSearchQuery(index, queryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performExistsQueryAsync(final String index, final String field,
+                                                                   final List<FieldSortSetting> sortSettings) {
+        ExistsQueryBuilder queryBuilder = QueryBuilders.existsQuery(field);
+        return mapFailure(performSearchQueryAsync(index, queryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing exists search query.");
+    }
+
     public List<String> performPrefixQuery(final String index, final String field, final String prefix) {
         return performPrefixQuery(index, field, prefix, Collections.emptyList());
     }
@@ -198,6 +365,24 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performPrefixQuery(String, String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamPrefixQuery(final String index, final String field, final String prefix,
+                                            final List<FieldSortSetting> sortSettings) {
+        PrefixQueryBuilder prefixQueryBuilder = QueryBuilders.prefixQuery(field, prefix);
+        return streamSearchQuery(index, prefixQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performPrefixQueryAsync(final String index, final String field,
+                                                                   final String prefix,
+                                                                   final List<FieldSortSetting> sortSettings) {
+        PrefixQueryBuilder prefixQueryBuilder = QueryBuilders.prefixQuery(field, prefix);
+        return mapFailure(performSearchQueryAsync(index, prefixQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing prefix search query.");
+    }
+
     public List<String> performWildcardQuery(final String index, final String field, final String wildcard) {
         return performWildcardQuery(index, field, wildcard, Collections.emptyList());
     }
@@ -213,6 +398,24 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
         }
     }
 
+    /**
+     * Same as {@link #performWildcardQuery(String, String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamWildcardQuery(final String index, final String field, final String wildcard,
+                                              final List<FieldSortSetting> sortSettings) {
+        WildcardQueryBuilder wildcardQueryBuilder = QueryBuilders.wildcardQuery(field, wildcard);
+        return streamSearchQuery(index, wildcardQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performWildcardQueryAsync(final String index, final String field,
+                                                                     final String wildcard,
+                                                                     final List<FieldSortSetting> sortSettings) {
+        WildcardQueryBuilder wildcardQueryBuilder = QueryBuilders.wildcardQuery(field, wildcard);
+        return mapFailure(performSearchQueryAsync(index, wildcardQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing wildcard search query.");
+    }
+
     public List<String> performRegexQuery(final String index, final String field, final String regex) {
         return performRegexQuery(index, field, regex, Collections.emptyList());
     }
@@ -227,4 +430,22 @@ public class ElasticSearchTermApi extends ElasticSearchApi {
             throw new ElasticActionFailedException("Error occurred while performing regex search query.", ex);
         }
     }
+
+    /**
+     * Same as {@link #performRegexQuery(String, String, String, List)} but returns the hits lazily
+     * page by page, close the stream if it is not consumed to the end.
+     */
+    public Stream<String> streamRegexQuery(final String index, final String field, final String regex,
+                                           final List<FieldSortSetting> sortSettings) {
+        RegexpQueryBuilder regexpQueryBuilder = QueryBuilders.regexpQuery(field, regex);
+        return streamSearchQuery(index, regexpQueryBuilder, sortSettings);
+    }
+
+    public CompletableFuture<List<String>> performRegexQueryAsync(final String index, final String field,
+                                                                  final String regex,
+                                                                  final List<FieldSortSetting> sortSettings) {
+        RegexpQueryBuilder regexpQueryBuilder = QueryBuilders.regexpQuery(field, regex);
+        return mapFailure(performSearchQueryAsync(index, regexpQueryBuilder, sortSettings), LOGGER,
+                "Error occurred while performing regex search query.");
+    }
 }
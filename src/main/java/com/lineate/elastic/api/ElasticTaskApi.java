@@ -2,18 +2,30 @@ package com.lineate.elastic.api;
 
 import com.lineate.elastic.exception.ElasticActionFailedException;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksRequest;
+import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.client.tasks.CancelTasksRequest;
 import org.elasticsearch.client.tasks.CancelTasksResponse;
 import org.elasticsearch.client.tasks.GetTaskRequest;
 import org.elasticsearch.client.tasks.GetTaskResponse;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.tasks.RawTaskStatus;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.tasks.TaskInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public class ElasticTaskApi {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticTaskApi.class);
@@ -45,6 +57,60 @@ public class ElasticTaskApi {
         }
     }
 
+    /**
+     * Loads task info without blocking the caller.
+     *
+     * @param taskIdString id of the task
+     * @param listener     notified with the task info, empty if the task is not known to the cluster,
+     *                     or the failure, called on a client thread
+     */
+    public void getTaskInfoAsync(final String taskIdString, final ActionListener<Optional<GetTaskResponse>> listener) {
+        String[] taskId = taskIdString.split(":");
+        GetTaskRequest request = new GetTaskRequest(taskId[0], Long.parseLong(taskId[1]));
+        client.tasks().getAsync(request, RequestOptions.DEFAULT, listener);
+    }
+
+    /**
+     * Returns task status as a map without serializing it to a string and parsing it back.
+     *
+     * @param taskInfo task info returned by the client
+     * @return status fields, empty if the task has no status
+     */
+    public static Map<String, Object> getTaskStatus(final TaskInfo taskInfo) {
+        Task.Status status = taskInfo.getStatus();
+        if (status == null) {
+            return Collections.emptyMap();
+        }
+        if (status instanceof RawTaskStatus) {
+            return ((RawTaskStatus) status).toMap();
+        }
+        return XContentHelper.convertToMap(JsonXContent.jsonXContent, Strings.toString(status), false);
+    }
+
+    /**
+     * Lists running sub-tasks of a task, e.g. slices of a sliced reindex.
+     *
+     * @param parentTaskIdString id of the parent task
+     * @return detailed info of the running child tasks
+     */
+    public List<TaskInfo> getChildTasks(final String parentTaskIdString) {
+        try {
+            LOGGER.info("Loading child tasks of task {}", parentTaskIdString);
+            ListTasksRequest request = new ListTasksRequest();
+            request.setParentTaskId(new TaskId(parentTaskIdString));
+            request.setDetailed(true);
+            ListTasksResponse response = client.tasks().list(request, RequestOptions.DEFAULT);
+            if (!response.getNodeFailures().isEmpty() || !response.getTaskFailures().isEmpty()) {
+                LOGGER.warn("Could not load child tasks from all nodes: {} {}",
+                        response.getNodeFailures(), response.getTaskFailures());
+            }
+            return response.getTasks();
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while retrieving child tasks.", e);
+            throw new ElasticActionFailedException("Error occurred while retrieving child tasks.", e);
+        }
+    }
+
     public void cancelTask(String taskIdString) {
         try {
             LOGGER.info("Cancelling task with id: {}", taskIdString);
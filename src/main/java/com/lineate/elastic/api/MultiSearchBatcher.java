@@ -0,0 +1,165 @@
+package com.lineate.elastic.api;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces searches issued concurrently into multi search requests.
+ * <p>
+ * A batch is opened by the first search and sent when it reaches {@code maxBatchSize} searches or
+ * {@code window} after it was opened, whichever comes first. A batch of one search is sent as a plain search.
+ * Responses are handed back to the callers one by one, a failed item fails only its own search.
+ * Exports {@code search.batch.size} and {@code search.batch.queue.delay}, the time a search waited for its batch.
+ * Searches added after {@link #close()} fail.
+ */
+public class MultiSearchBatcher implements Closeable {
+    private final RestHighLevelClient client;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService flushScheduler;
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+    private List<PendingSearch> batch = new ArrayList<>();
+    private boolean closed;
+
+    public MultiSearchBatcher(RestHighLevelClient client, int maxBatchSize, Duration window,
+                              MeterRegistry meterRegistry) {
+        this.client = client;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = Math.max(0, window.toNanos());
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = DistributionSummary.builder("search.batch.size")
+                .description("searches sent in one request")
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("search.batch.queue.delay")
+                .description("time a search waited for its batch to be sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the search to the current batch.
+     *
+     * @param searchRequest search to send
+     * @return future completed with the search response, or with the error of the batch or of the item
+     */
+    public CompletableFuture<SearchResponse> search(final SearchRequest searchRequest) {
+        PendingSearch pendingSearch = new PendingSearch(searchRequest);
+        List<PendingSearch> full = null;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(
+                        new ElasticActionFailedException("Search batcher is closed."));
+            }
+            batch.add(pendingSearch);
+            if (batch.size() >= maxBatchSize) {
+                full = batch;
+                batch = new ArrayList<>();
+            } else if (batch.size() == 1) {
+                List<PendingSearch> opened = batch;
+                try {
+                    flushScheduler.schedule(() -> flush(opened), windowNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // nothing would send the batch
+                    batch = new ArrayList<>();
+                    pendingSearch.future.completeExceptionally(
+                            new ElasticActionFailedException("Could not schedule search batch.", e));
+                }
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return pendingSearch.future;
+    }
+
+    @Override
+    public void close() {
+        List<PendingSearch> pending;
+        synchronized (this) {
+            closed = true;
+            pending = batch;
+            batch = new ArrayList<>();
+        }
+        if (!pending.isEmpty()) {
+            send(pending);
+        }
+        flushScheduler.shutdownNow();
+    }
+
+    private void flush(final List<PendingSearch> opened) {
+        synchronized (this) {
+            // the batch was already sent because it got full
+            if (batch != opened) {
+                return;
+            }
+            batch = new ArrayList<>();
+        }
+        send(opened);
+    }
+
+    private void send(final List<PendingSearch> searches) {
+        long sentNanos = System.nanoTime();
+        batchSize.record(searches.size());
+        searches.forEach(search -> queueDelay.record(sentNanos - search.queuedNanos, TimeUnit.NANOSECONDS));
+        try {
+            if (searches.size() == 1) {
+                PendingSearch search = searches.get(0);
+                client.searchAsync(search.request, RequestOptions.DEFAULT,
+                        ActionListener.wrap(search.future::complete, search.future::completeExceptionally));
+                return;
+            }
+            MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+            searches.forEach(search -> multiSearchRequest.add(search.request));
+            client.msearchAsync(multiSearchRequest, RequestOptions.DEFAULT, ActionListener.wrap(
+                    response -> onResponse(searches, response),
+                    e -> searches.forEach(search -> search.future.completeExceptionally(e))));
+        } catch (RuntimeException e) {
+            searches.forEach(search -> search.future.completeExceptionally(e));
+        }
+    }
+
+    private static void onResponse(final List<PendingSearch> searches, final MultiSearchResponse response) {
+        MultiSearchResponse.Item[] items = response.getResponses();
+        for (int i = 0; i < searches.size(); i++) {
+            PendingSearch search = searches.get(i);
+            if (items[i].isFailure()) {
+                search.future.completeExceptionally(items[i].getFailure());
+            } else {
+                search.future.complete(items[i].getResponse());
+            }
+        }
+    }
+
+    private static class PendingSearch {
+        private final SearchRequest request;
+        private final long queuedNanos = System.nanoTime();
+        private final CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+
+        PendingSearch(SearchRequest request) {
+            this.request = request;
+        }
+    }
+}
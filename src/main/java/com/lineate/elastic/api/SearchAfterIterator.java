@@ -0,0 +1,130 @@
+package com.lineate.elastic.api;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Cancellable;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Iterates over all hits of a sorted search page by page with {@code search_after}.
+ * <p>
+ * The next page is requested as soon as the current one arrives, so it loads while the caller consumes
+ * the current one. At most two pages are held and hits are released as they are returned.
+ */
+class SearchAfterIterator implements Iterator<SearchHit>, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchAfterIterator.class);
+
+    private final RestHighLevelClient client;
+    private final String index;
+    private final SearchSourceBuilder sourceBuilder;
+    private final int pageSize;
+    private SearchHit[] page = new SearchHit[0];
+    private int position;
+    private CompletableFuture<SearchResponse> nextPage;
+    private Cancellable nextPageRequest;
+
+    /**
+     * Requests the first page.
+     *
+     * @param sourceBuilder query with a sort that is unique per document
+     */
+    SearchAfterIterator(RestHighLevelClient client, String index, SearchSourceBuilder sourceBuilder, int pageSize) {
+        this.client = client;
+        this.index = index;
+        this.sourceBuilder = sourceBuilder;
+        this.pageSize = pageSize;
+        this.nextPage = requestPage(null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= page.length) {
+            if (nextPage == null) {
+                return false;
+            }
+            SearchResponse response = awaitPage();
+            page = response.getHits().getHits();
+            position = 0;
+            nextPage = page.length < pageSize ? null : requestPage(page[page.length - 1].getSortValues());
+        }
+        return true;
+    }
+
+    @Override
+    public SearchHit next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SearchHit hit = page[position];
+        page[position++] = null;
+        return hit;
+    }
+
+    /**
+     * Cancels the prefetched page, called when the stream is closed before it is consumed.
+     */
+    @Override
+    public void close() {
+        if (nextPage != null && !nextPage.isDone()) {
+            nextPageRequest.cancel();
+        }
+        nextPage = null;
+        page = new SearchHit[0];
+    }
+
+    private CompletableFuture<SearchResponse> requestPage(Object[] searchAfter) {
+        SearchSourceBuilder pageSourceBuilder = sourceBuilder.shallowCopy()
+                .size(pageSize)
+                .trackTotalHits(false);
+        if (searchAfter != null) {
+            pageSourceBuilder.searchAfter(searchAfter);
+        }
+        SearchRequest searchRequest = new SearchRequest(index).source(pageSourceBuilder);
+
+        CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+        nextPageRequest = client.searchAsync(searchRequest, RequestOptions.DEFAULT,
+                ActionListener.wrap(future::complete, future::completeExceptionally));
+        return future;
+    }
+
+    private SearchResponse awaitPage() {
+        SearchResponse response;
+        try {
+            response = nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new ElasticActionFailedException("Interrupted while fetching search results.", e);
+        } catch (ExecutionException e) {
+            close();
+            LOGGER.warn("Error occurred while fetching search results page.", e.getCause());
+            throw new ElasticActionFailedException("Error occurred while fetching search results page.", e.getCause());
+        }
+        if (response.status() != RestStatus.OK) {
+            close();
+            throw new ElasticActionFailedException("Could not get search results from cluster.");
+        }
+        // a page missing shards would silently skip their documents
+        if (response.getFailedShards() > 0) {
+            close();
+            LOGGER.warn("Search results page of {} failed on {} shards: {}", index, response.getFailedShards(),
+                    response.getShardFailures()[0].reason());
+            throw new ElasticActionFailedException("Could not get search results from all shards.");
+        }
+        return response;
+    }
+}
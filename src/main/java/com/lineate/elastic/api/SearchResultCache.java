@@ -0,0 +1,143 @@
+package com.lineate.elastic.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.search.SearchHit;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches search responses by the searched indices and the serialized search source.
+ * <p>
+ * Entries are evicted by their estimated heap size (window TinyLFU) and expire a fixed time after they were
+ * written, so results may be stale by up to the TTL. Invalidating an index or alias drops every entry
+ * searching it, responses of searches started before an invalidation are not cached. Hit, miss and eviction
+ * counts are exported as {@code cache.*} meters tagged with {@code cache=search.results}.
+ */
+public class SearchResultCache {
+    // rough heap overhead of a response and of a hit besides its source bytes
+    private static final int RESPONSE_OVERHEAD_BYTES = 1024;
+    private static final int HIT_OVERHEAD_BYTES = 256;
+
+    private final Cache<Key, SearchResponse> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxBytes      limit of the estimated heap size of all cached responses
+     * @param ttl           time an entry is kept after it was written
+     * @param meterRegistry registry to export the cache metrics into
+     */
+    public SearchResultCache(long maxBytes, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(SearchResultCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search.results");
+    }
+
+    /**
+     * Returns the lookup key of the search, remembering the invalidations done so far.
+     *
+     * @param searchRequest search
+     * @return key to get and put the response with
+     */
+    public Key key(final SearchRequest searchRequest) {
+        return new Key(searchRequest.indices(), Strings.toString(searchRequest.source()), invalidations.get());
+    }
+
+    public SearchResponse get(final Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches the response unless the cache was invalidated since the key was taken.
+     *
+     * @param key      key taken before the search was sent
+     * @param response search response
+     */
+    public void put(final Key key, final SearchResponse response) {
+        if (key.invalidation != invalidations.get()) {
+            return;
+        }
+        cache.put(key, response);
+        // an invalidation may have run between the check and the put
+        if (key.invalidation != invalidations.get()) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops all entries searching the index or alias.
+     *
+     * @param indexOrAlias index or alias name
+     */
+    public void invalidate(final String indexOrAlias) {
+        invalidations.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> Arrays.stream(key.indices)
+                .flatMap(indices -> Arrays.stream(Strings.splitStringByCommaToArray(indices)))
+                .anyMatch(indexOrAlias::equals));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private static int weigh(final Key key, final SearchResponse response) {
+        long bytes = RESPONSE_OVERHEAD_BYTES + 2L * key.source.length();
+        for (SearchHit hit : response.getHits().getHits()) {
+            bytes += HIT_OVERHEAD_BYTES + (hit.getSourceRef() != null ? hit.getSourceRef().length() : 0);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    public static final class Key {
+        private final String[] indices;
+        private final String source;
+        private final long invalidation;
+
+        private Key(String[] indices, String source, long invalidation) {
+            this.indices = indices;
+            this.source = source;
+            this.invalidation = invalidation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Arrays.equals(indices, key.indices) && source.equals(key.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Arrays.hashCode(indices), source);
+        }
+    }
+}
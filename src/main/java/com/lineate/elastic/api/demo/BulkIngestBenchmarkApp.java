@@ -0,0 +1,164 @@
+package com.lineate.elastic.api.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lineate.elastic.api.ElasticDocApi;
+import com.lineate.elastic.api.ElasticIndexApi;
+import com.lineate.elastic.api.ingest.NdJsonBulkReader;
+import com.lineate.elastic.model.BulkIngestReport;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares parsing of the current {@link ElasticDocApi#bulkIndexFromNdJsonFile} approach
+ * (Jackson tree for every action line, String source) with {@link NdJsonBulkReader}
+ * on products-bulk.json scaled up {@value #SCALE_FACTOR} times.
+ * <p>
+ * Only request building is measured, sending to the cluster costs the same for both.
+ * Pass {@code --ingest} to additionally load the scaled file into a fresh index with the fast path.
+ */
+public class BulkIngestBenchmarkApp extends ElasticApp {
+    private static final String contentFileName = "products-bulk.json";
+    private static final String indexConfigFileName = "product-index-2.json";
+    private static final int SCALE_FACTOR = 1000;
+    private static final int ITERATIONS = 3;
+
+    public static void main(String[] args) throws IOException {
+        Path scaledFile = Files.createTempFile("products-bulk-x" + SCALE_FACTOR, ".json");
+        try {
+            long docs = writeScaledFile(scaledFile);
+            System.out.printf("Scaled file %s: %d docs, %d MB%n",
+                    scaledFile, docs, Files.size(scaledFile) / (1024 * 1024));
+
+            // warm up both paths before measuring
+            parseWithJacksonTree(scaledFile);
+            parseWithNdJsonBulkReader(scaledFile);
+
+            for (int i = 1; i <= ITERATIONS; i++) {
+                measure("jackson tree + String source, run " + i, scaledFile, docs, true);
+                measure("NdJsonBulkReader byte slices, run " + i, scaledFile, docs, false);
+            }
+
+            if (args.length > 0 && "--ingest".equals(args[0])) {
+                ingest(scaledFile);
+            }
+        } finally {
+            Files.deleteIfExists(scaledFile);
+        }
+    }
+
+    private static void measure(final String name, final Path file, final long docs,
+                                final boolean jacksonTree) throws IOException {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long sourceBytes = jacksonTree ? parseWithJacksonTree(file) : parseWithNdJsonBulkReader(file);
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1000000);
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.printf("%-45s %6d ms %10.0f docs/s %8.1f MB/s %8d bytes allocated/doc%n",
+                name, elapsedMs, docs * 1000.0 / elapsedMs, sourceBytes * 1000.0 / elapsedMs / (1024 * 1024),
+                allocated / docs);
+    }
+
+    private static long parseWithJacksonTree(final Path file) throws IOException {
+        long sourceBytes = 0;
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedReader reader = Files.newBufferedReader(file, Charset.defaultCharset())) {
+            String objectString;
+            while ((objectString = reader.readLine()) != null) {
+                JsonNode docIdJson = objectMapper.readTree(objectString);
+                ObjectNode indexNode = (ObjectNode) docIdJson.get("index");
+                String documentId = indexNode.get("_id").asText();
+                objectString = reader.readLine();
+
+                IndexRequest request = new IndexRequest("benchmark")
+                        .id(documentId)
+                        .source(objectString, XContentType.JSON);
+                sourceBytes += request.source().length();
+            }
+        }
+        return sourceBytes;
+    }
+
+    private static long parseWithNdJsonBulkReader(final Path file) throws IOException {
+        long sourceBytes = 0;
+        try (NdJsonBulkReader reader = new NdJsonBulkReader(FileChannel.open(file, StandardOpenOption.READ),
+                "benchmark")) {
+            IndexRequest request;
+            while ((request = reader.next()) != null) {
+                sourceBytes += request.source().length();
+            }
+        }
+        return sourceBytes;
+    }
+
+    private static void ingest(final Path file) throws IOException {
+        try (RestHighLevelClient client = createElasticClient()) {
+            ElasticIndexApi elasticIndexApi = new ElasticIndexApi(client);
+            ElasticDocApi elasticDocApi = new ElasticDocApi(client, createSearchProperties());
+            String indexName = "product-benchmark" + ZonedDateTime.now()
+                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
+            elasticIndexApi.createIndex(indexName, indexConfigFileName);
+            try {
+                BulkIngestReport report = elasticDocApi.fastBulkIndexFromNdJsonFile(indexName, file);
+                System.out.printf("Ingested %d docs (%d failed) in %d ms: %.0f docs/s%n",
+                        report.getItems(), report.getFailed(), report.getElapsedMs(), report.getDocsPerSecond());
+            } finally {
+                elasticIndexApi.deleteIndex(indexName);
+            }
+        }
+    }
+
+    private static long writeScaledFile(final Path target) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> ids = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        try (InputStream resourceAsStream = BulkIngestBenchmarkApp.class.getClassLoader()
+                .getResourceAsStream(contentFileName);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(resourceAsStream, Charset.defaultCharset()))) {
+            String actionString;
+            while ((actionString = reader.readLine()) != null) {
+                ids.add(objectMapper.readTree(actionString).get("index").get("_id").asText());
+                sources.add(reader.readLine());
+            }
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(target, Charset.defaultCharset())) {
+            for (int copy = 0; copy < SCALE_FACTOR; copy++) {
+                for (int i = 0; i < ids.size(); i++) {
+                    writer.write("{\"index\":{\"_id\":\"" + copy + "-" + ids.get(i) + "\"}}\n");
+                    writer.write(sources.get(i));
+                    writer.write('\n');
+                }
+            }
+        }
+        return (long) ids.size() * SCALE_FACTOR;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -26,7 +26,7 @@ public class DocApp extends ElasticApp {
                     .format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
 
             elasticIndexApi.createIndex(firstIndexName, "product-index-1.json");
-            elasticDocApi.bulkIndexFromNdJsonFile(firstIndexName, "products-bulk.json");
+            elasticDocApi.streamBulkIndexFromNdJsonFile(firstIndexName, "products-bulk.json");
 
             elasticIndexApi.createIndex(secondIndexName, "product-index-2.json");
             elasticDocApi.reindex(firstIndexName, secondIndexName);
@@ -9,7 +9,18 @@ public class ElasticApp {
     protected static final String esHost = "localhost";
     protected static final int esPort = 9200;
     protected static final int batchSize = 100;
+    protected static final int bulkChunkSize = 1000;
+    protected static final long bulkChunkBytes = 5 * 1024 * 1024;
+    protected static final int bulkConcurrentRequests = 4;
+    protected static final int bulkMaxRetries = 5;
+    protected static final long bulkRetryInitialBackoffMs = 200;
+    protected static final int bulkParallelSources = 4;
+    protected static final String ingestCheckpointFile = "ingest-checkpoints.properties";
+    protected static final int bulkLoadForceMergeSegments = 1;
+    protected static final String bulkLoadGreenTimeout = "PT10M";
+    protected static final String contentHashField = "content_hash";
     protected static final String trackingTaskRequestInterval = "PT10S";
+    protected static final String trackingTaskMinInterval = "PT1S";
 
 
     protected static RestHighLevelClient createElasticClient() {
@@ -21,7 +32,18 @@ public class ElasticApp {
         searchProperties.setHost(esHost);
         searchProperties.setPort(esPort);
         searchProperties.setBatchSize(batchSize);
+        searchProperties.setBulkChunkSize(bulkChunkSize);
+        searchProperties.setBulkChunkBytes(bulkChunkBytes);
+        searchProperties.setBulkConcurrentRequests(bulkConcurrentRequests);
+        searchProperties.setBulkMaxRetries(bulkMaxRetries);
+        searchProperties.setBulkRetryInitialBackoffMs(bulkRetryInitialBackoffMs);
+        searchProperties.setBulkParallelSources(bulkParallelSources);
+        searchProperties.setIngestCheckpointFile(ingestCheckpointFile);
+        searchProperties.setBulkLoadForceMergeSegments(bulkLoadForceMergeSegments);
+        searchProperties.setBulkLoadGreenTimeout(bulkLoadGreenTimeout);
+        searchProperties.setContentHashField(contentHashField);
         searchProperties.setTrackingTaskRequestInterval(trackingTaskRequestInterval);
+        searchProperties.setTrackingTaskMinInterval(trackingTaskMinInterval);
         return searchProperties;
     }
 }
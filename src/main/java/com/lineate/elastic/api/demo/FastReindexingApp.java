@@ -4,6 +4,7 @@ import com.lineate.elastic.api.ElasticDocApi;
 import com.lineate.elastic.api.ElasticIndexApi;
 import com.lineate.elastic.configuration.SearchProperties;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
 
 import java.io.IOException;
 import java.time.ZonedDateTime;
@@ -14,6 +15,7 @@ public class FastReindexingApp extends ElasticApp {
     private static final String indexName = "product";
     private static final String indexConfigFileName = "product-index-2.json";
     private static final String newIndexContentFileName = "products-bulk.json";
+    private static final TimeValue greenTimeout = TimeValue.timeValueMinutes(10);
 
 
     public static void main(String[] args) throws IOException {
@@ -31,10 +33,15 @@ public class FastReindexingApp extends ElasticApp {
                 if (elasticIndexApi.checkIndexHasAlias(indexName, indexName)) {
                     oldIndexRealName = elasticIndexApi.getIndexNameByAlias(indexName);
                 }
-                elasticDocApi.reindex(oldIndexRealName, newIndexRealName);
+                final String srcIndexName = oldIndexRealName;
+                elasticIndexApi.runInBulkLoadMode(newIndexRealName, bulkLoadForceMergeSegments, greenTimeout, () -> {
+                    elasticDocApi.reindex(srcIndexName, newIndexRealName);
+                    return null;
+                });
                 elasticIndexApi.deleteIndex(oldIndexRealName);
             } else {
-                elasticDocApi.bulkIndexFromNdJsonFile(newIndexRealName, newIndexContentFileName);
+                elasticIndexApi.runInBulkLoadMode(newIndexRealName, bulkLoadForceMergeSegments, greenTimeout,
+                        () -> elasticDocApi.fastBulkIndexFromNdJsonFile(newIndexRealName, newIndexContentFileName));
             }
             elasticIndexApi.addAliasToIndex(newIndexRealName, indexName);
         }
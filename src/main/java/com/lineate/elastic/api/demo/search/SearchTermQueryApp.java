@@ -12,6 +12,7 @@ import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilde
 import org.elasticsearch.search.sort.SortOrder;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -22,11 +23,10 @@ public class SearchTermQueryApp extends SearchApp {
         try (RestHighLevelClient client = createElasticClient()) {
             ElasticSearchTermApi elasticSearchTermApi = new ElasticSearchTermApi(client);
             System.out.println("Active products");
-            List<String> activeProducts = elasticSearchTermApi.performTermQuery(indexName, "is_active", "true");
+            List<Product> activeProducts = elasticSearchTermApi.performSearchQuery(indexName,
+                    QueryBuilders.termQuery("is_active", "true"), Collections.emptyList(), Product.class,
+                    "name", "is_active");
             activeProducts
-                    .stream()
-                    .map(SearchTermQueryApp::parseProductFromJson)
-                    .filter(Objects::nonNull)
                     .forEach(product ->
                             System.out.println("Name: " + product.getName() + " | is_active: " + product.isActive()));
 
@@ -0,0 +1,32 @@
+package com.lineate.elastic.api.ingest;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * NDJSON resource bundled into the application.
+ */
+public class ClasspathNdJsonSource implements NdJsonSource {
+    private final String resourceName;
+
+    public ClasspathNdJsonSource(String resourceName) {
+        this.resourceName = resourceName;
+    }
+
+    @Override
+    public String getName() {
+        return resourceName;
+    }
+
+    @Override
+    public ReadableByteChannel open() {
+        InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream(resourceName);
+        if (resourceAsStream == null) {
+            throw new ElasticActionFailedException("Cannot find content json file " + resourceName);
+        }
+        return Channels.newChannel(resourceAsStream);
+    }
+}
@@ -0,0 +1,196 @@
+package com.lineate.elastic.api.ingest;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.hash.MurmurHash3;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops index requests whose source did not change since the last ingest.
+ * <p>
+ * Every source gets a 128-bit murmur3 hash of its bytes stored in {@code hashField}. Before a chunk is sent,
+ * hashes stored in the index are fetched with a single mget (only the hash field of the source)
+ * and documents with the same hash are skipped. Stored hashes are not cached locally: documents may be
+ * written through other paths, so the index is the only reliable source of them.
+ * <p>
+ * A hash field already present in the source (e.g. in an export of the index) is replaced. Requests other
+ * than index requests are passed through unchanged.
+ */
+public class ContentHashFilter {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final RestHighLevelClient client;
+    private final String hashField;
+    private final byte[] quotedHashField;
+
+    /**
+     * Creates filter.
+     *
+     * @param client    client to fetch stored hashes with
+     * @param hashField source field keeping the hash
+     */
+    public ContentHashFilter(RestHighLevelClient client, String hashField) {
+        this.client = client;
+        this.hashField = hashField;
+        this.quotedHashField = ("\"" + hashField + "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Removes unchanged documents from the chunk and adds the hash field to the changed ones.
+     *
+     * @param bulkRequest chunk of requests
+     * @return chunk with changed documents and all non-index requests, may be empty
+     */
+    public BulkRequest filter(final BulkRequest bulkRequest) throws IOException {
+        int size = bulkRequest.numberOfActions();
+        String[] hashes = new String[size];
+        String[] storedHashes = new String[size];
+        List<Integer> multiGetPositions = new ArrayList<>();
+        MultiGetRequest multiGetRequest = new MultiGetRequest();
+        FetchSourceContext hashOnly = new FetchSourceContext(true, new String[]{hashField}, null);
+
+        List<DocWriteRequest<?>> requests = bulkRequest.requests();
+        for (int i = 0; i < size; i++) {
+            if (!(requests.get(i) instanceof IndexRequest)) {
+                continue;
+            }
+            IndexRequest indexRequest = (IndexRequest) requests.get(i);
+            BytesReference source = withoutHashField(indexRequest.source());
+            if (source != indexRequest.source()) {
+                indexRequest.source(source, XContentType.JSON);
+            }
+            hashes[i] = hash(source);
+            if (indexRequest.id() != null) {
+                multiGetRequest.add(new MultiGetRequest.Item(indexRequest.index(), indexRequest.id())
+                        .fetchSourceContext(hashOnly));
+                multiGetPositions.add(i);
+            }
+        }
+
+        if (!multiGetRequest.getItems().isEmpty()) {
+            MultiGetResponse multiGetResponse = client.mget(multiGetRequest, RequestOptions.DEFAULT);
+            MultiGetItemResponse[] items = multiGetResponse.getResponses();
+            for (int j = 0; j < items.length; j++) {
+                MultiGetItemResponse item = items[j];
+                GetResponse response = item.getResponse();
+                if (item.isFailed() || response == null || !response.isExists()) {
+                    continue;
+                }
+                Object storedHash = response.getSourceAsMap().get(hashField);
+                if (storedHash != null) {
+                    // responses come in request order and carry concrete index names instead of aliases
+                    storedHashes[multiGetPositions.get(j)] = storedHash.toString();
+                }
+            }
+        }
+
+        BulkRequest changedRequest = new BulkRequest();
+        for (int i = 0; i < size; i++) {
+            DocWriteRequest<?> request = requests.get(i);
+            if (request instanceof IndexRequest) {
+                if (hashes[i].equals(storedHashes[i])) {
+                    continue;
+                }
+                IndexRequest indexRequest = (IndexRequest) request;
+                indexRequest.source(appendField(indexRequest.source(), hashField, hashes[i]), XContentType.JSON);
+            }
+            changedRequest.add(request);
+        }
+        return changedRequest;
+    }
+
+    /**
+     * Removes the hash field from the source. The source is parsed only when the field name occurs in it,
+     * the same bytes are returned when there is no such field.
+     */
+    private BytesReference withoutHashField(final BytesReference source) throws IOException {
+        if (!contains(source.toBytesRef(), quotedHashField)) {
+            return source;
+        }
+        Map<String, Object> document = XContentHelper.convertToMap(source, true, XContentType.JSON).v2();
+        if (!document.containsKey(hashField)) {
+            return source;
+        }
+        document.remove(hashField);
+        try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+            return BytesReference.bytes(builder.map(document));
+        }
+    }
+
+    private static boolean contains(final BytesRef bytes, final byte[] pattern) {
+        int last = bytes.offset + bytes.length - pattern.length;
+        for (int i = bytes.offset; i <= last; i++) {
+            int j = 0;
+            while (j < pattern.length && bytes.bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hash(final BytesReference source) {
+        BytesRef bytes = source.toBytesRef();
+        MurmurHash3.Hash128 hash = MurmurHash3.hash128(bytes.bytes, bytes.offset, bytes.length, 0,
+                new MurmurHash3.Hash128());
+        char[] hex = new char[32];
+        toHex(hash.h1, hex, 0);
+        toHex(hash.h2, hex, 16);
+        return new String(hex);
+    }
+
+    private static void toHex(final long value, final char[] target, final int offset) {
+        for (int i = 0; i < 16; i++) {
+            target[offset + i] = HEX_DIGITS[(int) (value >>> (60 - 4 * i)) & 0xF];
+        }
+    }
+
+    private static BytesReference appendField(final BytesReference source, final String field, final String value) {
+        BytesRef bytes = source.toBytesRef();
+        int end = bytes.offset + bytes.length;
+        int closingBrace = end - 1;
+        while (closingBrace >= bytes.offset && bytes.bytes[closingBrace] != '}') {
+            closingBrace--;
+        }
+        if (closingBrace < bytes.offset) {
+            throw new IllegalArgumentException("Document source is not a JSON object");
+        }
+        int lastContent = closingBrace - 1;
+        while (lastContent >= bytes.offset && Character.isWhitespace(bytes.bytes[lastContent])) {
+            lastContent--;
+        }
+        boolean emptyObject = lastContent >= bytes.offset && bytes.bytes[lastContent] == '{';
+
+        byte[] fieldBytes = ((emptyObject ? "" : ",") + "\"" + field + "\":\"" + value + "\"")
+                .getBytes(StandardCharsets.UTF_8);
+        int prefixLength = closingBrace - bytes.offset;
+        int suffixLength = end - closingBrace;
+        byte[] result = new byte[prefixLength + fieldBytes.length + suffixLength];
+        System.arraycopy(bytes.bytes, bytes.offset, result, 0, prefixLength);
+        System.arraycopy(fieldBytes, 0, result, prefixLength, fieldBytes.length);
+        System.arraycopy(bytes.bytes, closingBrace, result, prefixLength + fieldBytes.length, suffixLength);
+        return new BytesArray(result);
+    }
+}
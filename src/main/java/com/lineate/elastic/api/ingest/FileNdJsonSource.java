@@ -0,0 +1,100 @@
+package com.lineate.elastic.api.ingest;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.lineate.elastic.exception.ElasticActionFailedException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * NDJSON file on the local filesystem. Files ending with .gz or .zst are decompressed on the fly.
+ */
+public class FileNdJsonSource implements NdJsonSource {
+    private static final int DECOMPRESSION_BUFFER_SIZE = 256 * 1024;
+
+    private final Path path;
+    private final Compression compression;
+
+    public FileNdJsonSource(Path path) {
+        this.path = path;
+        this.compression = Compression.of(path);
+    }
+
+    @Override
+    public String getName() {
+        return path.toString();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    @Override
+    public ReadableByteChannel open() throws IOException {
+        if (compression == Compression.NONE) {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        }
+        InputStream fileStream = new BufferedInputStream(Files.newInputStream(path), DECOMPRESSION_BUFFER_SIZE);
+        try {
+            InputStream decompressed = compression == Compression.GZIP
+                    ? new GZIPInputStream(fileStream, DECOMPRESSION_BUFFER_SIZE)
+                    : new ZstdInputStream(fileStream);
+            return Channels.newChannel(decompressed);
+        } catch (IOException e) {
+            fileStream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public ReadableByteChannel open(final long offset) throws IOException {
+        if (compression != Compression.NONE || offset == 0) {
+            return NdJsonSource.super.open(offset);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        if (offset > channel.size()) {
+            channel.close();
+            throw new ElasticActionFailedException("Offset " + offset + " is beyond the end of " + path);
+        }
+        return channel.position(offset);
+    }
+
+    static boolean isSupported(final Path path) {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        String baseName = Compression.of(path) == Compression.NONE
+                ? fileName
+                : fileName.substring(0, fileName.lastIndexOf('.'));
+        return baseName.endsWith(".json") || baseName.endsWith(".ndjson");
+    }
+
+    /**
+     * Compression of the file detected by its extension.
+     */
+    public enum Compression {
+        NONE, GZIP, ZSTD;
+
+        static Compression of(final Path path) {
+            String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (fileName.endsWith(".gz")) {
+                return GZIP;
+            }
+            if (fileName.endsWith(".zst") || fileName.endsWith(".zstd")) {
+                return ZSTD;
+            }
+            return NONE;
+        }
+    }
+}
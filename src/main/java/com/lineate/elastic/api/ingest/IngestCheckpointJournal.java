@@ -0,0 +1,243 @@
+package com.lineate.elastic.api.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small local file keeping the last acknowledged byte offset for every ingested source,
+ * so that an interrupted ingest can continue right after the last document the cluster confirmed.
+ * <p>
+ * Checkpoints are updated in memory by the threads acknowledging bulk responses. The file is rewritten
+ * atomically by a single background thread, changes made while a write is pending are coalesced into it.
+ * Offsets only move forward and a completed source stays completed. {@link #close()} writes the last state.
+ */
+public class IngestCheckpointJournal implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestCheckpointJournal.class);
+    private static final String COMPLETED = "completed";
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Path file;
+    private final Properties checkpoints = new Properties();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ingest-checkpoints");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean storePending;
+    private boolean dirty;
+
+    public IngestCheckpointJournal(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        if (Files.exists(this.file)) {
+            try (InputStream inputStream = Files.newInputStream(this.file)) {
+                checkpoints.load(inputStream);
+            }
+            LOGGER.info("Loaded {} ingest checkpoints from {}", checkpoints.size(), this.file);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized boolean isCompleted(final String key) {
+        return COMPLETED.equals(checkpoints.getProperty(key));
+    }
+
+    /**
+     * Returns offset to resume the source from.
+     *
+     * @param key source key
+     * @return last acknowledged offset or 0 if the source was never started
+     */
+    public synchronized long getOffset(final String key) {
+        String value = checkpoints.getProperty(key);
+        if (value == null || COMPLETED.equals(value)) {
+            return 0;
+        }
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Records the acknowledged offset. It is ignored when the source is already completed
+     * or a larger offset is recorded, late acknowledgements may arrive in any order.
+     *
+     * @param key    source key
+     * @param offset acknowledged offset
+     */
+    public synchronized void commit(final String key, final long offset) {
+        String value = checkpoints.getProperty(key);
+        if (COMPLETED.equals(value) || value != null && Long.parseLong(value) >= offset) {
+            return;
+        }
+        checkpoints.setProperty(key, Long.toString(offset));
+        scheduleStore();
+    }
+
+    public synchronized void complete(final String key) {
+        checkpoints.setProperty(key, COMPLETED);
+        scheduleStore();
+    }
+
+    /**
+     * Starts tracking acknowledgements of the source chunks.
+     *
+     * @param key         source key
+     * @param startOffset offset the source is read from
+     * @return progress tracker
+     */
+    public Progress track(final String key, final long startOffset) {
+        return new Progress(key, startOffset);
+    }
+
+    /**
+     * Waits for the pending write and writes the last state if it is not stored yet.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Timed out waiting for ingest checkpoints to be stored to {}", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Properties snapshot = takeSnapshot(true);
+        if (snapshot != null) {
+            store(snapshot);
+        }
+    }
+
+    private void scheduleStore() {
+        dirty = true;
+        if (storePending || writer.isShutdown()) {
+            return;
+        }
+        storePending = true;
+        writer.execute(() -> {
+            Properties snapshot = takeSnapshot(false);
+            try {
+                store(snapshot);
+            } catch (IOException e) {
+                LOGGER.warn("Could not store ingest checkpoints to {}", file, e);
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        });
+    }
+
+    private synchronized Properties takeSnapshot(final boolean onlyDirty) {
+        storePending = false;
+        if (onlyDirty && !dirty) {
+            return null;
+        }
+        dirty = false;
+        Properties snapshot = new Properties();
+        snapshot.putAll(checkpoints);
+        return snapshot;
+    }
+
+    private void store(final Properties snapshot) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tmpFile)) {
+            snapshot.store(outputStream, "Last acknowledged offsets of ingested sources");
+        }
+        try {
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Tracks chunks of a single source. Chunks may be acknowledged out of order, the committed offset
+     * only moves to the end of the longest prefix of acknowledged chunks.
+     */
+    public final class Progress {
+        private final String key;
+        private final Map<Long, Long> pendingChunkEnds = new LinkedHashMap<>();
+        private final Set<Long> acknowledged = new HashSet<>();
+        private long nextChunk;
+        private long committedOffset;
+        private boolean sourceRead;
+
+        private Progress(String key, long startOffset) {
+            this.key = key;
+            this.committedOffset = startOffset;
+        }
+
+        /**
+         * Registers a chunk submitted for indexing.
+         *
+         * @param endOffset source offset right after the last document of the chunk
+         * @return chunk sequence number to acknowledge
+         */
+        public synchronized long register(final long endOffset) {
+            long chunk = nextChunk++;
+            pendingChunkEnds.put(chunk, endOffset);
+            return chunk;
+        }
+
+        public void acknowledge(final long chunk) {
+            long offset;
+            boolean completed;
+            synchronized (this) {
+                acknowledged.add(chunk);
+                long previousOffset = committedOffset;
+                var iterator = pendingChunkEnds.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Long, Long> entry = iterator.next();
+                    if (!acknowledged.remove(entry.getKey())) {
+                        break;
+                    }
+                    committedOffset = entry.getValue();
+                    iterator.remove();
+                }
+                offset = committedOffset > previousOffset ? committedOffset : -1;
+                completed = sourceRead && pendingChunkEnds.isEmpty();
+            }
+            if (completed) {
+                complete(key);
+            } else if (offset >= 0) {
+                commit(key, offset);
+            }
+        }
+
+        /**
+         * Marks the whole source as read, the source is completed once all its chunks are acknowledged.
+         */
+        public void sourceRead() {
+            boolean completed;
+            synchronized (this) {
+                sourceRead = true;
+                completed = pendingChunkEnds.isEmpty();
+            }
+            if (completed) {
+                complete(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.lineate.elastic.api.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads bulk NDJSON (action line followed by source line) from a byte channel and turns every pair
+ * into an {@link IndexRequest} without building intermediate Strings or JSON trees.
+ * <p>
+ * The channel is read into blocks that are never reused: source lines are passed to the request
+ * as {@link BytesArray} slices of the block, so a block stays alive only while requests referencing it do.
+ * Only a line crossing the block boundary is copied into the next block.
+ */
+public class NdJsonBulkReader implements Closeable {
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ReadableByteChannel channel;
+    private final String indexName;
+    private final int blockSize;
+
+    private byte[] block = new byte[0];
+    private int position;
+    private int limit;
+    private long blockOffset;
+    private boolean endOfStream;
+
+    private int lineStart;
+    private int lineEnd;
+
+    public NdJsonBulkReader(ReadableByteChannel channel, String indexName) {
+        this(channel, indexName, DEFAULT_BLOCK_SIZE, 0);
+    }
+
+    /**
+     * Creates reader.
+     *
+     * @param channel     channel to read NDJSON from
+     * @param indexName   index the requests are created for
+     * @param blockSize   size of a read block, lines longer than the block are still supported
+     * @param startOffset position of the channel in the underlying source, used to report {@link #getOffset()}
+     */
+    public NdJsonBulkReader(ReadableByteChannel channel, String indexName, int blockSize, long startOffset) {
+        this.channel = channel;
+        this.indexName = indexName;
+        this.blockSize = blockSize;
+        this.blockOffset = startOffset;
+    }
+
+    /**
+     * Reads next action/source pair.
+     *
+     * @return index request or {@code null} at the end of stream
+     */
+    public IndexRequest next() throws IOException {
+        if (!nextLine()) {
+            return null;
+        }
+        final int actionStart = lineStart;
+        final int actionLength = lineEnd - lineStart;
+        final byte[] actionBlock = block;
+
+        final IndexRequest request = new IndexRequest(indexName);
+        parseAction(actionBlock, actionStart, actionLength, request);
+
+        if (!nextLine()) {
+            throw new ElasticActionFailedException("Unexpected end of file after action line for document "
+                    + request.id());
+        }
+        request.source(new BytesArray(block, lineStart, lineEnd - lineStart), XContentType.JSON);
+        return request;
+    }
+
+    /**
+     * Returns position in the source right after the last line returned by {@link #next()}.
+     *
+     * @return byte offset
+     */
+    public long getOffset() {
+        return blockOffset + position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean nextLine() throws IOException {
+        int scanFrom = position;
+        while (true) {
+            for (int i = scanFrom; i < limit; i++) {
+                if (block[i] == '\n') {
+                    int end = i > position && block[i - 1] == '\r' ? i - 1 : i;
+                    int start = position;
+                    position = i + 1;
+                    if (end == start) {
+                        scanFrom = position;
+                        continue;
+                    }
+                    lineStart = start;
+                    lineEnd = end;
+                    return true;
+                }
+            }
+            if (endOfStream) {
+                if (position < limit) {
+                    lineStart = position;
+                    lineEnd = limit;
+                    position = limit;
+                    return true;
+                }
+                return false;
+            }
+            scanFrom = limit - position;
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        byte[] next = new byte[Math.max(blockSize, remaining * 2)];
+        System.arraycopy(block, position, next, 0, remaining);
+        blockOffset += position;
+        block = next;
+        position = 0;
+        limit = remaining;
+
+        ByteBuffer buffer = ByteBuffer.wrap(block, limit, block.length - limit);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                endOfStream = true;
+                break;
+            }
+        }
+        limit = buffer.position();
+    }
+
+    private static void parseAction(final byte[] bytes, final int offset, final int length,
+                                    final IndexRequest request) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                throw new ElasticActionFailedException("Malformed bulk action line.");
+            }
+            String action = parser.getCurrentName();
+            if ("create".equals(action)) {
+                request.create(true);
+            } else if (!"index".equals(action)) {
+                throw new ElasticActionFailedException("Unsupported bulk action " + action);
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ElasticActionFailedException("Malformed bulk action line.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("_id".equals(fieldName)) {
+                    request.id(parser.getValueAsString());
+                } else if ("routing".equals(fieldName)) {
+                    request.routing(parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.lineate.elastic.api.ingest;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Source of bulk NDJSON content.
+ */
+public interface NdJsonSource {
+
+    /**
+     * Name used in logs and reports.
+     *
+     * @return source name
+     */
+    String getName();
+
+    /**
+     * Opens channel with uncompressed NDJSON content.
+     *
+     * @return channel, closed by the caller
+     */
+    ReadableByteChannel open() throws IOException;
+
+    /**
+     * Opens channel positioned at the given offset of uncompressed content.
+     * Default implementation reads and discards the leading bytes.
+     *
+     * @param offset number of bytes to skip
+     * @return channel, closed by the caller
+     */
+    default ReadableByteChannel open(final long offset) throws IOException {
+        ReadableByteChannel channel = open();
+        ByteBuffer discard = ByteBuffer.allocate(64 * 1024);
+        long remaining = offset;
+        while (remaining > 0) {
+            discard.clear();
+            discard.limit((int) Math.min(discard.capacity(), remaining));
+            int read = channel.read(discard);
+            if (read < 0) {
+                channel.close();
+                throw new ElasticActionFailedException("Offset " + offset + " is beyond the end of " + getName());
+            }
+            remaining -= read;
+        }
+        return channel;
+    }
+
+    static NdJsonSource fromClasspath(final String resourceName) {
+        return new ClasspathNdJsonSource(resourceName);
+    }
+
+    /**
+     * Creates sources for a local file or for every NDJSON shard (plain, .gz or .zst) in a directory.
+     *
+     * @param path file or directory
+     * @return sources sorted by file name
+     */
+    static List<NdJsonSource> fromPath(final Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new ElasticActionFailedException("Cannot find content path " + path);
+        }
+        if (!Files.isDirectory(path)) {
+            return List.of(new FileNdJsonSource(path));
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(FileNdJsonSource::isSupported)
+                    .sorted()
+                    .map(FileNdJsonSource::new)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.lineate.elastic.api.reindex;
+
+import com.lineate.elastic.model.BulkIngestReport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * State of a running client-side reindex, updated by the slice workers.
+ */
+public class ClientReindexTask {
+    private final String id;
+    private final String srcIndexName;
+    private final String dstIndexName;
+    private final int slices;
+    private final long startTime = System.nanoTime();
+    private final BulkIngestReport report;
+    private final AtomicLongArray sliceTotals;
+    private final AtomicLongArray sliceProcessed;
+    private final AtomicIntegerArray sliceBatches;
+    private final AtomicIntegerArray sliceCompleted;
+    private final AtomicLong dropped = new AtomicLong();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile long finishTime;
+    private volatile String canceled;
+
+    public ClientReindexTask(String id, String srcIndexName, String dstIndexName, int slices) {
+        this.id = id;
+        this.srcIndexName = srcIndexName;
+        this.dstIndexName = dstIndexName;
+        this.slices = slices;
+        this.report = new BulkIngestReport(dstIndexName, srcIndexName);
+        this.sliceTotals = new AtomicLongArray(slices);
+        this.sliceProcessed = new AtomicLongArray(slices);
+        this.sliceBatches = new AtomicIntegerArray(slices);
+        this.sliceCompleted = new AtomicIntegerArray(slices);
+    }
+
+    /**
+     * Requests cancellation, slice workers stop after the current batch.
+     *
+     * @param reason cancellation reason reported in the status
+     */
+    public void cancel(String reason) {
+        if (canceled == null) {
+            canceled = reason;
+        }
+    }
+
+    public boolean isCanceled() {
+        return canceled != null;
+    }
+
+    public String getCanceled() {
+        return canceled;
+    }
+
+    public boolean isCompleted() {
+        return completion.isDone();
+    }
+
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    public long getRunningTimeMs() {
+        long end = isCompleted() ? finishTime : System.nanoTime();
+        return (end - startTime) / 1000000;
+    }
+
+    void complete() {
+        finishTime = System.nanoTime();
+        report.setElapsedMs((finishTime - startTime) / 1000000);
+        completion.complete(null);
+    }
+
+    void sliceStarted(int slice, long total) {
+        sliceTotals.set(slice, total);
+    }
+
+    void batchProcessed(int slice, int documents, int droppedDocuments) {
+        sliceProcessed.addAndGet(slice, documents);
+        sliceBatches.incrementAndGet(slice);
+        dropped.addAndGet(droppedDocuments);
+    }
+
+    void sliceCompleted(int slice) {
+        sliceCompleted.set(slice, 1);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSrcIndexName() {
+        return srcIndexName;
+    }
+
+    public String getDstIndexName() {
+        return dstIndexName;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    /**
+     * Returns statistics of the bulk requests written to the destination index.
+     *
+     * @return ingest report
+     */
+    public BulkIngestReport getReport() {
+        return report;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < slices; i++) {
+            total += sliceTotals.get(i);
+        }
+        return total;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSliceTotal(int slice) {
+        return sliceTotals.get(slice);
+    }
+
+    public long getSliceProcessed(int slice) {
+        return sliceProcessed.get(slice);
+    }
+
+    public int getSliceBatches(int slice) {
+        return sliceBatches.get(slice);
+    }
+
+    public boolean isSliceCompleted(int slice) {
+        return sliceCompleted.get(slice) == 1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.lineate.elastic.api.reindex;
+
+import java.util.Map;
+
+/**
+ * Java-side transformation applied to every document copied by the client-side reindex.
+ * Implementations are registered as Spring beans and referenced by bean name
+ * in the {@code reindexTransformers} entity property.
+ * <p>
+ * Transformers are called concurrently from several slice workers and must be thread safe.
+ */
+@FunctionalInterface
+public interface DocumentTransformer {
+
+    /**
+     * Transforms document source.
+     *
+     * @param id     document id
+     * @param source mutable document source
+     * @return transformed source, may be the same instance, or {@code null} to drop the document
+     */
+    Map<String, Object> transform(String id, Map<String, Object> source);
+}
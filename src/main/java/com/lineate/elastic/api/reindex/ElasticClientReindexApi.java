@@ -0,0 +1,230 @@
+package com.lineate.elastic.api.reindex;
+
+import com.carrotsearch.hppc.cursors.ObjectObjectCursor;
+import com.lineate.elastic.api.ElasticBulkPipeline;
+import com.lineate.elastic.api.ElasticDocApi;
+import com.lineate.elastic.configuration.SearchProperties;
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client-side reindex: the source is read with a sliced scroll, one worker per slice,
+ * every document passes the configured {@link DocumentTransformer}s and is written to the destination
+ * through a shared {@link ElasticBulkPipeline}.
+ * <p>
+ * Documents are copied as raw source bytes when there are no transformers.
+ */
+public class ElasticClientReindexApi {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticClientReindexApi.class);
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
+
+    private final RestHighLevelClient client;
+    private final ElasticDocApi docApi;
+    private final SearchProperties searchProperties;
+    private final AtomicInteger taskCounter = new AtomicInteger();
+    private final ExecutorService coordinatorExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "client-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ElasticClientReindexApi(RestHighLevelClient client, ElasticDocApi docApi,
+                                   SearchProperties searchProperties) {
+        this.client = client;
+        this.docApi = docApi;
+        this.searchProperties = searchProperties;
+    }
+
+    public ClientReindexTask submitReindexTask(final String fromIndex, final String toIndex, final int slices,
+                                               final List<DocumentTransformer> transformers) {
+        return submitReindexTask(fromIndex, toIndex, slices, QueryBuilders.matchAllQuery(), transformers);
+    }
+
+    /**
+     * Starts copying documents matching the query in background.
+     *
+     * @param fromIndex    source index or alias
+     * @param toIndex      destination index
+     * @param slices       number of scroll slices read in parallel or {@link ElasticDocApi#AUTO_SLICES}
+     *                     for one slice per primary shard of the source
+     * @param query        documents to copy
+     * @param transformers transformations applied in order to every document
+     * @return task tracking the progress
+     */
+    public ClientReindexTask submitReindexTask(final String fromIndex, final String toIndex, final int slices,
+                                               final QueryBuilder query,
+                                               final List<DocumentTransformer> transformers) {
+        int sliceCount = slices == ElasticDocApi.AUTO_SLICES ? getNumberOfShards(fromIndex) : Math.max(1, slices);
+        String taskId = "client-reindex:" + taskCounter.incrementAndGet();
+        LOGGER.info("Submitting client reindex task {} from {} to {} with {} slices and {} transformers",
+                taskId, fromIndex, toIndex, sliceCount, transformers.size());
+        ClientReindexTask task = new ClientReindexTask(taskId, fromIndex, toIndex, sliceCount);
+        coordinatorExecutor.execute(() -> run(task, query, transformers));
+        return task;
+    }
+
+    private void run(final ClientReindexTask task, final QueryBuilder query,
+                     final List<DocumentTransformer> transformers) {
+        AtomicInteger sliceThreads = new AtomicInteger();
+        ExecutorService sliceExecutor = Executors.newFixedThreadPool(task.getSlices(), runnable -> {
+            Thread thread = new Thread(runnable, "client-reindex-" + task.getId() + "-slice-"
+                    + sliceThreads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ElasticBulkPipeline pipeline = docApi.createBulkPipeline(task.getReport(),
+                searchProperties.getBulkConcurrentRequests())) {
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int slice = 0; slice < task.getSlices(); slice++) {
+                final int sliceId = slice;
+                workers.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        copySlice(task, sliceId, query, transformers, pipeline);
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.warn("Slice {} of client reindex task {} failed", sliceId, task.getId(), e);
+                        task.cancel("failed: " + e.getMessage());
+                    }
+                }, sliceExecutor));
+            }
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Client reindex task {} failed", task.getId(), e);
+            task.cancel("failed: " + e.getMessage());
+        } finally {
+            sliceExecutor.shutdownNow();
+            task.complete();
+            LOGGER.info("Client reindex task {} finished in {} ms: {} documents, {} indexed, {} failed, {} dropped{}",
+                    task.getId(), task.getRunningTimeMs(), task.getTotal(), task.getReport().getItems(),
+                    task.getReport().getFailed(), task.getDropped(),
+                    task.isCanceled() ? ", canceled: " + task.getCanceled() : "");
+        }
+    }
+
+    private void copySlice(final ClientReindexTask task, final int sliceId, final QueryBuilder query,
+                           final List<DocumentTransformer> transformers,
+                           final ElasticBulkPipeline pipeline) throws IOException {
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
+                .query(query)
+                .size(searchProperties.getBatchSize())
+                .trackTotalHits(true)
+                .sort("_doc", SortOrder.ASC);
+        if (task.getSlices() > 1) {
+            sourceBuilder.slice(new SliceBuilder(sliceId, task.getSlices()));
+        }
+        SearchRequest searchRequest = new SearchRequest(task.getSrcIndexName())
+                .source(sourceBuilder)
+                .scroll(SCROLL_KEEP_ALIVE);
+
+        SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+        String scrollId = response.getScrollId();
+        try {
+            task.sliceStarted(sliceId, response.getHits().getTotalHits() != null
+                    ? response.getHits().getTotalHits().value : 0);
+            while (response.getHits().getHits().length > 0 && !task.isCanceled()) {
+                SearchHit[] hits = response.getHits().getHits();
+                BulkRequest bulkRequest = new BulkRequest();
+                for (SearchHit hit : hits) {
+                    IndexRequest indexRequest = toIndexRequest(task.getDstIndexName(), hit, transformers);
+                    if (indexRequest != null) {
+                        bulkRequest.add(indexRequest);
+                    }
+                }
+                task.batchProcessed(sliceId, hits.length, hits.length - bulkRequest.numberOfActions());
+                pipeline.submit(bulkRequest);
+
+                response = client.scroll(new SearchScrollRequest(scrollId).scroll(SCROLL_KEEP_ALIVE),
+                        RequestOptions.DEFAULT);
+                scrollId = response.getScrollId();
+            }
+            if (!task.isCanceled()) {
+                task.sliceCompleted(sliceId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticActionFailedException("Interrupted while copying documents.", e);
+        } finally {
+            clearScroll(scrollId);
+        }
+    }
+
+    private static IndexRequest toIndexRequest(final String indexName, final SearchHit hit,
+                                               final List<DocumentTransformer> transformers) {
+        IndexRequest indexRequest = new IndexRequest(indexName).id(hit.getId());
+        DocumentField routing = hit.field("_routing");
+        if (routing != null) {
+            indexRequest.routing(routing.getValue().toString());
+        }
+        if (transformers.isEmpty()) {
+            return indexRequest.source(hit.getSourceRef(), XContentType.JSON);
+        }
+        Map<String, Object> source = hit.getSourceAsMap();
+        for (DocumentTransformer transformer : transformers) {
+            source = transformer.transform(hit.getId(), source);
+            if (source == null) {
+                return null;
+            }
+        }
+        return indexRequest.source(source, XContentType.JSON);
+    }
+
+    private void clearScroll(final String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        try {
+            ClearScrollRequest request = new ClearScrollRequest();
+            request.addScrollId(scrollId);
+            client.clearScroll(request, RequestOptions.DEFAULT);
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Could not clear scroll", e);
+        }
+    }
+
+    private int getNumberOfShards(final String indexName) {
+        try {
+            GetSettingsRequest request = new GetSettingsRequest()
+                    .indices(indexName)
+                    .names("index.number_of_shards");
+            GetSettingsResponse response = client.indices().getSettings(request, RequestOptions.DEFAULT);
+            int shards = 0;
+            for (ObjectObjectCursor<String, Settings> indexSettings : response.getIndexToSettings()) {
+                shards += indexSettings.value.getAsInt("index.number_of_shards", 1);
+            }
+            return Math.max(1, shards);
+        } catch (IOException | ElasticsearchException e) {
+            LOGGER.warn("Error occurred while retrieving number of shards.", e);
+            throw new ElasticActionFailedException("Error occurred while retrieving number of shards.", e);
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.lineate.elastic.configuration;
 
+import com.lineate.elastic.api.ElasticClusterApi;
 import com.lineate.elastic.api.ElasticDocApi;
 import com.lineate.elastic.api.ElasticIndexApi;
+import com.lineate.elastic.api.ElasticSearchMatchApi;
+import com.lineate.elastic.api.ElasticSearchTermApi;
 import com.lineate.elastic.api.ElasticTaskApi;
+import com.lineate.elastic.api.MultiSearchBatcher;
+import com.lineate.elastic.api.SearchResultCache;
+import com.lineate.elastic.api.reindex.ElasticClientReindexApi;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Configuration
 public class ElasticApiConfiguration {
 
     @Bean
-    public ElasticIndexApi getElasticIndexApi(RestHighLevelClient client) {
-        return new ElasticIndexApi(client);
+    public ElasticIndexApi getElasticIndexApi(RestHighLevelClient client,
+                                              @Qualifier(SearchConfiguration.LONG_REQUEST_CLIENT)
+                                                      RestHighLevelClient longRequestClient) {
+        return new ElasticIndexApi(client, longRequestClient);
     }
 
     @Bean
@@ -24,4 +40,57 @@ public class ElasticApiConfiguration {
     public ElasticTaskApi getElasticTaskApi(RestHighLevelClient client) {
         return new ElasticTaskApi(client);
     }
+
+    @Bean
+    public ElasticClusterApi getElasticClusterApi(RestHighLevelClient client) {
+        return new ElasticClusterApi(client);
+    }
+
+    @Bean
+    public ElasticClientReindexApi getElasticClientReindexApi(RestHighLevelClient client, ElasticDocApi docApi,
+                                                              SearchProperties searchProperties) {
+        return new ElasticClientReindexApi(client, docApi, searchProperties);
+    }
+
+    @Bean
+    public SearchResultCache getSearchResultCache(SearchProperties searchProperties, MeterRegistry meterRegistry) {
+        return new SearchResultCache(ByteSizeValue.parseBytesSizeValue(searchProperties.getResultCacheMaxWeight(),
+                "search.resultCacheMaxWeight").getBytes(),
+                Duration.parse(searchProperties.getResultCacheTtl()), meterRegistry);
+    }
+
+    @Bean
+    public MultiSearchBatcher getMultiSearchBatcher(RestHighLevelClient client, SearchProperties searchProperties,
+                                                    MeterRegistry meterRegistry) {
+        return new MultiSearchBatcher(client, searchProperties.getSearchBatchMaxSize(),
+                Duration.parse(searchProperties.getSearchBatchWindow()), meterRegistry);
+    }
+
+    @Bean
+    public ElasticSearchTermApi getElasticSearchTermApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                                        SearchResultCache resultCache,
+                                                        SearchProperties searchProperties,
+                                                        List<EntitySearchProperties> entities) {
+        return new ElasticSearchTermApi(client, searchProperties.isSearchBatchEnabled() ? batcher : null,
+                searchProperties.isResultCacheEnabled() ? resultCache : null,
+                searchProperties.getSearchAfterTiebreakerField(), getIndexTiebreakerFields(entities));
+    }
+
+    @Bean
+    public ElasticSearchMatchApi getElasticSearchMatchApi(RestHighLevelClient client, MultiSearchBatcher batcher,
+                                                          SearchResultCache resultCache,
+                                                          SearchProperties searchProperties,
+                                                          List<EntitySearchProperties> entities) {
+        return new ElasticSearchMatchApi(client, searchProperties.isSearchBatchEnabled() ? batcher : null,
+                searchProperties.isResultCacheEnabled() ? resultCache : null,
+                searchProperties.getSearchAfterTiebreakerField(), getIndexTiebreakerFields(entities));
+    }
+
+    private static Map<String, String> getIndexTiebreakerFields(List<EntitySearchProperties> entities) {
+        return entities.stream()
+                .filter(entity -> entity.getSearchAfterTiebreakerField() != null
+                        && !entity.getSearchAfterTiebreakerField().isBlank())
+                .collect(Collectors.toMap(EntitySearchProperties::getIndexName,
+                        EntitySearchProperties::getSearchAfterTiebreakerField));
+    }
 }
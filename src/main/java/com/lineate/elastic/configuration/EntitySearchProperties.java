@@ -1,5 +1,10 @@
 package com.lineate.elastic.configuration;
 
+import com.lineate.elastic.enums.ReindexEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Defines a search properties for each searchable entity.
  * Should be nested per entity with configuration source specification
@@ -10,9 +15,48 @@ public class EntitySearchProperties {
 
     private String configFile;
 
-    private int numberOfShards;
+    /**
+     * Number of primary shards of new indices, {@code auto} to size them from the current index.
+     * The config file value is used when empty.
+     */
+    private String numberOfShards;
+
+    /**
+     * Number of replicas of new indices, the config file value is used when empty.
+     */
+    private Integer numberOfReplicas;
+
+    /**
+     * Number of reindex slices, {@code auto} for one slice per shard. Not sliced when empty.
+     */
+    private String reindexSlices;
+
+    /**
+     * Copy documents with the server-side reindex API or read and write them from this service.
+     */
+    private ReindexEngine reindexEngine = ReindexEngine.SERVER;
+
+    /**
+     * Names of {@link com.lineate.elastic.api.reindex.DocumentTransformer} beans applied by the client-side reindex.
+     */
+    private List<String> reindexTransformers = new ArrayList<>();
+
+    /**
+     * Date field holding the last modification time of a document. When set, documents modified
+     * while reindexing are copied again before the alias is moved to the new index.
+     */
+    private String updatedAtField;
+
+    /**
+     * Classpath JSON array of search request bodies replayed against a new index before it gets the alias.
+     */
+    private String warmupQueriesFile;
 
-    private int numberOfReplicas;
+    /**
+     * Field unique per document with doc values that streamed searches are sorted by last,
+     * {@code search.searchAfterTiebreakerField} is used when empty.
+     */
+    private String searchAfterTiebreakerField;
 
     public String getIndexName() {
         return indexName;
@@ -30,19 +74,67 @@ public class EntitySearchProperties {
         this.configFile = configFile;
     }
 
-    public int getNumberOfShards() {
+    public String getNumberOfShards() {
         return numberOfShards;
     }
 
-    public void setNumberOfShards(int numberOfShards) {
+    public void setNumberOfShards(String numberOfShards) {
         this.numberOfShards = numberOfShards;
     }
 
-    public int getNumberOfReplicas() {
+    public Integer getNumberOfReplicas() {
         return numberOfReplicas;
     }
 
-    public void setNumberOfReplicas(int numberOfReplicas) {
+    public void setNumberOfReplicas(Integer numberOfReplicas) {
         this.numberOfReplicas = numberOfReplicas;
     }
+
+    public String getReindexSlices() {
+        return reindexSlices;
+    }
+
+    public void setReindexSlices(String reindexSlices) {
+        this.reindexSlices = reindexSlices;
+    }
+
+    public ReindexEngine getReindexEngine() {
+        return reindexEngine;
+    }
+
+    public void setReindexEngine(ReindexEngine reindexEngine) {
+        this.reindexEngine = reindexEngine;
+    }
+
+    public List<String> getReindexTransformers() {
+        return reindexTransformers;
+    }
+
+    public void setReindexTransformers(List<String> reindexTransformers) {
+        this.reindexTransformers = reindexTransformers;
+    }
+
+    public String getUpdatedAtField() {
+        return updatedAtField;
+    }
+
+    public void setUpdatedAtField(String updatedAtField) {
+        this.updatedAtField = updatedAtField;
+    }
+
+    public String getWarmupQueriesFile() {
+        return warmupQueriesFile;
+    }
+
+    public void setWarmupQueriesFile(String warmupQueriesFile) {
+        this.warmupQueriesFile = warmupQueriesFile;
+    }
+
+    public String getSearchAfterTiebreakerField() {
+        return searchAfterTiebreakerField;
+    }
+
+    public void setSearchAfterTiebreakerField(String searchAfterTiebreakerField) {
+        this.searchAfterTiebreakerField = searchAfterTiebreakerField;
+    }
 }
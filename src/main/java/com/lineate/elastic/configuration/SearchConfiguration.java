@@ -6,9 +6,13 @@ import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
 
 @Configuration
 public class SearchConfiguration {
+    public static final String LONG_REQUEST_CLIENT = "longRequestClient";
 
     /**
      * Create high level search client.
@@ -17,10 +21,26 @@ public class SearchConfiguration {
      * @return client
      */
     @Bean
+    @Primary
     public RestHighLevelClient getHighLevelClient(final SearchProperties props) {
         return new RestHighLevelClient(
                 RestClient.builder(
                         new HttpHost(props.getHost(), props.getPort(), "http")
                 ));
     }
+
+    /**
+     * Create client for maintenance calls running longer than the default socket timeout, e.g. force merge.
+     *
+     * @param props search properties.
+     * @return client waiting up to {@code search.longRequestTimeout} for a response
+     */
+    @Bean(LONG_REQUEST_CLIENT)
+    public RestHighLevelClient getLongRequestClient(final SearchProperties props) {
+        int socketTimeoutMs = (int) Math.min(Integer.MAX_VALUE,
+                Duration.parse(props.getLongRequestTimeout()).toMillis());
+        return new RestHighLevelClient(
+                RestClient.builder(new HttpHost(props.getHost(), props.getPort(), "http"))
+                        .setRequestConfigCallback(requestConfig -> requestConfig.setSocketTimeout(socketTimeoutMs)));
+    }
 }
@@ -12,7 +12,47 @@ public class SearchProperties {
     private String host;
     private int port;
     private int batchSize;
+    private int bulkChunkSize;
+    private long bulkChunkBytes;
+    private int bulkConcurrentRequests;
+    private int bulkMaxRetries;
+    private long bulkRetryInitialBackoffMs;
+    private int bulkParallelSources;
+    private String ingestCheckpointFile;
+    private int bulkLoadForceMergeSegments;
+    private String bulkLoadGreenTimeout;
+    private String contentHashField;
+    private boolean reindexThrottleEnabled;
+    private String reindexThrottleInterval;
+    private float reindexThrottleInitialRequestsPerSecond;
+    private float reindexThrottleMinRequestsPerSecond;
+    private float reindexThrottleMaxRequestsPerSecond;
+    private int reindexThrottleMaxSearchQueue;
+    private int reindexThrottleMaxCpuPercent;
+    private long reindexSearchLatencyBudgetMs;
+    private long catchUpThreshold;
+    private int catchUpMaxRounds;
+    private String catchUpWatermarkOverlap;
+    private boolean catchUpWriteBlock;
+    private String catchUpRoundTimeout;
+    private String oldIndexDeleteGracePeriod;
     private String trackingTaskRequestInterval;
+    private String trackingTaskMinInterval;
+    private String reindexJournalFile;
+    private int fleetReindexMaxConcurrent;
+    private String fleetReindexInterval;
+    private String targetShardSize;
+    private long maxShardDocs;
+    private boolean resizeEnabled;
+    private String resizeTimeout;
+    private String longRequestTimeout;
+    private boolean resultCacheEnabled;
+    private String resultCacheMaxWeight;
+    private String resultCacheTtl;
+    private String searchAfterTiebreakerField;
+    private boolean searchBatchEnabled;
+    private String searchBatchWindow;
+    private int searchBatchMaxSize;
 
     public String getHost() {
         return host;
@@ -38,6 +78,78 @@ public class SearchProperties {
         this.batchSize = batchSize;
     }
 
+    public int getBulkChunkSize() {
+        return bulkChunkSize;
+    }
+
+    public void setBulkChunkSize(int bulkChunkSize) {
+        this.bulkChunkSize = bulkChunkSize;
+    }
+
+    public long getBulkChunkBytes() {
+        return bulkChunkBytes;
+    }
+
+    public void setBulkChunkBytes(long bulkChunkBytes) {
+        this.bulkChunkBytes = bulkChunkBytes;
+    }
+
+    public int getBulkConcurrentRequests() {
+        return bulkConcurrentRequests;
+    }
+
+    public void setBulkConcurrentRequests(int bulkConcurrentRequests) {
+        this.bulkConcurrentRequests = bulkConcurrentRequests;
+    }
+
+    public int getBulkMaxRetries() {
+        return bulkMaxRetries;
+    }
+
+    public void setBulkMaxRetries(int bulkMaxRetries) {
+        this.bulkMaxRetries = bulkMaxRetries;
+    }
+
+    public long getBulkRetryInitialBackoffMs() {
+        return bulkRetryInitialBackoffMs;
+    }
+
+    public void setBulkRetryInitialBackoffMs(long bulkRetryInitialBackoffMs) {
+        this.bulkRetryInitialBackoffMs = bulkRetryInitialBackoffMs;
+    }
+
+    public int getBulkParallelSources() {
+        return bulkParallelSources;
+    }
+
+    public void setBulkParallelSources(int bulkParallelSources) {
+        this.bulkParallelSources = bulkParallelSources;
+    }
+
+    public String getIngestCheckpointFile() {
+        return ingestCheckpointFile;
+    }
+
+    public void setIngestCheckpointFile(String ingestCheckpointFile) {
+        this.ingestCheckpointFile = ingestCheckpointFile;
+    }
+
+    public int getBulkLoadForceMergeSegments() {
+        return bulkLoadForceMergeSegments;
+    }
+
+    public void setBulkLoadForceMergeSegments(int bulkLoadForceMergeSegments) {
+        this.bulkLoadForceMergeSegments = bulkLoadForceMergeSegments;
+    }
+
+    public String getBulkLoadGreenTimeout() {
+        return bulkLoadGreenTimeout;
+    }
+
+    public void setBulkLoadGreenTimeout(String bulkLoadGreenTimeout) {
+        this.bulkLoadGreenTimeout = bulkLoadGreenTimeout;
+    }
+
     public String getTrackingTaskRequestInterval() {
         return trackingTaskRequestInterval;
     }
@@ -45,5 +157,252 @@ public class SearchProperties {
     public void setTrackingTaskRequestInterval(String trackingTaskRequestInterval) {
         this.trackingTaskRequestInterval = trackingTaskRequestInterval;
     }
-}
 
+    public String getTrackingTaskMinInterval() {
+        return trackingTaskMinInterval;
+    }
+
+    public void setTrackingTaskMinInterval(String trackingTaskMinInterval) {
+        this.trackingTaskMinInterval = trackingTaskMinInterval;
+    }
+
+    public String getReindexJournalFile() {
+        return reindexJournalFile;
+    }
+
+    public void setReindexJournalFile(String reindexJournalFile) {
+        this.reindexJournalFile = reindexJournalFile;
+    }
+
+    public int getFleetReindexMaxConcurrent() {
+        return fleetReindexMaxConcurrent;
+    }
+
+    public void setFleetReindexMaxConcurrent(int fleetReindexMaxConcurrent) {
+        this.fleetReindexMaxConcurrent = fleetReindexMaxConcurrent;
+    }
+
+    public String getFleetReindexInterval() {
+        return fleetReindexInterval;
+    }
+
+    public void setFleetReindexInterval(String fleetReindexInterval) {
+        this.fleetReindexInterval = fleetReindexInterval;
+    }
+
+    public String getTargetShardSize() {
+        return targetShardSize;
+    }
+
+    public void setTargetShardSize(String targetShardSize) {
+        this.targetShardSize = targetShardSize;
+    }
+
+    public long getMaxShardDocs() {
+        return maxShardDocs;
+    }
+
+    public void setMaxShardDocs(long maxShardDocs) {
+        this.maxShardDocs = maxShardDocs;
+    }
+
+    public String getContentHashField() {
+        return contentHashField;
+    }
+
+    public void setContentHashField(String contentHashField) {
+        this.contentHashField = contentHashField;
+    }
+
+    public boolean isReindexThrottleEnabled() {
+        return reindexThrottleEnabled;
+    }
+
+    public void setReindexThrottleEnabled(boolean reindexThrottleEnabled) {
+        this.reindexThrottleEnabled = reindexThrottleEnabled;
+    }
+
+    public String getReindexThrottleInterval() {
+        return reindexThrottleInterval;
+    }
+
+    public void setReindexThrottleInterval(String reindexThrottleInterval) {
+        this.reindexThrottleInterval = reindexThrottleInterval;
+    }
+
+    public float getReindexThrottleInitialRequestsPerSecond() {
+        return reindexThrottleInitialRequestsPerSecond;
+    }
+
+    public void setReindexThrottleInitialRequestsPerSecond(float reindexThrottleInitialRequestsPerSecond) {
+        this.reindexThrottleInitialRequestsPerSecond = reindexThrottleInitialRequestsPerSecond;
+    }
+
+    public float getReindexThrottleMinRequestsPerSecond() {
+        return reindexThrottleMinRequestsPerSecond;
+    }
+
+    public void setReindexThrottleMinRequestsPerSecond(float reindexThrottleMinRequestsPerSecond) {
+        this.reindexThrottleMinRequestsPerSecond = reindexThrottleMinRequestsPerSecond;
+    }
+
+    public float getReindexThrottleMaxRequestsPerSecond() {
+        return reindexThrottleMaxRequestsPerSecond;
+    }
+
+    public void setReindexThrottleMaxRequestsPerSecond(float reindexThrottleMaxRequestsPerSecond) {
+        this.reindexThrottleMaxRequestsPerSecond = reindexThrottleMaxRequestsPerSecond;
+    }
+
+    public int getReindexThrottleMaxSearchQueue() {
+        return reindexThrottleMaxSearchQueue;
+    }
+
+    public void setReindexThrottleMaxSearchQueue(int reindexThrottleMaxSearchQueue) {
+        this.reindexThrottleMaxSearchQueue = reindexThrottleMaxSearchQueue;
+    }
+
+    public int getReindexThrottleMaxCpuPercent() {
+        return reindexThrottleMaxCpuPercent;
+    }
+
+    public void setReindexThrottleMaxCpuPercent(int reindexThrottleMaxCpuPercent) {
+        this.reindexThrottleMaxCpuPercent = reindexThrottleMaxCpuPercent;
+    }
+
+    public long getReindexSearchLatencyBudgetMs() {
+        return reindexSearchLatencyBudgetMs;
+    }
+
+    public void setReindexSearchLatencyBudgetMs(long reindexSearchLatencyBudgetMs) {
+        this.reindexSearchLatencyBudgetMs = reindexSearchLatencyBudgetMs;
+    }
+
+    public long getCatchUpThreshold() {
+        return catchUpThreshold;
+    }
+
+    public void setCatchUpThreshold(long catchUpThreshold) {
+        this.catchUpThreshold = catchUpThreshold;
+    }
+
+    public int getCatchUpMaxRounds() {
+        return catchUpMaxRounds;
+    }
+
+    public void setCatchUpMaxRounds(int catchUpMaxRounds) {
+        this.catchUpMaxRounds = catchUpMaxRounds;
+    }
+
+    public String getCatchUpWatermarkOverlap() {
+        return catchUpWatermarkOverlap;
+    }
+
+    public void setCatchUpWatermarkOverlap(String catchUpWatermarkOverlap) {
+        this.catchUpWatermarkOverlap = catchUpWatermarkOverlap;
+    }
+
+    public boolean isCatchUpWriteBlock() {
+        return catchUpWriteBlock;
+    }
+
+    public void setCatchUpWriteBlock(boolean catchUpWriteBlock) {
+        this.catchUpWriteBlock = catchUpWriteBlock;
+    }
+
+    public String getCatchUpRoundTimeout() {
+        return catchUpRoundTimeout;
+    }
+
+    public void setCatchUpRoundTimeout(String catchUpRoundTimeout) {
+        this.catchUpRoundTimeout = catchUpRoundTimeout;
+    }
+
+    public String getOldIndexDeleteGracePeriod() {
+        return oldIndexDeleteGracePeriod;
+    }
+
+    public void setOldIndexDeleteGracePeriod(String oldIndexDeleteGracePeriod) {
+        this.oldIndexDeleteGracePeriod = oldIndexDeleteGracePeriod;
+    }
+
+    public boolean isResizeEnabled() {
+        return resizeEnabled;
+    }
+
+    public void setResizeEnabled(boolean resizeEnabled) {
+        this.resizeEnabled = resizeEnabled;
+    }
+
+    public String getResizeTimeout() {
+        return resizeTimeout;
+    }
+
+    public void setResizeTimeout(String resizeTimeout) {
+        this.resizeTimeout = resizeTimeout;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public String getResultCacheMaxWeight() {
+        return resultCacheMaxWeight;
+    }
+
+    public void setResultCacheMaxWeight(String resultCacheMaxWeight) {
+        this.resultCacheMaxWeight = resultCacheMaxWeight;
+    }
+
+    public String getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    public void setResultCacheTtl(String resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+    }
+
+    public String getSearchAfterTiebreakerField() {
+        return searchAfterTiebreakerField;
+    }
+
+    public void setSearchAfterTiebreakerField(String searchAfterTiebreakerField) {
+        this.searchAfterTiebreakerField = searchAfterTiebreakerField;
+    }
+
+    public boolean isSearchBatchEnabled() {
+        return searchBatchEnabled;
+    }
+
+    public void setSearchBatchEnabled(boolean searchBatchEnabled) {
+        this.searchBatchEnabled = searchBatchEnabled;
+    }
+
+    public String getSearchBatchWindow() {
+        return searchBatchWindow;
+    }
+
+    public void setSearchBatchWindow(String searchBatchWindow) {
+        this.searchBatchWindow = searchBatchWindow;
+    }
+
+    public int getSearchBatchMaxSize() {
+        return searchBatchMaxSize;
+    }
+
+    public void setSearchBatchMaxSize(int searchBatchMaxSize) {
+        this.searchBatchMaxSize = searchBatchMaxSize;
+    }
+
+    public String getLongRequestTimeout() {
+        return longRequestTimeout;
+    }
+
+    public void setLongRequestTimeout(String longRequestTimeout) {
+        this.longRequestTimeout = longRequestTimeout;
+    }
+}
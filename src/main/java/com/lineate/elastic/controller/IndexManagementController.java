@@ -9,18 +9,26 @@ import com.lineate.elastic.configuration.ProductSearchProperties;
 import com.lineate.elastic.configuration.ProjectSearchProperties;
 import com.lineate.elastic.configuration.RecordingSearchProperties;
 import com.lineate.elastic.configuration.WorkSearchProperties;
+import com.lineate.elastic.dto.BulkIngestResponse;
+import com.lineate.elastic.dto.FleetReindexRequest;
+import com.lineate.elastic.dto.FleetReindexStatusResponse;
+import com.lineate.elastic.dto.IndexUpdatePlanResponse;
 import com.lineate.elastic.dto.StatusResponse;
 import com.lineate.elastic.dto.TaskStatusResponse;
 import com.lineate.elastic.enums.DataIndexerTypes;
 import com.lineate.elastic.service.IndexManagementService;
+import com.lineate.elastic.service.ReindexOrchestrationService;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
 import java.util.HashMap;
 
 @RestController
@@ -30,8 +38,10 @@ public class IndexManagementController {
     private final HashMap<DataIndexerTypes, EntitySearchProperties> indexerProperties = new HashMap<>();
 
     private final IndexManagementService indexManagementService;
+    private final ReindexOrchestrationService reindexOrchestrationService;
 
     public IndexManagementController(IndexManagementService indexManagementService,
+                                     ReindexOrchestrationService reindexOrchestrationService,
                                      ProductSearchProperties productSearchProperties,
                                      RecordingSearchProperties recordingSearchProperties,
                                      ContactSearchProperties contactSearchProperties,
@@ -41,6 +51,7 @@ public class IndexManagementController {
                                      WorkSearchProperties workSearchProperties,
                                      CompanySearchProperties companySearchProperties) {
         this.indexManagementService = indexManagementService;
+        this.reindexOrchestrationService = reindexOrchestrationService;
         this.indexerProperties.put(DataIndexerTypes.PRODUCTS, productSearchProperties);
         this.indexerProperties.put(DataIndexerTypes.RECORDINGS, recordingSearchProperties);
         this.indexerProperties.put(DataIndexerTypes.CONTACTS, contactSearchProperties);
@@ -54,13 +65,12 @@ public class IndexManagementController {
 
     @PutMapping("/{indexerType}")
     public StatusResponse createIndex(@PathVariable("indexerType") DataIndexerTypes indexerType,
-                                      @RequestParam(value = "numberOfShards", defaultValue = "1") int numberOfShards,
-                                      @RequestParam(value = "numberOfReplicas", defaultValue = "0") int numberOfReplicas) {
+                                      @RequestParam(value = "numberOfShards", required = false) String numberOfShards,
+                                      @RequestParam(value = "numberOfReplicas", required = false)
+                                              Integer numberOfReplicas) {
 
         EntitySearchProperties properties = indexerProperties.get(indexerType);
-        properties.setNumberOfShards(numberOfShards);
-        properties.setNumberOfReplicas(numberOfReplicas);
-        return indexManagementService.createIndex(properties);
+        return indexManagementService.createIndex(properties, numberOfShards, numberOfReplicas);
     }
 
     @DeleteMapping("/{indexerType}")
@@ -69,10 +79,42 @@ public class IndexManagementController {
         return indexManagementService.deleteIndex(properties);
     }
 
+    @PostMapping(value = "/{indexerType}/documents", consumes = {"application/x-ndjson", "application/json"})
+    public BulkIngestResponse uploadDocuments(@PathVariable("indexerType") DataIndexerTypes indexerType,
+                                              @RequestParam(value = "skipUnchanged", defaultValue = "false")
+                                                      boolean skipUnchanged,
+                                              InputStream ndJsonBody) {
+        EntitySearchProperties properties = indexerProperties.get(indexerType);
+        return indexManagementService.uploadDocuments(properties, ndJsonBody, skipUnchanged);
+    }
+
+    @GetMapping("/{indexerType}/plan")
+    public IndexUpdatePlanResponse planIndexUpdate(@PathVariable("indexerType") DataIndexerTypes indexerType,
+                                                   @RequestParam(value = "numberOfShards", required = false)
+                                                           String numberOfShards,
+                                                   @RequestParam(value = "numberOfReplicas", required = false)
+                                                           Integer numberOfReplicas) {
+        EntitySearchProperties properties = indexerProperties.get(indexerType);
+        return indexManagementService.updateIndex(properties, numberOfShards, numberOfReplicas, true);
+    }
+
+    @PostMapping("/{indexerType}/plan")
+    public IndexUpdatePlanResponse updateIndex(@PathVariable("indexerType") DataIndexerTypes indexerType,
+                                               @RequestParam(value = "numberOfShards", required = false)
+                                                       String numberOfShards,
+                                               @RequestParam(value = "numberOfReplicas", required = false)
+                                                       Integer numberOfReplicas) {
+        EntitySearchProperties properties = indexerProperties.get(indexerType);
+        return indexManagementService.updateIndex(properties, numberOfShards, numberOfReplicas, false);
+    }
+
     @PutMapping("/reindexing/{indexerType}")
-    public StatusResponse reindex(@PathVariable("indexerType") DataIndexerTypes indexerType) {
+    public StatusResponse reindex(@PathVariable("indexerType") DataIndexerTypes indexerType,
+                                  @RequestParam(value = "numberOfShards", required = false) String numberOfShards,
+                                  @RequestParam(value = "numberOfReplicas", required = false)
+                                          Integer numberOfReplicas) {
         EntitySearchProperties properties = indexerProperties.get(indexerType);
-        return indexManagementService.reindex(properties);
+        return indexManagementService.reindex(properties, numberOfShards, numberOfReplicas);
     }
 
     @GetMapping("/reindexing/{indexerType}")
@@ -87,4 +129,32 @@ public class IndexManagementController {
         return indexManagementService.cancelReindexing(properties);
     }
 
+    @PutMapping("/reindexing/{indexerType}/throttle")
+    public StatusResponse rethrottleReindexing(@PathVariable("indexerType") DataIndexerTypes indexerType,
+                                               @RequestParam("requestsPerSecond") float requestsPerSecond) {
+        EntitySearchProperties properties = indexerProperties.get(indexerType);
+        return indexManagementService.rethrottleReindexing(properties, requestsPerSecond);
+    }
+
+    @DeleteMapping("/reindexing/{indexerType}/throttle")
+    public StatusResponse resetReindexingThrottle(@PathVariable("indexerType") DataIndexerTypes indexerType) {
+        EntitySearchProperties properties = indexerProperties.get(indexerType);
+        return indexManagementService.rethrottleReindexing(properties, null);
+    }
+
+    @PostMapping("/reindexing")
+    public StatusResponse reindexFleet(@RequestBody FleetReindexRequest request) {
+        return reindexOrchestrationService.startReindexing(request, indexerProperties);
+    }
+
+    @GetMapping("/reindexing")
+    public FleetReindexStatusResponse getFleetReindexingStatus() {
+        return reindexOrchestrationService.getReindexingStatus();
+    }
+
+    @DeleteMapping("/reindexing")
+    public StatusResponse cancelFleetReindexing() {
+        return reindexOrchestrationService.cancelReindexing();
+    }
+
 }
@@ -0,0 +1,134 @@
+package com.lineate.elastic.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkIngestResponse {
+    private String indexName;
+    private long items;
+    private long failed;
+    private long skipped;
+    private long bytes;
+    private long elapsedMs;
+    private double docsPerSecond;
+    private List<BatchStatus> batches = new ArrayList<>();
+
+    public BulkIngestResponse() {
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    public void setItems(long items) {
+        this.items = items;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    public void setDocsPerSecond(double docsPerSecond) {
+        this.docsPerSecond = docsPerSecond;
+    }
+
+    public List<BatchStatus> getBatches() {
+        return batches;
+    }
+
+    public void setBatches(List<BatchStatus> batches) {
+        this.batches = batches;
+    }
+
+    public static class BatchStatus {
+        private int batch;
+        private int succeeded;
+        private int failed;
+        private long tookMs;
+
+        public BatchStatus() {
+        }
+
+        public BatchStatus(int batch, int succeeded, int failed, long tookMs) {
+            this.batch = batch;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.tookMs = tookMs;
+        }
+
+        public int getBatch() {
+            return batch;
+        }
+
+        public void setBatch(int batch) {
+            this.batch = batch;
+        }
+
+        public int getSucceeded() {
+            return succeeded;
+        }
+
+        public void setSucceeded(int succeeded) {
+            this.succeeded = succeeded;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public void setFailed(int failed) {
+            this.failed = failed;
+        }
+
+        public long getTookMs() {
+            return tookMs;
+        }
+
+        public void setTookMs(long tookMs) {
+            this.tookMs = tookMs;
+        }
+    }
+}
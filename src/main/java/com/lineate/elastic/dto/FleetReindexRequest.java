@@ -0,0 +1,67 @@
+package com.lineate.elastic.dto;
+
+import com.lineate.elastic.enums.DataIndexerTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FleetReindexRequest {
+    private List<Indexer> indexers = new ArrayList<>();
+    private Integer maxConcurrent;
+
+    public FleetReindexRequest() {
+    }
+
+    public List<Indexer> getIndexers() {
+        return indexers;
+    }
+
+    public void setIndexers(List<Indexer> indexers) {
+        this.indexers = indexers;
+    }
+
+    /**
+     * Returns maximum number of indexers reindexed at once, {@code search.fleetReindexMaxConcurrent} if not set.
+     *
+     * @return concurrency limit
+     */
+    public Integer getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(Integer maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Indexer to reindex, indexers with higher priority are started first.
+     */
+    public static class Indexer {
+        private DataIndexerTypes indexerType;
+        private int priority;
+
+        public Indexer() {
+        }
+
+        public Indexer(DataIndexerTypes indexerType, int priority) {
+            this.indexerType = indexerType;
+            this.priority = priority;
+        }
+
+        public DataIndexerTypes getIndexerType() {
+            return indexerType;
+        }
+
+        public void setIndexerType(DataIndexerTypes indexerType) {
+            this.indexerType = indexerType;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.lineate.elastic.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lineate.elastic.enums.DataIndexerTypes;
+import com.lineate.elastic.enums.FleetReindexState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FleetReindexStatusResponse {
+    private boolean completed;
+    private int maxConcurrent;
+    private int queued;
+    private int running;
+    private int succeeded;
+    private int failed;
+    private int canceled;
+    private long total;
+    private long processed;
+    private long spentTimeMs;
+    private List<IndexerStatus> indexers = new ArrayList<>();
+
+    public FleetReindexStatusResponse() {
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public int getRunning() {
+        return running;
+    }
+
+    public void setRunning(int running) {
+        this.running = running;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public int getCanceled() {
+        return canceled;
+    }
+
+    public void setCanceled(int canceled) {
+        this.canceled = canceled;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getSpentTimeMs() {
+        return spentTimeMs;
+    }
+
+    public void setSpentTimeMs(long spentTimeMs) {
+        this.spentTimeMs = spentTimeMs;
+    }
+
+    public List<IndexerStatus> getIndexers() {
+        return indexers;
+    }
+
+    public void setIndexers(List<IndexerStatus> indexers) {
+        this.indexers = indexers;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class IndexerStatus {
+        private DataIndexerTypes indexerType;
+        private int priority;
+        private FleetReindexState state;
+        private String message;
+        private long total;
+        private long processed;
+        private long spentTimeMs;
+
+        public IndexerStatus() {
+        }
+
+        public DataIndexerTypes getIndexerType() {
+            return indexerType;
+        }
+
+        public void setIndexerType(DataIndexerTypes indexerType) {
+            this.indexerType = indexerType;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        public FleetReindexState getState() {
+            return state;
+        }
+
+        public void setState(FleetReindexState state) {
+            this.state = state;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public void setProcessed(long processed) {
+            this.processed = processed;
+        }
+
+        public long getSpentTimeMs() {
+            return spentTimeMs;
+        }
+
+        public void setSpentTimeMs(long spentTimeMs) {
+            this.spentTimeMs = spentTimeMs;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.lineate.elastic.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lineate.elastic.enums.IndexUpdateMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IndexUpdatePlanResponse {
+    private String indexName;
+    private String configFile;
+    private IndexUpdateMode mode;
+    private String resizeType;
+    private boolean applied;
+    private List<Change> changes = new ArrayList<>();
+
+    public IndexUpdatePlanResponse() {
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public String getConfigFile() {
+        return configFile;
+    }
+
+    public void setConfigFile(String configFile) {
+        this.configFile = configFile;
+    }
+
+    public IndexUpdateMode getMode() {
+        return mode;
+    }
+
+    public void setMode(IndexUpdateMode mode) {
+        this.mode = mode;
+    }
+
+    public String getResizeType() {
+        return resizeType;
+    }
+
+    public void setResizeType(String resizeType) {
+        this.resizeType = resizeType;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<Change> changes) {
+        this.changes = changes;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Change {
+        private String path;
+        private String currentValue;
+        private String newValue;
+        private IndexUpdateMode mode;
+        private String reason;
+
+        public Change() {
+        }
+
+        public Change(String path, IndexUpdateMode mode) {
+            this.path = path;
+            this.mode = mode;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getCurrentValue() {
+            return currentValue;
+        }
+
+        public void setCurrentValue(String currentValue) {
+            this.currentValue = currentValue;
+        }
+
+        public String getNewValue() {
+            return newValue;
+        }
+
+        public void setNewValue(String newValue) {
+            this.newValue = newValue;
+        }
+
+        public IndexUpdateMode getMode() {
+            return mode;
+        }
+
+        public void setMode(IndexUpdateMode mode) {
+            this.mode = mode;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
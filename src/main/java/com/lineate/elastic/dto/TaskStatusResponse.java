@@ -2,6 +2,8 @@ package com.lineate.elastic.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.List;
+
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class TaskStatusResponse {
     private boolean completed;
@@ -11,6 +13,16 @@ public class TaskStatusResponse {
     private int created;
     private int deleted;
     private long spentTimeMs;
+    private Float requestsPerSecond;
+    private Boolean manualThrottle;
+    private Long throttledMs;
+    private Double docsPerSecond;
+    private Double batchLatencyMs;
+    private Long bulkRetries;
+    private Long searchRetries;
+    private Long remainingTimeMs;
+    private String estimatedCompletionTime;
+    private List<SliceStatus> slices;
 
     public TaskStatusResponse() {
     }
@@ -70,4 +82,167 @@ public class TaskStatusResponse {
     public void setDeleted(int deleted) {
         this.deleted = deleted;
     }
+
+    public Float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(Float requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public Boolean getManualThrottle() {
+        return manualThrottle;
+    }
+
+    public void setManualThrottle(Boolean manualThrottle) {
+        this.manualThrottle = manualThrottle;
+    }
+
+    public Long getThrottledMs() {
+        return throttledMs;
+    }
+
+    public void setThrottledMs(Long throttledMs) {
+        this.throttledMs = throttledMs;
+    }
+
+    public Double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    public void setDocsPerSecond(Double docsPerSecond) {
+        this.docsPerSecond = docsPerSecond;
+    }
+
+    public Double getBatchLatencyMs() {
+        return batchLatencyMs;
+    }
+
+    public void setBatchLatencyMs(Double batchLatencyMs) {
+        this.batchLatencyMs = batchLatencyMs;
+    }
+
+    public Long getBulkRetries() {
+        return bulkRetries;
+    }
+
+    public void setBulkRetries(Long bulkRetries) {
+        this.bulkRetries = bulkRetries;
+    }
+
+    public Long getSearchRetries() {
+        return searchRetries;
+    }
+
+    public void setSearchRetries(Long searchRetries) {
+        this.searchRetries = searchRetries;
+    }
+
+    public Long getRemainingTimeMs() {
+        return remainingTimeMs;
+    }
+
+    public void setRemainingTimeMs(Long remainingTimeMs) {
+        this.remainingTimeMs = remainingTimeMs;
+    }
+
+    public String getEstimatedCompletionTime() {
+        return estimatedCompletionTime;
+    }
+
+    public void setEstimatedCompletionTime(String estimatedCompletionTime) {
+        this.estimatedCompletionTime = estimatedCompletionTime;
+    }
+
+    public List<SliceStatus> getSlices() {
+        return slices;
+    }
+
+    public void setSlices(List<SliceStatus> slices) {
+        this.slices = slices;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SliceStatus {
+        private int sliceId;
+        private boolean completed;
+        private int total;
+        private int updated;
+        private int created;
+        private int deleted;
+        private int batches;
+        private int versionConflicts;
+
+        public SliceStatus() {
+        }
+
+        public SliceStatus(int sliceId) {
+            this.sliceId = sliceId;
+        }
+
+        public int getSliceId() {
+            return sliceId;
+        }
+
+        public void setSliceId(int sliceId) {
+            this.sliceId = sliceId;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public void setCompleted(boolean completed) {
+            this.completed = completed;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public void setUpdated(int updated) {
+            this.updated = updated;
+        }
+
+        public int getCreated() {
+            return created;
+        }
+
+        public void setCreated(int created) {
+            this.created = created;
+        }
+
+        public int getDeleted() {
+            return deleted;
+        }
+
+        public void setDeleted(int deleted) {
+            this.deleted = deleted;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public void setBatches(int batches) {
+            this.batches = batches;
+        }
+
+        public int getVersionConflicts() {
+            return versionConflicts;
+        }
+
+        public void setVersionConflicts(int versionConflicts) {
+            this.versionConflicts = versionConflicts;
+        }
+    }
 }
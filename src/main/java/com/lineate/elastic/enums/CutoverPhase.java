@@ -0,0 +1,13 @@
+package com.lineate.elastic.enums;
+
+/**
+ * Steps of finishing a reindexing, journaled so that a retried or recovered cutover does not repeat
+ * the steps already done.
+ * <p>
+ * {@code COPYING} covers everything up to the alias swap: catch-up, leaving bulk load mode and warm-up,
+ * all of them can be repeated. {@code SWAPPED} means the alias already points to the new index and only
+ * the cleanup of the old one is left.
+ */
+public enum CutoverPhase {
+    COPYING, SWAPPED;
+}
@@ -0,0 +1,8 @@
+package com.lineate.elastic.enums;
+
+/**
+ * States of an indexer within a fleet-wide reindexing.
+ */
+public enum FleetReindexState {
+    QUEUED, RUNNING, COMPLETED, FAILED, CANCELED;
+}
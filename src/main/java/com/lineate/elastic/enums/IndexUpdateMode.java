@@ -0,0 +1,8 @@
+package com.lineate.elastic.enums;
+
+/**
+ * Ways to apply a config file change to an existing index, from the cheapest to the most expensive.
+ */
+public enum IndexUpdateMode {
+    NONE, IN_PLACE, CLOSE_OPEN, RESIZE, REINDEX;
+}
@@ -0,0 +1,12 @@
+package com.lineate.elastic.enums;
+
+/**
+ * Ways to copy documents into a new index.
+ * <p>
+ * {@code RESIZE} copies segments with the clone, split or shrink index API and is only possible when
+ * the mapping and static settings do not change. Server-side and client-side reindexing switch to it
+ * automatically in that case.
+ */
+public enum ReindexEngine {
+    SERVER, CLIENT, RESIZE;
+}
@@ -0,0 +1,60 @@
+package com.lineate.elastic.model;
+
+public class BulkChunkReport {
+    private int chunkNumber;
+    private int items;
+    private int failed;
+    private long bytes;
+    private long tookMs;
+
+    public BulkChunkReport() {
+    }
+
+    public BulkChunkReport(int chunkNumber, int items, int failed, long bytes, long tookMs) {
+        this.chunkNumber = chunkNumber;
+        this.items = items;
+        this.failed = failed;
+        this.bytes = bytes;
+        this.tookMs = tookMs;
+    }
+
+    public int getChunkNumber() {
+        return chunkNumber;
+    }
+
+    public void setChunkNumber(int chunkNumber) {
+        this.chunkNumber = chunkNumber;
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public void setItems(int items) {
+        this.items = items;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public long getTookMs() {
+        return tookMs;
+    }
+
+    public void setTookMs(long tookMs) {
+        this.tookMs = tookMs;
+    }
+}
@@ -0,0 +1,148 @@
+package com.lineate.elastic.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkIngestReport {
+    private String indexName;
+    private String source;
+    private List<BulkChunkReport> chunks = new ArrayList<>();
+    private long items;
+    private long failed;
+    private long skipped;
+    private long retries;
+    private long bytes;
+    private long tookMs;
+    private long elapsedMs;
+
+    public BulkIngestReport() {
+    }
+
+    public BulkIngestReport(String indexName, String source) {
+        this.indexName = indexName;
+        this.source = source;
+    }
+
+    /**
+     * Accounts a flushed chunk in the aggregate counters.
+     *
+     * @param chunk chunk report
+     */
+    public synchronized void addChunk(BulkChunkReport chunk) {
+        chunks.add(chunk);
+        items += chunk.getItems();
+        failed += chunk.getFailed();
+        bytes += chunk.getBytes();
+        tookMs += chunk.getTookMs();
+    }
+
+    /**
+     * Accounts documents that were not sent because their content did not change.
+     *
+     * @param count number of skipped documents
+     */
+    public synchronized void addSkipped(long count) {
+        skipped += count;
+    }
+
+    /**
+     * Accounts items resent after being rejected by the cluster.
+     *
+     * @param count number of resent items
+     */
+    public synchronized void addRetries(long count) {
+        retries += count;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public List<BulkChunkReport> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<BulkChunkReport> chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    public void setItems(long items) {
+        this.items = items;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public long getTookMs() {
+        return tookMs;
+    }
+
+    public void setTookMs(long tookMs) {
+        this.tookMs = tookMs;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public double getDocsPerSecond() {
+        return elapsedMs > 0 ? items * 1000.0 / elapsedMs : 0;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedMs > 0 ? bytes * 1000.0 / elapsedMs / (1024 * 1024) : 0;
+    }
+
+    public boolean hasFailures() {
+        return failed > 0;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public void setRetries(long retries) {
+        this.retries = retries;
+    }
+}
@@ -0,0 +1,34 @@
+package com.lineate.elastic.model;
+
+/**
+ * Index settings replaced while the index is in bulk load mode.
+ * {@code null} value means the setting was not set explicitly and should be reset to default.
+ */
+public class BulkLoadSettings {
+    private String refreshInterval;
+    private String numberOfReplicas;
+
+    public BulkLoadSettings() {
+    }
+
+    public BulkLoadSettings(String refreshInterval, String numberOfReplicas) {
+        this.refreshInterval = refreshInterval;
+        this.numberOfReplicas = numberOfReplicas;
+    }
+
+    public String getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(String refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public String getNumberOfReplicas() {
+        return numberOfReplicas;
+    }
+
+    public void setNumberOfReplicas(String numberOfReplicas) {
+        this.numberOfReplicas = numberOfReplicas;
+    }
+}
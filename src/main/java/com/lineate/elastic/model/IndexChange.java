@@ -0,0 +1,71 @@
+package com.lineate.elastic.model;
+
+import com.lineate.elastic.enums.IndexUpdateMode;
+
+/**
+ * Difference between the config file and the live index.
+ */
+public class IndexChange {
+    private String path;
+    private String currentValue;
+    private String newValue;
+    private IndexUpdateMode mode;
+    private String reason;
+
+    public IndexChange() {
+    }
+
+    public IndexChange(String path, String currentValue, String newValue, IndexUpdateMode mode, String reason) {
+        this.path = path;
+        this.currentValue = currentValue;
+        this.newValue = newValue;
+        this.mode = mode;
+        this.reason = reason;
+    }
+
+    /**
+     * Returns location of the change in the config file, e.g. {@code mappings.properties.name.type}
+     * or {@code settings.index.refresh_interval}.
+     *
+     * @return path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(String currentValue) {
+        this.currentValue = currentValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public void setNewValue(String newValue) {
+        this.newValue = newValue;
+    }
+
+    public IndexUpdateMode getMode() {
+        return mode;
+    }
+
+    public void setMode(IndexUpdateMode mode) {
+        this.mode = mode;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
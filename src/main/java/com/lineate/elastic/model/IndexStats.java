@@ -0,0 +1,48 @@
+package com.lineate.elastic.model;
+
+/**
+ * Size of an index from the index stats.
+ */
+public class IndexStats {
+    private long primaryDocs;
+    private long primaryStoreBytes;
+    private long totalStoreBytes;
+
+    public IndexStats() {
+    }
+
+    public IndexStats(long primaryDocs, long primaryStoreBytes, long totalStoreBytes) {
+        this.primaryDocs = primaryDocs;
+        this.primaryStoreBytes = primaryStoreBytes;
+        this.totalStoreBytes = totalStoreBytes;
+    }
+
+    public long getPrimaryDocs() {
+        return primaryDocs;
+    }
+
+    public void setPrimaryDocs(long primaryDocs) {
+        this.primaryDocs = primaryDocs;
+    }
+
+    public long getPrimaryStoreBytes() {
+        return primaryStoreBytes;
+    }
+
+    public void setPrimaryStoreBytes(long primaryStoreBytes) {
+        this.primaryStoreBytes = primaryStoreBytes;
+    }
+
+    /**
+     * Returns disk space taken by the index including replicas.
+     *
+     * @return store size in bytes
+     */
+    public long getTotalStoreBytes() {
+        return totalStoreBytes;
+    }
+
+    public void setTotalStoreBytes(long totalStoreBytes) {
+        this.totalStoreBytes = totalStoreBytes;
+    }
+}
@@ -0,0 +1,104 @@
+package com.lineate.elastic.model;
+
+import com.lineate.elastic.enums.IndexUpdateMode;
+import org.elasticsearch.action.admin.indices.shrink.ResizeType;
+import org.elasticsearch.common.settings.Settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes needed to bring an index in line with its config file and the cheapest way to apply them.
+ */
+public class IndexUpdatePlan {
+    private final String indexName;
+    private final List<IndexChange> changes = new ArrayList<>();
+    private IndexUpdateMode mode = IndexUpdateMode.NONE;
+    private Map<String, Object> mappingUpdate = Map.of();
+    private Settings dynamicSettings = Settings.EMPTY;
+    private Settings staticSettings = Settings.EMPTY;
+    private ResizeType resizeType;
+    private Settings resizeSettings = Settings.EMPTY;
+
+    public IndexUpdatePlan(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public List<IndexChange> getChanges() {
+        return changes;
+    }
+
+    public IndexUpdateMode getMode() {
+        return mode;
+    }
+
+    public void setMode(IndexUpdateMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Returns put mapping request body with new fields and updatable parameters.
+     *
+     * @return mapping source, empty when the mapping does not change in place
+     */
+    public Map<String, Object> getMappingUpdate() {
+        return mappingUpdate;
+    }
+
+    public void setMappingUpdate(Map<String, Object> mappingUpdate) {
+        this.mappingUpdate = mappingUpdate;
+    }
+
+    public Settings getDynamicSettings() {
+        return dynamicSettings;
+    }
+
+    public void setDynamicSettings(Settings dynamicSettings) {
+        this.dynamicSettings = dynamicSettings;
+    }
+
+    /**
+     * Returns settings that can only be updated while the index is closed.
+     *
+     * @return static settings, {@code null} values remove the setting
+     */
+    public Settings getStaticSettings() {
+        return staticSettings;
+    }
+
+    public void setStaticSettings(Settings staticSettings) {
+        this.staticSettings = staticSettings;
+    }
+
+    /**
+     * Returns resize API the changes can be applied with to a new index, {@code null} when documents
+     * have to be reindexed or the index has to be closed.
+     *
+     * @return resize type
+     */
+    public ResizeType getResizeType() {
+        return resizeType;
+    }
+
+    public void setResizeType(ResizeType resizeType) {
+        this.resizeType = resizeType;
+    }
+
+    /**
+     * Returns settings of the resized index, changed dynamic settings and the number of shards.
+     *
+     * @return target settings
+     */
+    public Settings getResizeSettings() {
+        return resizeSettings;
+    }
+
+    public void setResizeSettings(Settings resizeSettings) {
+        this.resizeSettings = resizeSettings;
+    }
+}
@@ -0,0 +1,43 @@
+package com.lineate.elastic.model;
+
+/**
+ * Disk usage of a single data node.
+ */
+public class NodeDiskStats {
+    private String nodeName;
+    private long totalBytes;
+    private long availableBytes;
+
+    public NodeDiskStats() {
+    }
+
+    public NodeDiskStats(String nodeName, long totalBytes, long availableBytes) {
+        this.nodeName = nodeName;
+        this.totalBytes = totalBytes;
+        this.availableBytes = availableBytes;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getAvailableBytes() {
+        return availableBytes;
+    }
+
+    public void setAvailableBytes(long availableBytes) {
+        this.availableBytes = availableBytes;
+    }
+}
@@ -0,0 +1,101 @@
+package com.lineate.elastic.model;
+
+/**
+ * Cluster-wide load sample aggregated over all nodes: queues and CPU are the maximum over nodes,
+ * counters are summed up.
+ */
+public class NodeLoadStats {
+    private long timestampMs;
+    private int searchQueue;
+    private long searchRejected;
+    private int writeQueue;
+    private long writeRejected;
+    private int cpuPercent;
+    private long queryTotal;
+    private long queryTimeMs;
+
+    public NodeLoadStats() {
+    }
+
+    public NodeLoadStats(long timestampMs) {
+        this.timestampMs = timestampMs;
+    }
+
+    /**
+     * Calculates average search query latency between an earlier sample and this one.
+     *
+     * @param previous earlier sample
+     * @return average latency in ms or -1 if no queries were run in between
+     */
+    public double getAverageQueryLatencyMsSince(NodeLoadStats previous) {
+        long queries = queryTotal - previous.queryTotal;
+        if (queries <= 0) {
+            return -1;
+        }
+        return (double) (queryTimeMs - previous.queryTimeMs) / queries;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public void setTimestampMs(long timestampMs) {
+        this.timestampMs = timestampMs;
+    }
+
+    public int getSearchQueue() {
+        return searchQueue;
+    }
+
+    public void setSearchQueue(int searchQueue) {
+        this.searchQueue = searchQueue;
+    }
+
+    public long getSearchRejected() {
+        return searchRejected;
+    }
+
+    public void setSearchRejected(long searchRejected) {
+        this.searchRejected = searchRejected;
+    }
+
+    public int getWriteQueue() {
+        return writeQueue;
+    }
+
+    public void setWriteQueue(int writeQueue) {
+        this.writeQueue = writeQueue;
+    }
+
+    public long getWriteRejected() {
+        return writeRejected;
+    }
+
+    public void setWriteRejected(long writeRejected) {
+        this.writeRejected = writeRejected;
+    }
+
+    public int getCpuPercent() {
+        return cpuPercent;
+    }
+
+    public void setCpuPercent(int cpuPercent) {
+        this.cpuPercent = cpuPercent;
+    }
+
+    public long getQueryTotal() {
+        return queryTotal;
+    }
+
+    public void setQueryTotal(long queryTotal) {
+        this.queryTotal = queryTotal;
+    }
+
+    public long getQueryTimeMs() {
+        return queryTimeMs;
+    }
+
+    public void setQueryTimeMs(long queryTimeMs) {
+        this.queryTimeMs = queryTimeMs;
+    }
+}
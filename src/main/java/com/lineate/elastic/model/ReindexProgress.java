@@ -0,0 +1,146 @@
+package com.lineate.elastic.model;
+
+/**
+ * Progress of a reindexing task with rates computed from successive status samples.
+ * Rates are recalculated only when samples are at least a second apart, so that frequent
+ * status requests do not make them jump.
+ */
+public class ReindexProgress {
+    private static final long MIN_SAMPLE_INTERVAL_NANOS = 1000000000L;
+
+    private long sampleTimeNanos = -1;
+    private long sampleProcessed;
+    private long sampleBatches;
+    private long sampleThrottledMs;
+    private long lastProgressTimeMs = System.currentTimeMillis();
+    private long total;
+    private long processed;
+    private long batches;
+    private long bulkRetries;
+    private long searchRetries;
+    private long throttledMs;
+    private double docsPerSecond = -1;
+    private double batchLatencyMs = -1;
+
+    /**
+     * Accounts a new status sample.
+     *
+     * @param total         documents to process
+     * @param processed     documents processed so far, including noops and version conflicts
+     * @param batches       scroll batches processed so far
+     * @param bulkRetries   bulk retries so far
+     * @param searchRetries search retries so far
+     * @param throttledMs   time spent waiting for the throttle so far
+     */
+    public void update(long total, long processed, long batches, long bulkRetries, long searchRetries,
+                       long throttledMs) {
+        update(total, processed, batches, bulkRetries, searchRetries, throttledMs, 1);
+    }
+
+    /**
+     * Accounts a new status sample of a task copying with parallel slices. Batches and throttled time are sums
+     * over the slices, the batch latency is the time of a batch within a slice.
+     *
+     * @param total         documents to process
+     * @param processed     documents processed so far, including noops and version conflicts
+     * @param batches       scroll batches processed so far by all slices
+     * @param bulkRetries   bulk retries so far
+     * @param searchRetries search retries so far
+     * @param throttledMs   time all slices spent waiting for the throttle so far
+     * @param slices        number of slices running in parallel
+     */
+    public synchronized void update(long total, long processed, long batches, long bulkRetries, long searchRetries,
+                                    long throttledMs, int slices) {
+        long now = System.nanoTime();
+        if (processed > this.processed) {
+            lastProgressTimeMs = System.currentTimeMillis();
+        }
+        this.total = total;
+        this.processed = processed;
+        this.batches = batches;
+        this.bulkRetries = bulkRetries;
+        this.searchRetries = searchRetries;
+        this.throttledMs = throttledMs;
+
+        if (sampleTimeNanos >= 0 && now - sampleTimeNanos < MIN_SAMPLE_INTERVAL_NANOS) {
+            return;
+        }
+        if (sampleTimeNanos >= 0) {
+            double elapsedMs = (now - sampleTimeNanos) / 1000000.0;
+            docsPerSecond = Math.max(0, processed - sampleProcessed) * 1000.0 / elapsedMs;
+            long sampledBatches = batches - sampleBatches;
+            if (sampledBatches > 0) {
+                // every slice spent the elapsed time on its own batches, the throttle is not a part of them
+                double sliceMs = elapsedMs * Math.max(1, slices);
+                batchLatencyMs = Math.max(0, sliceMs - (throttledMs - sampleThrottledMs)) / sampledBatches;
+            }
+        }
+        sampleTimeNanos = now;
+        sampleProcessed = processed;
+        sampleBatches = batches;
+        sampleThrottledMs = throttledMs;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized long getProcessed() {
+        return processed;
+    }
+
+    public synchronized long getBatches() {
+        return batches;
+    }
+
+    public synchronized long getBulkRetries() {
+        return bulkRetries;
+    }
+
+    public synchronized long getSearchRetries() {
+        return searchRetries;
+    }
+
+    public synchronized long getThrottledMs() {
+        return throttledMs;
+    }
+
+    /**
+     * Returns processing rate between the last two samples.
+     *
+     * @return documents per second or -1 if there is only one sample
+     */
+    public synchronized double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    /**
+     * Returns average time of a batch between the last two samples, excluding throttling.
+     *
+     * @return latency in ms or -1 if no batches were processed in between
+     */
+    public synchronized double getBatchLatencyMs() {
+        return batchLatencyMs;
+    }
+
+    /**
+     * Projects the time left at the current rate.
+     *
+     * @return remaining time in ms or -1 if the rate is unknown
+     */
+    public synchronized long getRemainingMs() {
+        if (docsPerSecond <= 0 || total <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(0, total - processed) * 1000 / docsPerSecond);
+    }
+
+    /**
+     * Returns time since the number of processed documents last increased.
+     *
+     * @return time in ms
+     */
+    public synchronized long getStalledMs() {
+        return System.currentTimeMillis() - lastProgressTimeMs;
+    }
+}
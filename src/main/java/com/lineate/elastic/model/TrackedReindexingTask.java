@@ -1,11 +1,34 @@
 package com.lineate.elastic.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.lineate.elastic.api.reindex.ClientReindexTask;
+import com.lineate.elastic.enums.CutoverPhase;
+import com.lineate.elastic.enums.ReindexEngine;
+import org.elasticsearch.action.admin.indices.shrink.ResizeType;
+
+import java.util.ArrayList;
+import java.util.List;
+
 public class TrackedReindexingTask {
     private String srcIndexName;
     private String dstIndexName;
     private String indexAlias;
     private String elasticTaskId;
     private boolean tracking;
+    private BulkLoadSettings bulkLoadSettings;
+    private float requestsPerSecond = Float.POSITIVE_INFINITY;
+    private boolean manualThrottle;
+    private ReindexEngine reindexEngine = ReindexEngine.SERVER;
+    private ResizeType resizeType;
+    private long startTimeMs;
+    private ClientReindexTask clientReindexTask;
+    private List<String> documentTransformers = new ArrayList<>();
+    private String updatedAtField;
+    private long watermarkMs;
+    private String warmupQueriesFile;
+    private String canceled;
+    private CutoverPhase cutoverPhase = CutoverPhase.COPYING;
+    private final ReindexProgress progress = new ReindexProgress();
 
     public TrackedReindexingTask() {
     }
@@ -16,6 +39,7 @@ public class TrackedReindexingTask {
         this.indexAlias = indexAlias;
         this.elasticTaskId = elasticTaskId;
         this.tracking = true;
+        this.startTimeMs = System.currentTimeMillis();
     }
 
     public String getSrcIndexName() {
@@ -57,4 +81,140 @@ public class TrackedReindexingTask {
     public void setTracking(boolean tracking) {
         this.tracking = tracking;
     }
+
+    public BulkLoadSettings getBulkLoadSettings() {
+        return bulkLoadSettings;
+    }
+
+    public void setBulkLoadSettings(BulkLoadSettings bulkLoadSettings) {
+        this.bulkLoadSettings = bulkLoadSettings;
+    }
+
+    public float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(float requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public boolean isManualThrottle() {
+        return manualThrottle;
+    }
+
+    public void setManualThrottle(boolean manualThrottle) {
+        this.manualThrottle = manualThrottle;
+    }
+
+    public ReindexEngine getReindexEngine() {
+        return reindexEngine;
+    }
+
+    public void setReindexEngine(ReindexEngine reindexEngine) {
+        this.reindexEngine = reindexEngine;
+    }
+
+    /**
+     * Returns resize API the new index is created with when the engine is {@link ReindexEngine#RESIZE}.
+     *
+     * @return resize type
+     */
+    public ResizeType getResizeType() {
+        return resizeType;
+    }
+
+    public void setResizeType(ResizeType resizeType) {
+        this.resizeType = resizeType;
+    }
+
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+
+    public void setStartTimeMs(long startTimeMs) {
+        this.startTimeMs = startTimeMs;
+    }
+
+    /**
+     * Returns client-side reindex task, {@code null} when documents are copied by the server-side reindex
+     * or the task was recovered after a restart. The task lives in memory only and is not journaled.
+     *
+     * @return client-side reindex task
+     */
+    @JsonIgnore
+    public ClientReindexTask getClientReindexTask() {
+        return clientReindexTask;
+    }
+
+    public void setClientReindexTask(ClientReindexTask clientReindexTask) {
+        this.clientReindexTask = clientReindexTask;
+    }
+
+    public List<String> getDocumentTransformers() {
+        return documentTransformers;
+    }
+
+    public void setDocumentTransformers(List<String> documentTransformers) {
+        this.documentTransformers = documentTransformers;
+    }
+
+    public String getUpdatedAtField() {
+        return updatedAtField;
+    }
+
+    public void setUpdatedAtField(String updatedAtField) {
+        this.updatedAtField = updatedAtField;
+    }
+
+    /**
+     * Returns time before which all modifications of the source index are already copied to the new index.
+     *
+     * @return epoch millis
+     */
+    public long getWatermarkMs() {
+        return watermarkMs;
+    }
+
+    public void setWatermarkMs(long watermarkMs) {
+        this.watermarkMs = watermarkMs;
+    }
+
+    public String getWarmupQueriesFile() {
+        return warmupQueriesFile;
+    }
+
+    public void setWarmupQueriesFile(String warmupQueriesFile) {
+        this.warmupQueriesFile = warmupQueriesFile;
+    }
+
+    /**
+     * Returns reason the reindexing was canceled for, {@code null} while it is running or if it was completed.
+     *
+     * @return cancellation reason
+     */
+    public String getCanceled() {
+        return canceled;
+    }
+
+    public void setCanceled(String canceled) {
+        this.canceled = canceled;
+    }
+
+    public CutoverPhase getCutoverPhase() {
+        return cutoverPhase;
+    }
+
+    public void setCutoverPhase(CutoverPhase cutoverPhase) {
+        this.cutoverPhase = cutoverPhase;
+    }
+
+    /**
+     * Returns progress sampled while the task is tracked, kept in memory only.
+     *
+     * @return progress
+     */
+    @JsonIgnore
+    public ReindexProgress getProgress() {
+        return progress;
+    }
 }
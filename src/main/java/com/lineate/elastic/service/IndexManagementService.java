@@ -1,56 +1,138 @@
 package com.lineate.elastic.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lineate.elastic.api.ElasticClusterApi;
 import com.lineate.elastic.api.ElasticDocApi;
 import com.lineate.elastic.api.ElasticIndexApi;
 import com.lineate.elastic.api.ElasticTaskApi;
+import com.lineate.elastic.api.SearchResultCache;
+import com.lineate.elastic.api.reindex.ClientReindexTask;
+import com.lineate.elastic.api.reindex.DocumentTransformer;
+import com.lineate.elastic.api.reindex.ElasticClientReindexApi;
 import com.lineate.elastic.configuration.EntitySearchProperties;
+import com.lineate.elastic.configuration.SearchProperties;
+import com.lineate.elastic.dto.BulkIngestResponse;
+import com.lineate.elastic.dto.IndexUpdatePlanResponse;
 import com.lineate.elastic.dto.StatusResponse;
 import com.lineate.elastic.dto.TaskStatusResponse;
+import com.lineate.elastic.enums.CutoverPhase;
+import com.lineate.elastic.enums.IndexUpdateMode;
+import com.lineate.elastic.enums.ReindexEngine;
 import com.lineate.elastic.exception.ElasticActionFailedException;
 import com.lineate.elastic.exception.ElasticActionForbiddenException;
 import com.lineate.elastic.exception.ElasticEntityNotFoundException;
+import com.lineate.elastic.model.BulkChunkReport;
+import com.lineate.elastic.model.BulkIngestReport;
+import com.lineate.elastic.model.BulkLoadSettings;
+import com.lineate.elastic.model.IndexChange;
+import com.lineate.elastic.model.IndexStats;
+import com.lineate.elastic.model.IndexUpdatePlan;
+import com.lineate.elastic.model.NodeDiskStats;
+import com.lineate.elastic.model.NodeLoadStats;
+import com.lineate.elastic.model.ReindexProgress;
 import com.lineate.elastic.model.TrackedReindexingTask;
+import org.elasticsearch.action.admin.indices.shrink.ResizeType;
 import org.elasticsearch.client.tasks.GetTaskResponse;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.tasks.TaskInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Service
 public class IndexManagementService {
     private static final Logger LOGGER = LoggerFactory.getLogger(IndexManagementService.class);
+    private static final String AUTO = "auto";
+    private static final String ROUTING_REQUIRE_NAME_SETTING =
+            IndexMetadata.INDEX_ROUTING_REQUIRE_GROUP_PREFIX + "._name";
 
     private final ConcurrentMap<String, TrackedReindexingTask> elasticTasks = new ConcurrentHashMap<>();
-    private final ObjectMapper objectMapper;
     private final ElasticIndexApi indexApi;
     private final ElasticDocApi docApi;
     private final ElasticTaskApi taskApi;
+    private final ElasticClusterApi clusterApi;
+    private final ElasticClientReindexApi clientReindexApi;
+    private final Map<String, DocumentTransformer> documentTransformers;
+    private final SearchProperties searchProperties;
+    private final TaskScheduler taskScheduler;
+    private final ReindexTaskTracker reindexTaskTracker;
+    private final ReindexTaskJournal reindexTaskJournal;
+    private final ReindexMetrics reindexMetrics;
+    private final IndexUpdatePlanner indexUpdatePlanner;
+    private final SearchResultCache searchResultCache;
+    private volatile NodeLoadStats lastNodeLoadStats;
 
 
-    public IndexManagementService(ObjectMapper objectMapper, ElasticIndexApi indexApi, ElasticDocApi docApi, ElasticTaskApi taskApi) {
-        this.objectMapper = objectMapper;
+    public IndexManagementService(ElasticIndexApi indexApi, ElasticDocApi docApi,
+                                  ElasticTaskApi taskApi, ElasticClusterApi clusterApi,
+                                  ElasticClientReindexApi clientReindexApi,
+                                  Map<String, DocumentTransformer> documentTransformers,
+                                  SearchProperties searchProperties, TaskScheduler taskScheduler,
+                                  ReindexTaskTracker reindexTaskTracker, ReindexTaskJournal reindexTaskJournal,
+                                  ReindexMetrics reindexMetrics, IndexUpdatePlanner indexUpdatePlanner,
+                                  SearchResultCache searchResultCache) {
         this.indexApi = indexApi;
         this.docApi = docApi;
         this.taskApi = taskApi;
+        this.clusterApi = clusterApi;
+        this.clientReindexApi = clientReindexApi;
+        this.documentTransformers = documentTransformers;
+        this.searchProperties = searchProperties;
+        this.taskScheduler = taskScheduler;
+        this.reindexTaskTracker = reindexTaskTracker;
+        this.reindexTaskJournal = reindexTaskJournal;
+        this.reindexMetrics = reindexMetrics;
+        this.indexUpdatePlanner = indexUpdatePlanner;
+        this.searchResultCache = searchResultCache;
     }
 
-    public StatusResponse createIndex(EntitySearchProperties properties) {
+    /**
+     * Creates the first index of the entity.
+     *
+     * @param properties       entity properties
+     * @param numberOfShards   overrides the entity and config file value when not {@code null},
+     *                         {@code auto} falls back to the config file as there is no index to size from
+     * @param numberOfReplicas overrides the entity and config file value when not {@code null}
+     * @return status
+     */
+    public StatusResponse createIndex(EntitySearchProperties properties, String numberOfShards,
+                                      Integer numberOfReplicas) {
         LOGGER.info("Creating index with name {} using config file {}",
                 properties.getIndexName(), properties.getConfigFile());
         if (indexApi.checkIndexExists(properties.getIndexName())) {
             throw new ElasticActionForbiddenException("Index already exists");
         }
+        Settings settingsOverrides = getIndexSettingsOverrides(properties, numberOfShards, numberOfReplicas, false);
         String newIndexName = properties.getIndexName() + ZonedDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
-        indexApi.createIndex(newIndexName, properties.getConfigFile());
+        indexApi.createIndex(newIndexName, properties.getConfigFile(), settingsOverrides);
         indexApi.addAliasToIndex(newIndexName, properties.getIndexName());
         return StatusResponse.OK;
     }
@@ -59,10 +141,60 @@ public class IndexManagementService {
         LOGGER.info("Deleting index {}", properties.getIndexName());
         String indexRealName = indexApi.getIndexNameByAlias(properties.getIndexName());
         indexApi.deleteIndex(indexRealName);
+        searchResultCache.invalidate(properties.getIndexName());
+        searchResultCache.invalidate(indexRealName);
         return StatusResponse.OK;
     }
 
+    public BulkIngestResponse uploadDocuments(EntitySearchProperties properties, InputStream ndJsonStream,
+                                              boolean skipUnchanged) {
+        LOGGER.info("Uploading documents into {}", properties.getIndexName());
+        if (!indexApi.checkIndexExists(properties.getIndexName())) {
+            throw new ElasticEntityNotFoundException("Could not find index");
+        }
+
+        BulkIngestReport report;
+        try {
+            report = docApi.fastBulkIndexFromChannel(properties.getIndexName(), "upload",
+                    Channels.newChannel(ndJsonStream), skipUnchanged);
+        } catch (IOException e) {
+            LOGGER.warn("Error occurred while reading uploaded documents", e);
+            throw new ElasticActionFailedException("Error occurred while reading uploaded documents.", e);
+        } finally {
+            // a failed upload may have written a part of the documents
+            searchResultCache.invalidate(properties.getIndexName());
+        }
+
+        BulkIngestResponse response = new BulkIngestResponse();
+        response.setIndexName(properties.getIndexName());
+        response.setItems(report.getItems());
+        response.setFailed(report.getFailed());
+        response.setSkipped(report.getSkipped());
+        response.setBytes(report.getBytes());
+        response.setElapsedMs(report.getElapsedMs());
+        response.setDocsPerSecond(report.getDocsPerSecond());
+        for (BulkChunkReport chunk : report.getChunks()) {
+            response.getBatches().add(new BulkIngestResponse.BatchStatus(chunk.getChunkNumber(),
+                    chunk.getItems() - chunk.getFailed(), chunk.getFailed(), chunk.getTookMs()));
+        }
+        return response;
+    }
+
     public StatusResponse reindex(EntitySearchProperties properties) {
+        return reindex(properties, null, null);
+    }
+
+    /**
+     * Copies documents into a new index and moves the alias to it once completed.
+     *
+     * @param properties       entity properties
+     * @param numberOfShards   overrides the entity and config file value when not {@code null},
+     *                         {@code auto} sizes shards from the current index
+     * @param numberOfReplicas overrides the entity and config file value when not {@code null}
+     * @return status
+     */
+    public StatusResponse reindex(EntitySearchProperties properties, String numberOfShards,
+                                  Integer numberOfReplicas) {
         LOGGER.info("Starting reindexing for {}", properties.getIndexName());
 
         if (!indexApi.checkIndexExists(properties.getIndexName())) {
@@ -73,24 +205,226 @@ public class IndexManagementService {
         if (trackedReindexingTask != null && trackedReindexingTask.isTracking()) {
             throw new ElasticActionForbiddenException("Reindexing task is already running for the index.");
         }
+        boolean clientReindex = properties.getReindexEngine() == ReindexEngine.CLIENT;
+        List<DocumentTransformer> transformers = getDocumentTransformers(properties.getReindexTransformers());
+        if (!transformers.isEmpty() && !clientReindex) {
+            throw new ElasticActionForbiddenException("Document transformers require client-side reindexing.");
+        }
 
+        String oldIndexName = indexApi.getIndexNameByAlias(properties.getIndexName());
+        Settings settingsOverrides = getIndexSettingsOverrides(properties, numberOfShards, numberOfReplicas, true);
         String newIndexName = properties.getIndexName() + ZonedDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss"));
-        indexApi.createIndex(newIndexName, properties.getConfigFile());
+        if (properties.getReindexEngine() == ReindexEngine.RESIZE
+                || searchProperties.isResizeEnabled() && transformers.isEmpty()) {
+            IndexUpdatePlan plan = indexUpdatePlanner.plan(oldIndexName, properties.getConfigFile(),
+                    settingsOverrides);
+            if (plan.getResizeType() != null) {
+                return resize(properties, newIndexName, plan);
+            }
+            if (properties.getReindexEngine() == ReindexEngine.RESIZE) {
+                throw new ElasticActionForbiddenException("Index can not be resized, documents have to be reindexed.");
+            }
+        }
+
+        indexApi.createIndex(newIndexName, properties.getConfigFile(), settingsOverrides);
         String taskId;
+        BulkLoadSettings bulkLoadSettings;
+        ClientReindexTask clientReindexTask = null;
+        float requestsPerSecond = searchProperties.isReindexThrottleEnabled() && !clientReindex
+                ? searchProperties.getReindexThrottleInitialRequestsPerSecond() : Float.POSITIVE_INFINITY;
+        // documents modified from now on are copied again by the catch-up phase
+        long watermarkMs = System.currentTimeMillis();
         try {
-            taskId = docApi.submitReindexTask(properties.getIndexName(), newIndexName);
+            bulkLoadSettings = indexApi.enableBulkLoadMode(newIndexName);
+            if (clientReindex) {
+                clientReindexTask = clientReindexApi.submitReindexTask(properties.getIndexName(), newIndexName,
+                        getReindexSlices(properties), transformers);
+                taskId = clientReindexTask.getId();
+            } else {
+                taskId = docApi.submitReindexTask(properties.getIndexName(), newIndexName,
+                        getReindexSlices(properties), requestsPerSecond);
+            }
         } catch (ElasticActionFailedException ex) {
             indexApi.deleteIndex(newIndexName);
             throw ex;
         }
 
-        String oldIndexName = indexApi.getIndexNameByAlias(properties.getIndexName());
         trackedReindexingTask = new TrackedReindexingTask(oldIndexName, newIndexName, properties.getIndexName(), taskId);
+        trackedReindexingTask.setBulkLoadSettings(bulkLoadSettings);
+        trackedReindexingTask.setRequestsPerSecond(requestsPerSecond);
+        trackedReindexingTask.setReindexEngine(properties.getReindexEngine());
+        trackedReindexingTask.setClientReindexTask(clientReindexTask);
+        trackedReindexingTask.setDocumentTransformers(properties.getReindexTransformers());
+        trackedReindexingTask.setUpdatedAtField(properties.getUpdatedAtField());
+        trackedReindexingTask.setWatermarkMs(watermarkMs);
+        trackedReindexingTask.setWarmupQueriesFile(properties.getWarmupQueriesFile());
+        elasticTasks.put(properties.getIndexName(), trackedReindexingTask);
+        reindexMetrics.register(properties.getIndexName(), this::getSampledReindexingTask);
+        reindexTaskJournal.saveTask(trackedReindexingTask);
+        reindexTaskTracker.track(trackedReindexingTask, this::finishReindexing);
+        return StatusResponse.OK;
+    }
+
+    /**
+     * Creates the new index from the segments of the current one, the alias is moved by the usual cutover.
+     */
+    private StatusResponse resize(EntitySearchProperties properties, String newIndexName, IndexUpdatePlan plan) {
+        LOGGER.info("Documents of {} do not have to be reindexed, creating {} with {} of {}",
+                properties.getIndexName(), newIndexName, plan.getResizeType(), plan.getIndexName());
+        TrackedReindexingTask trackedReindexingTask = new TrackedReindexingTask(plan.getIndexName(), newIndexName,
+                properties.getIndexName(), "resize:" + newIndexName);
+        trackedReindexingTask.setReindexEngine(ReindexEngine.RESIZE);
+        trackedReindexingTask.setResizeType(plan.getResizeType());
+        trackedReindexingTask.setWarmupQueriesFile(properties.getWarmupQueriesFile());
         elasticTasks.put(properties.getIndexName(), trackedReindexingTask);
+        reindexMetrics.register(properties.getIndexName(), this::getSampledReindexingTask);
+        reindexTaskJournal.saveTask(trackedReindexingTask);
+        reindexTaskTracker.track(trackedReindexingTask, () -> resizeIndex(trackedReindexingTask, plan),
+                this::finishReindexing);
         return StatusResponse.OK;
     }
 
+    /**
+     * Blocks writes into the source, for shrinking moves a copy of every shard to the data node
+     * with the most free disk space, then resizes, adds new fields and waits until the new index is green.
+     * The source stays read-only after the cutover until it is deleted.
+     */
+    private void resizeIndex(TrackedReindexingTask trackedReindexingTask, IndexUpdatePlan plan) {
+        String srcIndexName = trackedReindexingTask.getSrcIndexName();
+        TimeValue timeout = TimeValue.timeValueMillis(Duration.parse(searchProperties.getResizeTimeout()).toMillis());
+        Settings.Builder settings = Settings.builder()
+                .put(plan.getResizeSettings())
+                .putNull(IndexMetadata.SETTING_BLOCKS_WRITE);
+
+        indexApi.setWriteBlock(srcIndexName, true);
+        if (trackedReindexingTask.getResizeType() == ResizeType.SHRINK) {
+            long primaryStoreBytes = indexApi.getIndexStats(srcIndexName).getPrimaryStoreBytes();
+            NodeDiskStats node = clusterApi.getNodeDiskStats().stream()
+                    .max(Comparator.comparingLong(NodeDiskStats::getAvailableBytes))
+                    .filter(nodeDiskStats -> nodeDiskStats.getAvailableBytes() > primaryStoreBytes)
+                    .orElseThrow(() -> new ElasticActionFailedException("No data node has enough disk space to shrink "
+                            + srcIndexName));
+            LOGGER.info("Moving a copy of every shard of {} to node {}", srcIndexName, node.getNodeName());
+            indexApi.updateIndexSettings(srcIndexName, Settings.builder()
+                    .put(ROUTING_REQUIRE_NAME_SETTING, node.getNodeName())
+                    .build());
+            indexApi.waitForGreenStatus(srcIndexName, timeout, true);
+            settings.putNull(ROUTING_REQUIRE_NAME_SETTING);
+        }
+        indexApi.resizeIndex(trackedReindexingTask.getResizeType(), srcIndexName,
+                trackedReindexingTask.getDstIndexName(), settings.build());
+        if (!plan.getMappingUpdate().isEmpty()) {
+            indexApi.putMapping(trackedReindexingTask.getDstIndexName(), plan.getMappingUpdate());
+        }
+        indexApi.waitForGreenStatus(trackedReindexingTask.getDstIndexName(), timeout);
+    }
+
+    private void restoreResizeSource(TrackedReindexingTask trackedReindexingTask) {
+        Settings.Builder settings = Settings.builder()
+                .put(IndexMetadata.SETTING_BLOCKS_WRITE, false);
+        if (trackedReindexingTask.getResizeType() == ResizeType.SHRINK) {
+            settings.putNull(ROUTING_REQUIRE_NAME_SETTING);
+        }
+        try {
+            indexApi.updateIndexSettings(trackedReindexingTask.getSrcIndexName(), settings.build());
+        } catch (ElasticActionFailedException e) {
+            LOGGER.warn("Could not unblock writes into {}", trackedReindexingTask.getSrcIndexName());
+        }
+    }
+
+    /**
+     * Compares the config file with the live index and applies the differences the cheapest way:
+     * in place, by closing the index for static settings, by a resize or by a full reindex.
+     *
+     * @param properties       entity properties
+     * @param numberOfShards   overrides the entity and config file value when not {@code null},
+     *                         {@code auto} sizes shards from the current index
+     * @param numberOfReplicas overrides the entity and config file value when not {@code null}
+     * @param dryRun           only report the plan
+     * @return plan with every difference and the way it is applied
+     */
+    public IndexUpdatePlanResponse updateIndex(EntitySearchProperties properties, String numberOfShards,
+                                               Integer numberOfReplicas, boolean dryRun) {
+        LOGGER.info("Planning update of {} from {}{}", properties.getIndexName(), properties.getConfigFile(),
+                dryRun ? " (dry run)" : "");
+        if (!indexApi.checkIndexExists(properties.getIndexName())) {
+            throw new ElasticEntityNotFoundException("Could not find index");
+        }
+        TrackedReindexingTask trackedReindexingTask = elasticTasks.get(properties.getIndexName());
+        if (!dryRun && trackedReindexingTask != null && trackedReindexingTask.isTracking()) {
+            throw new ElasticActionForbiddenException("Reindexing task is already running for the index.");
+        }
+
+        String indexName = indexApi.getIndexNameByAlias(properties.getIndexName());
+        Settings settingsOverrides = getIndexSettingsOverrides(properties, numberOfShards, numberOfReplicas, true);
+        IndexUpdatePlan plan = indexUpdatePlanner.plan(indexName, properties.getConfigFile(), settingsOverrides);
+        if (!dryRun) {
+            switch (plan.getMode()) {
+                case NONE:
+                    break;
+                case IN_PLACE:
+                case CLOSE_OPEN:
+                    applyIndexUpdate(plan);
+                    searchResultCache.invalidate(properties.getIndexName());
+                    searchResultCache.invalidate(indexName);
+                    break;
+                default:
+                    reindex(properties, numberOfShards, numberOfReplicas);
+            }
+        }
+
+        IndexUpdatePlanResponse response = new IndexUpdatePlanResponse();
+        response.setIndexName(indexName);
+        response.setConfigFile(properties.getConfigFile());
+        response.setMode(plan.getMode());
+        if (plan.getMode() == IndexUpdateMode.RESIZE) {
+            response.setResizeType(plan.getResizeType().name());
+        }
+        response.setApplied(!dryRun);
+        for (IndexChange change : plan.getChanges()) {
+            IndexUpdatePlanResponse.Change changeResponse = new IndexUpdatePlanResponse.Change(change.getPath(),
+                    change.getMode());
+            changeResponse.setCurrentValue(change.getCurrentValue());
+            changeResponse.setNewValue(change.getNewValue());
+            changeResponse.setReason(change.getReason());
+            response.getChanges().add(changeResponse);
+        }
+        return response;
+    }
+
+    /**
+     * Updates the index without copying documents. Static settings are changed while the index is closed,
+     * searches through the alias fail until it is open again. Fields are added afterwards, so that they
+     * can use new analyzers.
+     */
+    private void applyIndexUpdate(IndexUpdatePlan plan) {
+        String indexName = plan.getIndexName();
+        if (plan.getMode() == IndexUpdateMode.CLOSE_OPEN) {
+            indexApi.closeIndex(indexName);
+            try {
+                indexApi.updateIndexSettings(indexName, Settings.builder()
+                        .put(plan.getStaticSettings())
+                        .put(plan.getDynamicSettings())
+                        .build());
+            } catch (RuntimeException e) {
+                try {
+                    indexApi.openIndex(indexName);
+                } catch (RuntimeException openException) {
+                    e.addSuppressed(openException);
+                }
+                throw e;
+            }
+            indexApi.openIndex(indexName);
+            indexApi.waitForGreenStatus(indexName, getBulkLoadGreenTimeout());
+        } else if (!plan.getDynamicSettings().isEmpty()) {
+            indexApi.updateIndexSettings(indexName, plan.getDynamicSettings());
+        }
+        if (!plan.getMappingUpdate().isEmpty()) {
+            indexApi.putMapping(indexName, plan.getMappingUpdate());
+        }
+    }
+
     public StatusResponse cancelReindexing(EntitySearchProperties properties) {
         LOGGER.info("Canceling task for reindexing {}", properties.getIndexName());
 
@@ -99,11 +433,61 @@ public class IndexManagementService {
             throw new ElasticEntityNotFoundException("There are no tasks running for the index");
         }
 
+        if (trackedReindexingTask.getReindexEngine() == ReindexEngine.RESIZE) {
+            throw new ElasticActionForbiddenException("Resizing can not be canceled.");
+        }
+        if (trackedReindexingTask.getClientReindexTask() != null) {
+            trackedReindexingTask.getClientReindexTask().cancel("by user request");
+            return StatusResponse.OK;
+        }
         String taskId = trackedReindexingTask.getElasticTaskId();
         taskApi.cancelTask(taskId);
         return StatusResponse.OK;
     }
 
+    /**
+     * Sets throttling of the running reindex task manually, automatic throttling is suspended for it.
+     *
+     * @param properties        entity properties
+     * @param requestsPerSecond documents per second, not positive value disables throttling,
+     *                          {@code null} returns the task to automatic throttling
+     * @return status
+     */
+    public StatusResponse rethrottleReindexing(EntitySearchProperties properties, Float requestsPerSecond) {
+        LOGGER.info("Rethrottling reindexing of {} to {}", properties.getIndexName(),
+                requestsPerSecond == null ? "automatic" : requestsPerSecond);
+
+        TrackedReindexingTask trackedReindexingTask = elasticTasks.getOrDefault(properties.getIndexName(), null);
+        if (trackedReindexingTask == null || !trackedReindexingTask.isTracking()) {
+            throw new ElasticEntityNotFoundException("There are no tasks running for the index");
+        }
+
+        if (trackedReindexingTask.getReindexEngine() != ReindexEngine.SERVER) {
+            throw new ElasticActionForbiddenException("Throttling is supported for server-side reindexing only.");
+        }
+        if (requestsPerSecond == null) {
+            trackedReindexingTask.setManualThrottle(false);
+            reindexTaskJournal.saveTask(trackedReindexingTask);
+            return StatusResponse.OK;
+        }
+        float newRequestsPerSecond = requestsPerSecond > 0 ? requestsPerSecond : Float.POSITIVE_INFINITY;
+        docApi.rethrottleReindexTask(trackedReindexingTask.getElasticTaskId(), newRequestsPerSecond);
+        trackedReindexingTask.setRequestsPerSecond(newRequestsPerSecond);
+        trackedReindexingTask.setManualThrottle(true);
+        reindexTaskJournal.saveTask(trackedReindexingTask);
+        return StatusResponse.OK;
+    }
+
+    /**
+     * Returns the last reindexing task of the index.
+     *
+     * @param indexName index alias
+     * @return task or {@code null} if the index was not reindexed since the start
+     */
+    TrackedReindexingTask getReindexingTask(String indexName) {
+        return elasticTasks.get(indexName);
+    }
+
     public TaskStatusResponse getReindexingTaskStatus(EntitySearchProperties properties) {
         LOGGER.info("Retrieving reindexing task status for {}", properties.getIndexName());
 
@@ -113,75 +497,610 @@ public class IndexManagementService {
             throw new ElasticEntityNotFoundException("Elastic search task not found");
         }
 
+        if (trackedReindexingTask.getReindexEngine() == ReindexEngine.RESIZE) {
+            TaskStatusResponse taskStatusResponse = new TaskStatusResponse();
+            taskStatusResponse.setCompleted(!trackedReindexingTask.isTracking());
+            taskStatusResponse.setCanceled(trackedReindexingTask.getCanceled());
+            if (trackedReindexingTask.isTracking()) {
+                taskStatusResponse.setSpentTimeMs(System.currentTimeMillis() - trackedReindexingTask.getStartTimeMs());
+            }
+            return taskStatusResponse;
+        }
+        if (trackedReindexingTask.getClientReindexTask() != null) {
+            return getClientReindexingTaskStatus(trackedReindexingTask);
+        }
+
         String taskId = trackedReindexingTask.getElasticTaskId();
         GetTaskResponse taskInfoResponse = taskApi.getTaskInfo(taskId, false);
         TaskStatusResponse taskStatusResponse = new TaskStatusResponse();
         taskStatusResponse.setCompleted(taskInfoResponse.isCompleted());
         taskStatusResponse.setSpentTimeMs(taskInfoResponse.getTaskInfo().getRunningTimeNanos() / 1000000);
-        try {
-            JsonNode statusJson;
-            statusJson = objectMapper.readTree(taskInfoResponse.getTaskInfo().getStatus().toString());
-            taskStatusResponse.setTotal(statusJson.get("total").asInt());
-            taskStatusResponse.setUpdated(statusJson.get("updated").asInt());
-            taskStatusResponse.setCreated(statusJson.get("created").asInt());
-            taskStatusResponse.setDeleted(statusJson.get("deleted").asInt());
-            JsonNode canceled = statusJson.get("canceled");
-            if (canceled != null) {
-                taskStatusResponse.setCanceled(canceled.asText());
+        taskStatusResponse.setManualThrottle(trackedReindexingTask.isManualThrottle());
+
+        Map<String, Object> status = ElasticTaskApi.getTaskStatus(taskInfoResponse.getTaskInfo());
+        taskStatusResponse.setTotal((int) ReindexStatus.getLong(status, "total"));
+        taskStatusResponse.setUpdated((int) ReindexStatus.getLong(status, "updated"));
+        taskStatusResponse.setCreated((int) ReindexStatus.getLong(status, "created"));
+        taskStatusResponse.setDeleted((int) ReindexStatus.getLong(status, "deleted"));
+        taskStatusResponse.setCanceled(ReindexStatus.getString(status, "canceled"));
+        double requestsPerSecond = ReindexStatus.getDouble(status, "requests_per_second");
+        if (requestsPerSecond > 0) {
+            taskStatusResponse.setRequestsPerSecond((float) requestsPerSecond);
+        }
+        taskStatusResponse.setThrottledMs(ReindexStatus.getLong(status, "throttled_millis"));
+
+        ReindexProgress progress = trackedReindexingTask.getProgress();
+        List<?> slices = ReindexStatus.getSlices(status);
+        if (!slices.isEmpty()) {
+            // the parent task sums up finished slices only, running ones are added here
+            List<Map<String, Object>> sliceStatuses =
+                    getSliceStatuses(taskId, slices, taskInfoResponse.isCompleted());
+            List<TaskStatusResponse.SliceStatus> sliceResponses = new ArrayList<>();
+            for (int i = 0; i < sliceStatuses.size(); i++) {
+                Map<String, Object> sliceStatus = sliceStatuses.get(i);
+                TaskStatusResponse.SliceStatus sliceResponse = sliceStatus != null
+                        ? toSliceStatus(i, sliceStatus) : new TaskStatusResponse.SliceStatus(i);
+                sliceResponse.setCompleted(slices.get(i) instanceof Map);
+                sliceResponses.add(sliceResponse);
             }
-        } catch (JsonProcessingException e) {
-            LOGGER.warn("Error occurred while parsing task status", e);
+            taskStatusResponse.setSlices(sliceResponses);
+            taskStatusResponse.setTotal(sliceResponses.stream()
+                    .mapToInt(TaskStatusResponse.SliceStatus::getTotal).sum());
+            taskStatusResponse.setUpdated(sliceResponses.stream()
+                    .mapToInt(TaskStatusResponse.SliceStatus::getUpdated).sum());
+            taskStatusResponse.setCreated(sliceResponses.stream()
+                    .mapToInt(TaskStatusResponse.SliceStatus::getCreated).sum());
+            taskStatusResponse.setDeleted(sliceResponses.stream()
+                    .mapToInt(TaskStatusResponse.SliceStatus::getDeleted).sum());
+            ReindexStatus.updateSlicedProgress(progress, sliceStatuses);
+        } else {
+            ReindexStatus.updateProgress(progress, status);
         }
+        setProgress(taskStatusResponse, progress, taskInfoResponse.isCompleted());
+        setCompletionFailure(taskStatusResponse, trackedReindexingTask);
+        return taskStatusResponse;
+    }
+
+    /**
+     * The copy may have succeeded while the cutover failed, the error of the cutover is reported instead.
+     */
+    private static void setCompletionFailure(TaskStatusResponse taskStatusResponse,
+                                             TrackedReindexingTask trackedReindexingTask) {
+        if (trackedReindexingTask.getCanceled() != null) {
+            taskStatusResponse.setCanceled(trackedReindexingTask.getCanceled());
+        }
+    }
+
+    private static void setProgress(TaskStatusResponse taskStatusResponse, ReindexProgress progress,
+                                    boolean completed) {
+        taskStatusResponse.setBulkRetries(progress.getBulkRetries());
+        taskStatusResponse.setSearchRetries(progress.getSearchRetries());
+        if (completed) {
+            return;
+        }
+        if (progress.getDocsPerSecond() >= 0) {
+            taskStatusResponse.setDocsPerSecond(progress.getDocsPerSecond());
+        }
+        if (progress.getBatchLatencyMs() >= 0) {
+            taskStatusResponse.setBatchLatencyMs(progress.getBatchLatencyMs());
+        }
+        long remainingMs = progress.getRemainingMs();
+        if (remainingMs >= 0) {
+            taskStatusResponse.setRemainingTimeMs(remainingMs);
+            taskStatusResponse.setEstimatedCompletionTime(Instant.now().plusMillis(remainingMs).toString());
+        }
+    }
+
+    private TaskStatusResponse getClientReindexingTaskStatus(TrackedReindexingTask trackedReindexingTask) {
+        ClientReindexTask clientReindexTask = trackedReindexingTask.getClientReindexTask();
+        TaskStatusResponse taskStatusResponse = new TaskStatusResponse();
+        taskStatusResponse.setCompleted(clientReindexTask.isCompleted());
+        taskStatusResponse.setSpentTimeMs(clientReindexTask.getRunningTimeMs());
+        taskStatusResponse.setCanceled(clientReindexTask.getCanceled());
+        taskStatusResponse.setTotal((int) clientReindexTask.getTotal());
+        BulkIngestReport report = clientReindexTask.getReport();
+        taskStatusResponse.setCreated((int) (report.getItems() - report.getFailed()));
 
+        List<TaskStatusResponse.SliceStatus> slices = new ArrayList<>();
+        for (int i = 0; i < clientReindexTask.getSlices(); i++) {
+            TaskStatusResponse.SliceStatus sliceStatus = new TaskStatusResponse.SliceStatus(i);
+            sliceStatus.setCompleted(clientReindexTask.isSliceCompleted(i));
+            sliceStatus.setTotal((int) clientReindexTask.getSliceTotal(i));
+            sliceStatus.setCreated((int) clientReindexTask.getSliceProcessed(i));
+            sliceStatus.setBatches(clientReindexTask.getSliceBatches(i));
+            slices.add(sliceStatus);
+        }
+        taskStatusResponse.setSlices(slices);
+        updateClientProgress(trackedReindexingTask);
+        setProgress(taskStatusResponse, trackedReindexingTask.getProgress(), clientReindexTask.isCompleted());
+        setCompletionFailure(taskStatusResponse, trackedReindexingTask);
         return taskStatusResponse;
     }
 
-    @Scheduled(fixedRateString = "${search.trackingTaskRequestInterval}")
-    private void manageReindexingTask() {
-        elasticTasks.values()
+    /**
+     * Returns the last task of the index, progress of client-side tasks is sampled on the way,
+     * server-side tasks are sampled by the tracker.
+     */
+    private TrackedReindexingTask getSampledReindexingTask(String indexName) {
+        TrackedReindexingTask trackedReindexingTask = elasticTasks.get(indexName);
+        if (trackedReindexingTask != null && trackedReindexingTask.isTracking()
+                && trackedReindexingTask.getClientReindexTask() != null) {
+            updateClientProgress(trackedReindexingTask);
+        }
+        return trackedReindexingTask;
+    }
+
+    private static void updateClientProgress(TrackedReindexingTask trackedReindexingTask) {
+        ClientReindexTask clientReindexTask = trackedReindexingTask.getClientReindexTask();
+        long processed = 0;
+        long batches = 0;
+        for (int i = 0; i < clientReindexTask.getSlices(); i++) {
+            processed += clientReindexTask.getSliceProcessed(i);
+            batches += clientReindexTask.getSliceBatches(i);
+        }
+        trackedReindexingTask.getProgress().update(clientReindexTask.getTotal(), processed, batches,
+                clientReindexTask.getReport().getRetries(), 0, 0, clientReindexTask.getSlices());
+    }
+
+    /**
+     * Reattaches to the reindexing tasks and index deletions recorded in the journal before the restart.
+     * Tasks are recovered one by one, each costs one blocking alias lookup, their completion is then
+     * observed by the tracker.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverReindexingTasks() {
+        reindexTaskJournal.getPendingDeletions().forEach((indexName, deleteAtMs) -> {
+            LOGGER.info("Recovered pending deletion of old index {}", indexName);
+            scheduleIndexDeletion(indexName, Instant.ofEpochMilli(deleteAtMs));
+        });
+        for (TrackedReindexingTask trackedReindexingTask : reindexTaskJournal.getActiveTasks()) {
+            recoverReindexingTask(trackedReindexingTask);
+        }
+    }
+
+    private void recoverReindexingTask(TrackedReindexingTask trackedReindexingTask) {
+        LOGGER.info("Recovering reindexing task {} of {}", trackedReindexingTask.getElasticTaskId(),
+                trackedReindexingTask.getIndexAlias());
+        elasticTasks.put(trackedReindexingTask.getIndexAlias(), trackedReindexingTask);
+        reindexMetrics.register(trackedReindexingTask.getIndexAlias(), this::getSampledReindexingTask);
+        try {
+            if (trackedReindexingTask.getDstIndexName().equals(
+                    indexApi.getIndexNameByAlias(trackedReindexingTask.getIndexAlias()))) {
+                LOGGER.info("Alias {} already points to {}, reindexing was completed before the restart",
+                        trackedReindexingTask.getIndexAlias(), trackedReindexingTask.getDstIndexName());
+                // the process may have stopped between the alias swap and scheduling the old index deletion
+                scheduleSourceIndexDeletion(trackedReindexingTask);
+                trackedReindexingTask.setTracking(false);
+                reindexTaskJournal.removeTask(trackedReindexingTask);
+                return;
+            }
+            if (trackedReindexingTask.getReindexEngine() != ReindexEngine.SERVER) {
+                // documents were copied by this process, the copy can not be resumed
+                finishReindexing(trackedReindexingTask, "interrupted by restart");
+                return;
+            }
+        } catch (ElasticActionFailedException e) {
+            LOGGER.warn("Could not check state of reindexing task {}, tracking it anyway",
+                    trackedReindexingTask.getElasticTaskId());
+        }
+        reindexTaskTracker.track(trackedReindexingTask, this::finishReindexing);
+    }
+
+    private void scheduleSourceIndexDeletion(TrackedReindexingTask trackedReindexingTask) {
+        if (!reindexTaskJournal.getPendingDeletions().containsKey(trackedReindexingTask.getSrcIndexName())) {
+            scheduleIndexDeletion(trackedReindexingTask.getSrcIndexName());
+        }
+    }
+
+    private void finishReindexing(TrackedReindexingTask trackedReindexingTask, String canceled) {
+        if (canceled == null) {
+            LOGGER.info("Reindexing completed for task {}", trackedReindexingTask.getElasticTaskId());
+            if (trackedReindexingTask.getCutoverPhase() != CutoverPhase.SWAPPED) {
+                cutOver(trackedReindexingTask);
+            }
+            scheduleSourceIndexDeletion(trackedReindexingTask);
+        } else {
+            LOGGER.info("Reindexing task {} was canceled ({}). Deleting newly created index {}.",
+                    trackedReindexingTask.getElasticTaskId(), canceled,
+                    trackedReindexingTask.getDstIndexName());
+            try {
+                indexApi.deleteIndex(trackedReindexingTask.getDstIndexName());
+            } catch (ElasticActionFailedException e) {
+                LOGGER.warn("Could not clean up after reindexing cancellation.");
+            }
+            searchResultCache.invalidate(trackedReindexingTask.getDstIndexName());
+            if (trackedReindexingTask.getReindexEngine() == ReindexEngine.RESIZE) {
+                restoreResizeSource(trackedReindexingTask);
+            }
+        }
+        trackedReindexingTask.setCanceled(canceled);
+        trackedReindexingTask.setTracking(false);
+        reindexTaskJournal.removeTask(trackedReindexingTask);
+    }
+
+    /**
+     * Copies the last modifications and swaps the alias, the swap is journaled as {@link CutoverPhase#SWAPPED}
+     * before anything else can fail, so that a retry does not swap again.
+     * <p>
+     * Unless {@code search.catchUpWriteBlock} is enabled, documents written into the old index after the final
+     * catch-up pass started and before the alias is swapped are not copied and get lost. With the block
+     * enabled such writes are rejected instead, clients have to retry them after the swap.
+     */
+    private void cutOver(TrackedReindexingTask trackedReindexingTask) {
+        // writes into the source are blocked while it is resized
+        boolean catchUp = trackedReindexingTask.getReindexEngine() != ReindexEngine.RESIZE
+                && trackedReindexingTask.getUpdatedAtField() != null
+                && !trackedReindexingTask.getUpdatedAtField().isBlank();
+        if (catchUp) {
+            catchUpModifiedDocuments(trackedReindexingTask);
+        }
+
+        if (trackedReindexingTask.getBulkLoadSettings() != null) {
+            indexApi.disableBulkLoadMode(trackedReindexingTask.getDstIndexName(),
+                    trackedReindexingTask.getBulkLoadSettings(),
+                    searchProperties.getBulkLoadForceMergeSegments(),
+                    getBulkLoadGreenTimeout());
+            trackedReindexingTask.setBulkLoadSettings(null);
+            reindexTaskJournal.saveTask(trackedReindexingTask);
+        }
+
+        warmUpIndex(trackedReindexingTask);
+
+        boolean writeBlocked = false;
+        try {
+            if (catchUp) {
+                if (searchProperties.isCatchUpWriteBlock()) {
+                    LOGGER.info("Blocking writes into {} for the final catch-up pass",
+                            trackedReindexingTask.getSrcIndexName());
+                    indexApi.setWriteBlock(trackedReindexingTask.getSrcIndexName(), true);
+                    writeBlocked = true;
+                }
+                indexApi.refreshIndex(trackedReindexingTask.getSrcIndexName());
+                long copied = copyModifiedDocuments(trackedReindexingTask);
+                LOGGER.info("Final catch-up pass copied {} documents into {}",
+                        copied, trackedReindexingTask.getDstIndexName());
+                indexApi.refreshIndex(trackedReindexingTask.getDstIndexName());
+            }
+
+            indexApi.swapAlias(trackedReindexingTask.getIndexAlias(), trackedReindexingTask.getSrcIndexName(),
+                    trackedReindexingTask.getDstIndexName());
+            trackedReindexingTask.setCutoverPhase(CutoverPhase.SWAPPED);
+            reindexTaskJournal.saveTask(trackedReindexingTask);
+            searchResultCache.invalidate(trackedReindexingTask.getIndexAlias());
+            searchResultCache.invalidate(trackedReindexingTask.getDstIndexName());
+        } catch (ElasticActionFailedException e) {
+            if (writeBlocked) {
+                try {
+                    indexApi.setWriteBlock(trackedReindexingTask.getSrcIndexName(), false);
+                } catch (ElasticActionFailedException ex) {
+                    LOGGER.warn("Could not unblock writes into {}", trackedReindexingTask.getSrcIndexName());
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Replays representative queries against the new index, so that the first queries after the cutover
+     * do not hit cold caches. The index is already force merged and refreshed when leaving bulk load mode.
+     */
+    private void warmUpIndex(TrackedReindexingTask trackedReindexingTask) {
+        if (trackedReindexingTask.getWarmupQueriesFile() == null) {
+            return;
+        }
+        try {
+            indexApi.warmUpIndex(trackedReindexingTask.getDstIndexName(), trackedReindexingTask.getWarmupQueriesFile());
+        } catch (ElasticActionFailedException e) {
+            LOGGER.warn("Could not warm up index {}, continuing with the cutover",
+                    trackedReindexingTask.getDstIndexName());
+        }
+    }
+
+    private void scheduleIndexDeletion(String indexName) {
+        Duration gracePeriod = Duration.parse(searchProperties.getOldIndexDeleteGracePeriod());
+        LOGGER.info("Old index {} will be deleted in {}", indexName, gracePeriod);
+        Instant deleteAt = Instant.now().plus(gracePeriod);
+        reindexTaskJournal.saveDeletion(indexName, deleteAt.toEpochMilli());
+        scheduleIndexDeletion(indexName, deleteAt);
+    }
+
+    private void scheduleIndexDeletion(String indexName, Instant deleteAt) {
+        taskScheduler.schedule(() -> {
+            try {
+                indexApi.deleteIndex(indexName);
+                searchResultCache.invalidate(indexName);
+                reindexTaskJournal.removeDeletion(indexName);
+            } catch (ElasticActionFailedException e) {
+                LOGGER.warn("Could not delete old index {}", indexName);
+            }
+        }, deleteAt);
+    }
+
+    /**
+     * Copies documents modified in the source index since the watermark until the delta drops below
+     * {@code search.catchUpThreshold} or {@code search.catchUpMaxRounds} rounds are done.
+     * The rest is copied by the final pass right before the cutover.
+     */
+    private void catchUpModifiedDocuments(TrackedReindexingTask trackedReindexingTask) {
+        for (int round = 1; round <= searchProperties.getCatchUpMaxRounds(); round++) {
+            long modified = docApi.countDocuments(trackedReindexingTask.getSrcIndexName(),
+                    modifiedSinceWatermarkQuery(trackedReindexingTask));
+            LOGGER.info("Catch-up round {} for {}: {} documents modified since {}", round,
+                    trackedReindexingTask.getIndexAlias(), modified,
+                    Instant.ofEpochMilli(trackedReindexingTask.getWatermarkMs()));
+            if (modified <= searchProperties.getCatchUpThreshold()) {
+                return;
+            }
+            copyModifiedDocuments(trackedReindexingTask);
+        }
+        LOGGER.info("Delta of {} did not drop below {} documents in {} rounds",
+                trackedReindexingTask.getIndexAlias(), searchProperties.getCatchUpThreshold(),
+                searchProperties.getCatchUpMaxRounds());
+    }
+
+    /**
+     * Copies documents modified since the watermark as a separate task tracked like the reindex itself,
+     * so that no call waits for the copy. Fails when the copy does not end within
+     * {@code search.catchUpRoundTimeout}, the copy is canceled then.
+     */
+    private long copyModifiedDocuments(TrackedReindexingTask trackedReindexingTask) {
+        long nextWatermarkMs = System.currentTimeMillis();
+        QueryBuilder query = modifiedSinceWatermarkQuery(trackedReindexingTask);
+        ClientReindexTask clientDeltaTask = null;
+        String deltaTaskId;
+        if (trackedReindexingTask.getClientReindexTask() != null) {
+            clientDeltaTask = clientReindexApi.submitReindexTask(trackedReindexingTask.getSrcIndexName(),
+                    trackedReindexingTask.getDstIndexName(), 1, query,
+                    getDocumentTransformers(trackedReindexingTask.getDocumentTransformers()));
+            deltaTaskId = clientDeltaTask.getId();
+        } else {
+            deltaTaskId = docApi.submitReindexTask(trackedReindexingTask.getSrcIndexName(),
+                    trackedReindexingTask.getDstIndexName(), 1, Float.POSITIVE_INFINITY, query);
+        }
+        TrackedReindexingTask deltaTask = new TrackedReindexingTask(trackedReindexingTask.getSrcIndexName(),
+                trackedReindexingTask.getDstIndexName(), trackedReindexingTask.getIndexAlias(), deltaTaskId);
+        deltaTask.setClientReindexTask(clientDeltaTask);
+        CompletableFuture<String> deltaCompletion = new CompletableFuture<>();
+        reindexTaskTracker.track(deltaTask, (task, canceled) -> deltaCompletion.complete(canceled));
+
+        String canceled;
+        try {
+            canceled = deltaCompletion.get(Duration.parse(searchProperties.getCatchUpRoundTimeout()).toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelDeltaTask(deltaTask);
+            throw new ElasticActionFailedException("Copying modified documents timed out.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelDeltaTask(deltaTask);
+            throw new ElasticActionFailedException("Interrupted while copying modified documents.", e);
+        } catch (ExecutionException e) {
+            throw new ElasticActionFailedException("Could not copy modified documents.", e.getCause());
+        }
+        if (canceled != null) {
+            LOGGER.warn("Copying modified documents into {} was canceled ({})",
+                    trackedReindexingTask.getDstIndexName(), canceled);
+            throw new ElasticActionFailedException("Could not copy modified documents.");
+        }
+        long copied = clientDeltaTask != null ? clientDeltaTask.getReport().getItems()
+                : ReindexStatus.getProcessed(ElasticTaskApi.getTaskStatus(
+                        taskApi.getTaskInfo(deltaTaskId, false).getTaskInfo()));
+        trackedReindexingTask.setWatermarkMs(nextWatermarkMs);
+        reindexTaskJournal.saveTask(trackedReindexingTask);
+        return copied;
+    }
+
+    private void cancelDeltaTask(TrackedReindexingTask deltaTask) {
+        deltaTask.setTracking(false);
+        try {
+            if (deltaTask.getClientReindexTask() != null) {
+                deltaTask.getClientReindexTask().cancel("catch-up round timed out");
+            } else {
+                taskApi.cancelTask(deltaTask.getElasticTaskId());
+            }
+        } catch (ElasticActionFailedException e) {
+            LOGGER.warn("Could not cancel copying of modified documents, task {}", deltaTask.getElasticTaskId());
+        }
+    }
+
+    private QueryBuilder modifiedSinceWatermarkQuery(TrackedReindexingTask trackedReindexingTask) {
+        // the overlap covers clock skew between this service and the writers
+        long overlapMs = Duration.parse(searchProperties.getCatchUpWatermarkOverlap()).toMillis();
+        return QueryBuilders.rangeQuery(trackedReindexingTask.getUpdatedAtField())
+                .gte(trackedReindexingTask.getWatermarkMs() - overlapMs)
+                .format("epoch_millis");
+    }
+
+    /**
+     * Feedback loop keeping reindexing below the search load budget: every interval the node stats are sampled,
+     * throttling of automatically throttled tasks is halved when the cluster is overloaded
+     * and raised by a quarter otherwise, within the configured bounds.
+     */
+    @Scheduled(fixedRateString = "${search.reindexThrottleInterval}")
+    private void throttleReindexingTasks() {
+        if (!searchProperties.isReindexThrottleEnabled()) {
+            return;
+        }
+        List<TrackedReindexingTask> throttledTasks = elasticTasks.values()
                 .stream()
                 .filter(TrackedReindexingTask::isTracking)
-                .forEach(trackedReindexingTask -> {
-                    try {
-                        String taskId = trackedReindexingTask.getElasticTaskId();
-                        GetTaskResponse getTaskResponse;
-                        getTaskResponse = taskApi.getTaskInfo(taskId, false);
-
-                        if (getTaskResponse.isCompleted()) {
-
-                            JsonNode statusJson = objectMapper.readTree(getTaskResponse.getTaskInfo().getStatus().toString());
-                            JsonNode canceled = statusJson.get("canceled");
-
-                            if (canceled == null) {
-                                LOGGER.info("Reindexing completed for task {}", trackedReindexingTask.getElasticTaskId());
-
-                                LOGGER.info("Deleting old index {}", trackedReindexingTask.getSrcIndexName());
-                                indexApi.deleteIndex(trackedReindexingTask.getSrcIndexName());
-
-                                LOGGER.info("Adding alias {} to index {}.",
-                                        trackedReindexingTask.getIndexAlias(),
-                                        trackedReindexingTask.getDstIndexName());
-
-                                indexApi.addAliasToIndex(trackedReindexingTask.getDstIndexName(),
-                                        trackedReindexingTask.getIndexAlias());
-                            } else {
-                                LOGGER.info("Reindexing task {} was canceled. Deleting newly created index {}.",
-                                        trackedReindexingTask.getElasticTaskId(),
-                                        trackedReindexingTask.getDstIndexName());
-                                try {
-                                    indexApi.deleteIndex(trackedReindexingTask.getDstIndexName());
-                                } catch (ElasticActionFailedException e) {
-                                    LOGGER.warn("Could not clean up after reindexing cancellation.");
-                                }
-                            }
-                            trackedReindexingTask.setTracking(false);
-                        }
-                    } catch (ElasticActionFailedException e) {
-                        LOGGER.warn("Error occurred while tracking task {}", trackedReindexingTask.getElasticTaskId());
-                    } catch (JsonProcessingException e) {
-                        LOGGER.warn("Parsing error occurred while tracking task {}",
-                                trackedReindexingTask.getElasticTaskId(), e);
-                    }
-                });
+                .filter(trackedReindexingTask -> trackedReindexingTask.getReindexEngine() == ReindexEngine.SERVER)
+                .filter(trackedReindexingTask -> !trackedReindexingTask.isManualThrottle())
+                .collect(Collectors.toList());
+        if (throttledTasks.isEmpty()) {
+            lastNodeLoadStats = null;
+            return;
+        }
+
+        NodeLoadStats nodeLoadStats;
+        try {
+            nodeLoadStats = clusterApi.getNodeLoadStats();
+        } catch (ElasticActionFailedException e) {
+            LOGGER.warn("Could not sample node stats for reindex throttling");
+            return;
+        }
+        NodeLoadStats previousNodeLoadStats = lastNodeLoadStats;
+        lastNodeLoadStats = nodeLoadStats;
+        if (previousNodeLoadStats == null) {
+            return;
+        }
+
+        boolean overloaded = isOverloaded(previousNodeLoadStats, nodeLoadStats);
+        for (TrackedReindexingTask trackedReindexingTask : throttledTasks) {
+            float requestsPerSecond = trackedReindexingTask.getRequestsPerSecond();
+            if (requestsPerSecond == Float.POSITIVE_INFINITY) {
+                requestsPerSecond = searchProperties.getReindexThrottleMaxRequestsPerSecond();
+            }
+            float newRequestsPerSecond = overloaded
+                    ? Math.max(searchProperties.getReindexThrottleMinRequestsPerSecond(), requestsPerSecond * 0.5f)
+                    : Math.min(searchProperties.getReindexThrottleMaxRequestsPerSecond(), requestsPerSecond * 1.25f);
+            if (newRequestsPerSecond == trackedReindexingTask.getRequestsPerSecond()) {
+                continue;
+            }
+            try {
+                docApi.rethrottleReindexTask(trackedReindexingTask.getElasticTaskId(), newRequestsPerSecond);
+                trackedReindexingTask.setRequestsPerSecond(newRequestsPerSecond);
+                reindexTaskJournal.saveTask(trackedReindexingTask);
+            } catch (ElasticActionFailedException e) {
+                LOGGER.warn("Could not rethrottle task {}", trackedReindexingTask.getElasticTaskId());
+            }
+        }
+    }
+
+    private boolean isOverloaded(NodeLoadStats previous, NodeLoadStats current) {
+        double queryLatencyMs = current.getAverageQueryLatencyMsSince(previous);
+        boolean overloaded = current.getSearchQueue() > searchProperties.getReindexThrottleMaxSearchQueue()
+                || current.getSearchRejected() > previous.getSearchRejected()
+                || current.getWriteRejected() > previous.getWriteRejected()
+                || current.getCpuPercent() > searchProperties.getReindexThrottleMaxCpuPercent()
+                || queryLatencyMs > searchProperties.getReindexSearchLatencyBudgetMs();
+        if (overloaded) {
+            LOGGER.info("Cluster is overloaded: search queue {}, search rejected {}, write rejected {}, "
+                            + "cpu {}%, query latency {} ms",
+                    current.getSearchQueue(), current.getSearchRejected() - previous.getSearchRejected(),
+                    current.getWriteRejected() - previous.getWriteRejected(), current.getCpuPercent(),
+                    String.format("%.1f", queryLatencyMs));
+        }
+        return overloaded;
+    }
+
+    private List<Map<String, Object>> getSliceStatuses(String taskId, List<?> slices, boolean completed) {
+        if (!ReindexStatus.hasRunningSlices(slices) || completed) {
+            return ReindexStatus.mergeSliceStatuses(slices, List.of());
+        }
+        List<TaskInfo> childTasks;
+        try {
+            childTasks = taskApi.getChildTasks(taskId);
+        } catch (ElasticActionFailedException e) {
+            LOGGER.warn("Could not load running slices of task {}", taskId);
+            childTasks = List.of();
+        }
+        return ReindexStatus.mergeSliceStatuses(slices, childTasks.stream()
+                .map(ElasticTaskApi::getTaskStatus)
+                .collect(Collectors.toList()));
+    }
+
+    private static TaskStatusResponse.SliceStatus toSliceStatus(int index, Map<String, Object> status) {
+        Object sliceId = status.get("slice_id");
+        TaskStatusResponse.SliceStatus sliceStatus = new TaskStatusResponse.SliceStatus(
+                sliceId instanceof Number ? ((Number) sliceId).intValue() : index);
+        sliceStatus.setTotal((int) ReindexStatus.getLong(status, "total"));
+        sliceStatus.setUpdated((int) ReindexStatus.getLong(status, "updated"));
+        sliceStatus.setCreated((int) ReindexStatus.getLong(status, "created"));
+        sliceStatus.setDeleted((int) ReindexStatus.getLong(status, "deleted"));
+        sliceStatus.setBatches((int) ReindexStatus.getLong(status, "batches"));
+        sliceStatus.setVersionConflicts((int) ReindexStatus.getLong(status, "version_conflicts"));
+        return sliceStatus;
+    }
+
+    private Settings getIndexSettingsOverrides(EntitySearchProperties properties, String numberOfShards,
+                                               Integer numberOfReplicas, boolean indexExists) {
+        String shards = numberOfShards != null ? numberOfShards : properties.getNumberOfShards();
+        Integer replicas = numberOfReplicas != null ? numberOfReplicas : properties.getNumberOfReplicas();
+        Settings.Builder settings = Settings.builder();
+        if (shards != null && !shards.isBlank()) {
+            if (AUTO.equalsIgnoreCase(shards.trim())) {
+                if (indexExists) {
+                    settings.put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, getAutoNumberOfShards(properties));
+                } else {
+                    LOGGER.info("There is no index to size shards of {} from, using the config file",
+                            properties.getIndexName());
+                }
+            } else {
+                int shardCount;
+                try {
+                    shardCount = Integer.parseInt(shards.trim());
+                } catch (NumberFormatException e) {
+                    throw new ElasticActionFailedException("Number of shards must be a number or auto.");
+                }
+                if (shardCount < 1) {
+                    throw new ElasticActionFailedException("Number of shards must be positive.");
+                }
+                settings.put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, shardCount);
+            }
+        }
+        if (replicas != null) {
+            if (replicas < 0) {
+                throw new ElasticActionFailedException("Number of replicas must not be negative.");
+            }
+            settings.put(IndexMetadata.SETTING_NUMBER_OF_REPLICAS, replicas);
+        }
+        return settings.build();
+    }
+
+    /**
+     * Picks the number of primary shards so that shards of the current index data stay within
+     * {@code search.targetShardSize} and {@code search.maxShardDocs}.
+     */
+    private int getAutoNumberOfShards(EntitySearchProperties properties) {
+        IndexStats stats = indexApi.getIndexStats(properties.getIndexName());
+        long targetShardBytes = ByteSizeValue.parseBytesSizeValue(searchProperties.getTargetShardSize(),
+                "search.targetShardSize").getBytes();
+        long bySize = divideRoundingUp(stats.getPrimaryStoreBytes(), targetShardBytes);
+        long byDocs = divideRoundingUp(stats.getPrimaryDocs(), searchProperties.getMaxShardDocs());
+        int shards = (int) Math.max(1, Math.max(bySize, byDocs));
+        LOGGER.info("Sizing {} at {} shards: {} documents, {} bytes in primaries, target shard size {}",
+                properties.getIndexName(), shards, stats.getPrimaryDocs(), stats.getPrimaryStoreBytes(),
+                searchProperties.getTargetShardSize());
+        return shards;
+    }
+
+    private static long divideRoundingUp(long value, long divisor) {
+        return divisor > 0 ? (value + divisor - 1) / divisor : 0;
+    }
+
+    private List<DocumentTransformer> getDocumentTransformers(List<String> transformerNames) {
+        List<DocumentTransformer> transformers = new ArrayList<>();
+        for (String transformerName : transformerNames) {
+            DocumentTransformer transformer = documentTransformers.get(transformerName);
+            if (transformer == null) {
+                throw new ElasticActionFailedException("Unknown document transformer: " + transformerName);
+            }
+            transformers.add(transformer);
+        }
+        return transformers;
+    }
+
+    private static int getReindexSlices(EntitySearchProperties properties) {
+        String slices = properties.getReindexSlices();
+        if (slices == null || slices.isBlank()) {
+            return 1;
+        }
+        if (AUTO.equalsIgnoreCase(slices.trim())) {
+            return ElasticDocApi.AUTO_SLICES;
+        }
+        try {
+            int slicesNumber = Integer.parseInt(slices.trim());
+            if (slicesNumber > 0) {
+                return slicesNumber;
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid number of reindex slices {} for {}", slices, properties.getIndexName());
+        }
+        throw new ElasticActionFailedException("Invalid number of reindex slices: " + slices);
+    }
+
+    private TimeValue getBulkLoadGreenTimeout() {
+        return TimeValue.timeValueMillis(Duration.parse(searchProperties.getBulkLoadGreenTimeout()).toMillis());
     }
 }
@@ -0,0 +1,454 @@
+package com.lineate.elastic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lineate.elastic.api.ElasticIndexApi;
+import com.lineate.elastic.enums.IndexUpdateMode;
+import com.lineate.elastic.model.IndexChange;
+import com.lineate.elastic.model.IndexUpdatePlan;
+import org.elasticsearch.action.admin.indices.shrink.ResizeType;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares the config file of an index with its live mapping and settings and classifies every difference:
+ * <ul>
+ * <li>new fields, updatable mapping parameters and dynamic settings are applied in place</li>
+ * <li>static settings and analysis components not used at index time need the index to be closed</li>
+ * <li>a different number of shards needs a clone, split or shrink into a new index</li>
+ * <li>everything else, e.g. a changed field type or analyzer, needs a reindex; so does a new multi-field,
+ * existing documents would not be indexed into it until their next update</li>
+ * </ul>
+ * Fields that exist in the index only are not reported, they are added by dynamic mapping
+ * and would be added again by a reindex.
+ */
+@Component
+public class IndexUpdatePlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexUpdatePlanner.class);
+    private static final String ANALYSIS_SETTINGS_PREFIX = "index.analysis.";
+    private static final Set<String> UPDATABLE_ROOT_PARAMETERS =
+            Set.of("dynamic", "dynamic_templates", "date_detection", "numeric_detection", "_meta");
+    private static final Set<String> UPDATABLE_FIELD_PARAMETERS =
+            Set.of("ignore_above", "search_analyzer", "search_quote_analyzer", "ignore_malformed", "meta");
+
+    private final ElasticIndexApi indexApi;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public IndexUpdatePlanner(ElasticIndexApi indexApi) {
+        this.indexApi = indexApi;
+    }
+
+    /**
+     * Plans the update of the index.
+     *
+     * @param indexName         concrete index name
+     * @param configFile        classpath JSON with settings and mappings
+     * @param settingsOverrides settings replacing the ones from the config file
+     * @return plan
+     */
+    public IndexUpdatePlan plan(String indexName, String configFile, Settings settingsOverrides) {
+        IndexUpdatePlan plan = new IndexUpdatePlan(indexName);
+        Map<String, Object> currentMapping = indexApi.getMapping(indexName);
+        Settings currentSettings = indexApi.getIndexSettings(indexName);
+        Settings desiredSettings = Settings.builder()
+                .put(indexApi.getIndexConfigSettings(configFile))
+                .put(settingsOverrides)
+                .build();
+
+        plan.setMappingUpdate(diffMapping(indexApi.getIndexConfigMapping(configFile), currentMapping,
+                plan.getChanges()));
+        Settings.Builder dynamicSettings = Settings.builder();
+        Settings.Builder staticSettings = Settings.builder();
+        diffSettings(desiredSettings, currentSettings, getIndexTimeAnalysisComponents(currentMapping, currentSettings),
+                dynamicSettings, staticSettings, plan.getChanges());
+        plan.setDynamicSettings(dynamicSettings.build());
+        plan.setStaticSettings(staticSettings.build());
+
+        IndexUpdateMode mode = IndexUpdateMode.NONE;
+        for (IndexChange change : plan.getChanges()) {
+            if (change.getMode().compareTo(mode) > 0) {
+                mode = change.getMode();
+            }
+        }
+        int shards = currentSettings.getAsInt(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1);
+        int newShards = desiredSettings.getAsInt(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1);
+        boolean closeOpen = mode == IndexUpdateMode.CLOSE_OPEN;
+        if (shards != newShards) {
+            ResizeType resizeType = getResizeType(currentSettings, shards, newShards);
+            // analysis settings can not be changed by a resize
+            boolean resize = resizeType != null && mode != IndexUpdateMode.REINDEX && !closeOpen;
+            plan.getChanges().add(new IndexChange("settings." + IndexMetadata.SETTING_NUMBER_OF_SHARDS,
+                    String.valueOf(shards), String.valueOf(newShards),
+                    resize ? IndexUpdateMode.RESIZE : IndexUpdateMode.REINDEX,
+                    resizeType == null ? "the number of shards can not be reached by a split or shrink"
+                            : resize ? "documents are kept by a " + resizeType.name().toLowerCase()
+                            + " into a new index"
+                            : "other changes need a reindex"));
+            mode = resize ? IndexUpdateMode.RESIZE : IndexUpdateMode.REINDEX;
+            plan.setResizeType(resize ? resizeType : null);
+        } else if (mode != IndexUpdateMode.REINDEX && !closeOpen) {
+            plan.setResizeType(ResizeType.CLONE);
+        }
+        if (plan.getResizeType() != null) {
+            Settings.Builder resizeSettings = Settings.builder().put(plan.getDynamicSettings());
+            if (plan.getResizeType() != ResizeType.CLONE) {
+                resizeSettings.put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, newShards);
+            }
+            plan.setResizeSettings(resizeSettings.build());
+        }
+        plan.setMode(mode);
+        LOGGER.info("Index {} differs from {} in {} places, update mode {}", indexName, configFile,
+                plan.getChanges().size(), mode);
+        return plan;
+    }
+
+    private Map<String, Object> diffMapping(Map<String, Object> desired, Map<String, Object> current,
+                                            List<IndexChange> changes) {
+        Map<String, Object> update = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> parameter : desired.entrySet()) {
+            String name = parameter.getKey();
+            if (name.equals("properties") || sameJson(parameter.getValue(), current.get(name))) {
+                continue;
+            }
+            boolean updatable = UPDATABLE_ROOT_PARAMETERS.contains(name);
+            changes.add(change("mappings." + name, current.get(name), parameter.getValue(),
+                    updatable ? IndexUpdateMode.IN_PLACE : IndexUpdateMode.REINDEX,
+                    updatable ? "updatable mapping parameter" : "mapping parameter can not be updated"));
+            if (updatable) {
+                update.put(name, parameter.getValue());
+            }
+        }
+        Map<String, Object> propertiesUpdate = diffProperties("mappings.properties.",
+                getMap(desired, "properties"), getMap(current, "properties"), changes);
+        if (!propertiesUpdate.isEmpty()) {
+            update.put("properties", propertiesUpdate);
+        }
+        return update;
+    }
+
+    private Map<String, Object> diffProperties(String path, Map<String, Object> desired, Map<String, Object> current,
+                                               List<IndexChange> changes) {
+        Map<String, Object> update = new LinkedHashMap<>();
+        for (String name : desired.keySet()) {
+            Map<String, Object> desiredField = getMap(desired, name);
+            Object currentValue = current.get(name);
+            if (!(currentValue instanceof Map)) {
+                changes.add(change(path + name, null, desiredField, IndexUpdateMode.IN_PLACE, "new field"));
+                update.put(name, desiredField);
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> currentField = (Map<String, Object>) currentValue;
+            if (sameJson(desiredField, currentField)) {
+                continue;
+            }
+            Object fieldUpdate = isObject(desiredField) && isObject(currentField)
+                    ? diffObjectField(path + name, desiredField, currentField, changes)
+                    : diffLeafField(path + name, desiredField, currentField, changes);
+            if (fieldUpdate != null) {
+                update.put(name, fieldUpdate);
+            }
+        }
+        return update;
+    }
+
+    private Map<String, Object> diffObjectField(String path, Map<String, Object> desired, Map<String, Object> current,
+                                                List<IndexChange> changes) {
+        Map<String, Object> update = new LinkedHashMap<>();
+        boolean reindex = false;
+        if (!getObjectType(desired).equals(getObjectType(current))) {
+            changes.add(change(path + ".type", getObjectType(current), getObjectType(desired),
+                    IndexUpdateMode.REINDEX, "field type changed"));
+            reindex = true;
+        }
+        for (String parameter : union(desired.keySet(), current.keySet())) {
+            if (parameter.equals("properties") || parameter.equals("type")
+                    || sameJson(desired.get(parameter), current.get(parameter))) {
+                continue;
+            }
+            boolean updatable = parameter.equals("dynamic");
+            changes.add(change(path + "." + parameter, current.get(parameter), desired.get(parameter),
+                    updatable ? IndexUpdateMode.IN_PLACE : IndexUpdateMode.REINDEX,
+                    updatable ? "updatable mapping parameter" : "object parameter can not be updated"));
+            reindex |= !updatable;
+            if (updatable) {
+                update.put(parameter, desired.get(parameter));
+            }
+        }
+        Map<String, Object> propertiesUpdate = diffProperties(path + ".properties.",
+                getMap(desired, "properties"), getMap(current, "properties"), changes);
+        if (reindex || update.isEmpty() && propertiesUpdate.isEmpty()) {
+            return null;
+        }
+        if (desired.containsKey("type")) {
+            update.put("type", desired.get("type"));
+        }
+        update.put("properties", propertiesUpdate);
+        return update;
+    }
+
+    /**
+     * Returns the full definition of the field when all its changes are updatable, ES merges it
+     * with the current one.
+     */
+    private Map<String, Object> diffLeafField(String path, Map<String, Object> desired, Map<String, Object> current,
+                                              List<IndexChange> changes) {
+        boolean reindex = false;
+        for (String parameter : union(desired.keySet(), current.keySet())) {
+            Object desiredValue = desired.get(parameter);
+            Object currentValue = current.get(parameter);
+            if (sameJson(desiredValue, currentValue)) {
+                continue;
+            }
+            if (parameter.equals("fields") && desiredValue instanceof Map && currentValue instanceof Map) {
+                reindex |= diffMultiFields(path + ".fields.", getMap(desired, "fields"), getMap(current, "fields"),
+                        changes);
+                continue;
+            }
+            IndexUpdateMode mode;
+            String reason;
+            if (parameter.equals("type")) {
+                mode = IndexUpdateMode.REINDEX;
+                reason = "field type changed";
+            } else if (UPDATABLE_FIELD_PARAMETERS.contains(parameter)) {
+                mode = IndexUpdateMode.IN_PLACE;
+                reason = "updatable mapping parameter";
+            } else {
+                mode = IndexUpdateMode.REINDEX;
+                reason = "indexed documents depend on the parameter";
+            }
+            changes.add(change(path + "." + parameter, currentValue, desiredValue, mode, reason));
+            reindex |= mode == IndexUpdateMode.REINDEX;
+        }
+        return reindex ? null : desired;
+    }
+
+    private boolean diffMultiFields(String path, Map<String, Object> desired, Map<String, Object> current,
+                                    List<IndexChange> changes) {
+        boolean reindex = false;
+        for (String name : union(desired.keySet(), current.keySet())) {
+            Object desiredValue = desired.get(name);
+            Object currentValue = current.get(name);
+            if (sameJson(desiredValue, currentValue)) {
+                continue;
+            }
+            // existing documents are indexed into a new multi-field on their next update only
+            changes.add(change(path + name, currentValue, desiredValue, IndexUpdateMode.REINDEX,
+                    currentValue == null ? "new multi-field" : desiredValue == null ? "multi-field removed"
+                            : "multi-field changed"));
+            reindex = true;
+        }
+        return reindex;
+    }
+
+    private void diffSettings(Settings desired, Settings current, Set<String> indexTimeComponents,
+                              Settings.Builder dynamicSettings, Settings.Builder staticSettings,
+                              List<IndexChange> changes) {
+        for (String key : desired.keySet()) {
+            if (key.equals(IndexMetadata.SETTING_NUMBER_OF_SHARDS)
+                    || desired.getAsList(key).equals(current.getAsList(key))) {
+                continue;
+            }
+            IndexUpdateMode mode;
+            String reason;
+            if (key.startsWith(ANALYSIS_SETTINGS_PREFIX)) {
+                String component = getAnalysisComponent(key);
+                boolean exists = !current.getByPrefix(ANALYSIS_SETTINGS_PREFIX + component + ".").isEmpty();
+                mode = exists && indexTimeComponents.contains(component)
+                        ? IndexUpdateMode.REINDEX : IndexUpdateMode.CLOSE_OPEN;
+                reason = mode == IndexUpdateMode.REINDEX ? "analysis component is used at index time"
+                        : exists ? "analysis component is used at search time only" : "new analysis component";
+            } else {
+                Setting<?> setting = IndexScopedSettings.DEFAULT_SCOPED_SETTINGS.get(key);
+                if (setting == null || setting.isFinal()) {
+                    mode = IndexUpdateMode.REINDEX;
+                    reason = setting == null ? "unknown setting" : "setting can not be updated";
+                } else if (setting.isDynamic()) {
+                    mode = IndexUpdateMode.IN_PLACE;
+                    reason = "dynamic setting";
+                } else {
+                    mode = IndexUpdateMode.CLOSE_OPEN;
+                    reason = "static setting";
+                }
+            }
+            changes.add(new IndexChange("settings." + key,
+                    current.keySet().contains(key) ? toString(current.getAsList(key)) : null,
+                    toString(desired.getAsList(key)), mode, reason));
+            if (mode == IndexUpdateMode.IN_PLACE) {
+                dynamicSettings.copy(key, desired);
+            } else if (mode == IndexUpdateMode.CLOSE_OPEN) {
+                staticSettings.copy(key, desired);
+            }
+        }
+        for (String key : current.getByPrefix(ANALYSIS_SETTINGS_PREFIX).keySet()) {
+            if (desired.keySet().contains(ANALYSIS_SETTINGS_PREFIX + key)) {
+                continue;
+            }
+            boolean used = indexTimeComponents.contains(getAnalysisComponent(ANALYSIS_SETTINGS_PREFIX + key));
+            changes.add(new IndexChange("settings." + ANALYSIS_SETTINGS_PREFIX + key,
+                    toString(current.getAsList(ANALYSIS_SETTINGS_PREFIX + key)), null,
+                    used ? IndexUpdateMode.REINDEX : IndexUpdateMode.CLOSE_OPEN,
+                    used ? "analysis component is used at index time" : "analysis setting removed"));
+            staticSettings.putNull(ANALYSIS_SETTINGS_PREFIX + key);
+        }
+    }
+
+    /**
+     * Returns analysis components indexed documents depend on: analyzers and normalizers referenced
+     * by the mapping, the default analyzer and their tokenizers, token filters and char filters.
+     * Components are named {@code <type>.<name>}, e.g. {@code analyzer.contains_analyzer}.
+     */
+    private static Set<String> getIndexTimeAnalysisComponents(Map<String, Object> mapping, Settings settings) {
+        Set<String> analyzers = new HashSet<>();
+        analyzers.add("analyzer.default");
+        collectAnalyzers(mapping, analyzers);
+        Set<String> components = new HashSet<>(analyzers);
+        for (String analyzer : analyzers) {
+            Settings analyzerSettings = settings.getByPrefix(ANALYSIS_SETTINGS_PREFIX + analyzer + ".");
+            if (analyzerSettings.get("tokenizer") != null) {
+                components.add("tokenizer." + analyzerSettings.get("tokenizer"));
+            }
+            analyzerSettings.getAsList("filter").forEach(filter -> components.add("filter." + filter));
+            analyzerSettings.getAsList("char_filter")
+                    .forEach(charFilter -> components.add("char_filter." + charFilter));
+        }
+        return components;
+    }
+
+    private static void collectAnalyzers(Object mapping, Set<String> analyzers) {
+        if (mapping instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) mapping).entrySet()) {
+                if (entry.getValue() instanceof String
+                        && (entry.getKey().equals("analyzer") || entry.getKey().equals("normalizer"))) {
+                    analyzers.add(entry.getKey() + "." + entry.getValue());
+                } else {
+                    collectAnalyzers(entry.getValue(), analyzers);
+                }
+            }
+        } else if (mapping instanceof List) {
+            ((List<?>) mapping).forEach(item -> collectAnalyzers(item, analyzers));
+        }
+    }
+
+    private static String getAnalysisComponent(String key) {
+        String[] parts = key.substring(ANALYSIS_SETTINGS_PREFIX.length()).split("\\.", 3);
+        return parts.length > 1 ? parts[0] + "." + parts[1] : parts[0];
+    }
+
+    /**
+     * Returns the number of shards documents are routed to, splitting is possible to its factors only.
+     * Indices created without {@code index.number_of_routing_shards} can be split up to 1024 shards.
+     */
+    private static int getNumberOfRoutingShards(Settings settings, int shards) {
+        int log2Shards = 32 - Integer.numberOfLeadingZeros(shards - 1);
+        return settings.getAsInt(IndexMetadata.INDEX_NUMBER_OF_ROUTING_SHARDS_SETTING.getKey(),
+                shards << Math.max(1, 10 - log2Shards));
+    }
+
+    private static ResizeType getResizeType(Settings settings, int shards, int newShards) {
+        if (newShards > shards && newShards % shards == 0
+                && getNumberOfRoutingShards(settings, shards) % newShards == 0) {
+            return ResizeType.SPLIT;
+        }
+        if (newShards < shards && shards % newShards == 0) {
+            return ResizeType.SHRINK;
+        }
+        return null;
+    }
+
+    private IndexChange change(String path, Object currentValue, Object newValue, IndexUpdateMode mode,
+                               String reason) {
+        return new IndexChange(path, toJson(currentValue), toJson(newValue), mode, reason);
+    }
+
+    private String toJson(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(value);
+        }
+    }
+
+    private static String toString(List<String> values) {
+        return values.size() == 1 ? values.get(0) : values.toString();
+    }
+
+    private static boolean isObject(Map<String, Object> field) {
+        Object type = field.get("type");
+        return type == null ? field.containsKey("properties") : type.equals("object") || type.equals("nested");
+    }
+
+    private static String getObjectType(Map<String, Object> field) {
+        return String.valueOf(field.getOrDefault("type", "object"));
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new LinkedHashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    /**
+     * Compares parsed JSON regardless of the representation of scalar values, e.g. {@code "false"} and
+     * {@code false}, as Elasticsearch returns mappings normalized. The implicit object type is ignored.
+     */
+    private static boolean sameJson(Object expected, Object actual) {
+        if (expected instanceof Map && actual instanceof Map) {
+            Map<?, ?> expectedMap = withoutObjectType((Map<?, ?>) expected);
+            Map<?, ?> actualMap = withoutObjectType((Map<?, ?>) actual);
+            if (!expectedMap.keySet().equals(actualMap.keySet())) {
+                return false;
+            }
+            return expectedMap.keySet().stream().allMatch(key -> sameJson(expectedMap.get(key), actualMap.get(key)));
+        }
+        if (expected instanceof List && actual instanceof List) {
+            List<?> expectedList = (List<?>) expected;
+            List<?> actualList = (List<?>) actual;
+            if (expectedList.size() != actualList.size()) {
+                return false;
+            }
+            for (int i = 0; i < expectedList.size(); i++) {
+                if (!sameJson(expectedList.get(i), actualList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (expected == null || actual == null || expected instanceof Map || expected instanceof List
+                || actual instanceof Map || actual instanceof List) {
+            return expected == actual;
+        }
+        return String.valueOf(expected).equals(String.valueOf(actual));
+    }
+
+    private static Map<?, ?> withoutObjectType(Map<?, ?> map) {
+        if (!"object".equals(map.get("type"))) {
+            return map;
+        }
+        Map<?, ?> copy = new HashMap<>(map);
+        copy.remove("type");
+        return copy;
+    }
+}
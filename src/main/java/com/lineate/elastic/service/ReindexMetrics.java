@@ -0,0 +1,95 @@
+package com.lineate.elastic.service;
+
+import com.lineate.elastic.model.ReindexProgress;
+import com.lineate.elastic.model.TrackedReindexingTask;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exports progress of the reindexing tasks as gauges tagged with the index alias.
+ * Gauges report the last task of the alias, {@code reindex.stalled} grows while a running task
+ * makes no progress and is meant for alerting.
+ */
+@Component
+public class ReindexMetrics {
+    private final MeterRegistry meterRegistry;
+    private final Set<String> registeredAliases = ConcurrentHashMap.newKeySet();
+
+    public ReindexMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers gauges of the alias once.
+     *
+     * @param indexAlias index alias
+     * @param taskLookup returns the current task of the alias with up to date progress, or {@code null}
+     */
+    public void register(String indexAlias, Function<String, TrackedReindexingTask> taskLookup) {
+        if (!registeredAliases.add(indexAlias)) {
+            return;
+        }
+        gauge("reindex.running", "1 while a reindexing task is running", null, indexAlias, taskLookup,
+                task -> task.isTracking() ? 1 : 0, 0);
+        gauge("reindex.docs.per.second", "documents processed per second", null, indexAlias, taskLookup,
+                task -> running(task, progress -> positiveOrNaN(progress.getDocsPerSecond())), Double.NaN);
+        gauge("reindex.batch.latency", "average time of a batch excluding throttling", "milliseconds",
+                indexAlias, taskLookup,
+                task -> running(task, progress -> positiveOrNaN(progress.getBatchLatencyMs())), Double.NaN);
+        gauge("reindex.progress", "ratio of processed documents", null, indexAlias, taskLookup,
+                task -> task.getProgress().getTotal() > 0
+                        ? (double) task.getProgress().getProcessed() / task.getProgress().getTotal() : Double.NaN,
+                Double.NaN);
+        gauge("reindex.remaining", "projected time to completion", "seconds", indexAlias, taskLookup,
+                task -> running(task, progress -> progress.getRemainingMs() >= 0
+                        ? progress.getRemainingMs() / 1000.0 : Double.NaN), Double.NaN);
+        gauge("reindex.stalled", "time since the number of processed documents last increased", "seconds",
+                indexAlias, taskLookup,
+                task -> task.isTracking() ? task.getProgress().getStalledMs() / 1000.0 : 0, 0);
+        gauge("reindex.throttle.requests.per.second", "current throttle, NaN when not throttled", null,
+                indexAlias, taskLookup,
+                task -> running(task, progress -> task.getRequestsPerSecond() != Float.POSITIVE_INFINITY
+                        ? task.getRequestsPerSecond() : Double.NaN), Double.NaN);
+        Gauge.builder("reindex.retries", taskLookup, lookup -> valueOf(lookup.apply(indexAlias),
+                task -> task.getProgress().getBulkRetries(), 0))
+                .description("retried bulk and search requests")
+                .tag("index", indexAlias)
+                .tag("type", "bulk")
+                .register(meterRegistry);
+        Gauge.builder("reindex.retries", taskLookup, lookup -> valueOf(lookup.apply(indexAlias),
+                task -> task.getProgress().getSearchRetries(), 0))
+                .description("retried bulk and search requests")
+                .tag("index", indexAlias)
+                .tag("type", "search")
+                .register(meterRegistry);
+    }
+
+    private void gauge(String name, String description, String baseUnit, String indexAlias,
+                       Function<String, TrackedReindexingTask> taskLookup,
+                       ToDoubleFunction<TrackedReindexingTask> value, double defaultValue) {
+        Gauge.builder(name, taskLookup, lookup -> valueOf(lookup.apply(indexAlias), value, defaultValue))
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("index", indexAlias)
+                .register(meterRegistry);
+    }
+
+    private static double valueOf(TrackedReindexingTask task, ToDoubleFunction<TrackedReindexingTask> value,
+                                  double defaultValue) {
+        return task != null ? value.applyAsDouble(task) : defaultValue;
+    }
+
+    private static double running(TrackedReindexingTask task, ToDoubleFunction<ReindexProgress> value) {
+        return task.isTracking() ? value.applyAsDouble(task.getProgress()) : Double.NaN;
+    }
+
+    private static double positiveOrNaN(double value) {
+        return value >= 0 ? value : Double.NaN;
+    }
+}
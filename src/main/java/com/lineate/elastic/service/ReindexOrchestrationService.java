@@ -0,0 +1,320 @@
+package com.lineate.elastic.service;
+
+import com.lineate.elastic.api.ElasticClusterApi;
+import com.lineate.elastic.api.ElasticIndexApi;
+import com.lineate.elastic.configuration.EntitySearchProperties;
+import com.lineate.elastic.configuration.SearchProperties;
+import com.lineate.elastic.dto.FleetReindexRequest;
+import com.lineate.elastic.dto.FleetReindexStatusResponse;
+import com.lineate.elastic.dto.StatusResponse;
+import com.lineate.elastic.dto.TaskStatusResponse;
+import com.lineate.elastic.enums.DataIndexerTypes;
+import com.lineate.elastic.enums.FleetReindexState;
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import com.lineate.elastic.exception.ElasticActionForbiddenException;
+import com.lineate.elastic.exception.ElasticEntityNotFoundException;
+import com.lineate.elastic.model.NodeDiskStats;
+import com.lineate.elastic.model.TrackedReindexingTask;
+import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.RatioValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reindexes a set of indexers one after another by priority, running at most {@code maxConcurrent}
+ * of them at once. An indexer is started only if every data node stays below the high disk watermark
+ * after receiving its share of the new index.
+ */
+@Service
+public class ReindexOrchestrationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReindexOrchestrationService.class);
+
+    private final IndexManagementService indexManagementService;
+    private final ElasticIndexApi indexApi;
+    private final ElasticClusterApi clusterApi;
+    private final SearchProperties searchProperties;
+    private final List<FleetItem> items = new ArrayList<>();
+    private int maxConcurrent;
+    private long startTime;
+
+    public ReindexOrchestrationService(IndexManagementService indexManagementService, ElasticIndexApi indexApi,
+                                       ElasticClusterApi clusterApi, SearchProperties searchProperties) {
+        this.indexManagementService = indexManagementService;
+        this.indexApi = indexApi;
+        this.clusterApi = clusterApi;
+        this.searchProperties = searchProperties;
+    }
+
+    public synchronized StatusResponse startReindexing(FleetReindexRequest request,
+                                                       Map<DataIndexerTypes, EntitySearchProperties> indexerProperties) {
+        if (items.stream().anyMatch(FleetItem::isActive)) {
+            throw new ElasticActionForbiddenException("Fleet reindexing is already running.");
+        }
+        if (request.getIndexers() == null || request.getIndexers().isEmpty()) {
+            throw new ElasticActionForbiddenException("No indexers to reindex.");
+        }
+        int requestedMaxConcurrent = request.getMaxConcurrent() != null
+                ? request.getMaxConcurrent() : searchProperties.getFleetReindexMaxConcurrent();
+        if (requestedMaxConcurrent < 1) {
+            throw new ElasticActionForbiddenException("Concurrency limit must be positive.");
+        }
+
+        Map<DataIndexerTypes, FleetItem> requestedItems = new LinkedHashMap<>();
+        for (FleetReindexRequest.Indexer indexer : request.getIndexers()) {
+            requestedItems.put(indexer.getIndexerType(), new FleetItem(indexer.getIndexerType(), indexer.getPriority(),
+                    indexerProperties.get(indexer.getIndexerType())));
+        }
+        LOGGER.info("Starting fleet reindexing of {} with at most {} running at once",
+                requestedItems.keySet(), requestedMaxConcurrent);
+        items.clear();
+        items.addAll(requestedItems.values());
+        // stable sort keeps the request order among equal priorities
+        items.sort(Comparator.comparingInt(FleetItem::getPriority).reversed());
+        maxConcurrent = requestedMaxConcurrent;
+        startTime = System.nanoTime();
+        scheduleReindexing();
+        return StatusResponse.OK;
+    }
+
+    public synchronized StatusResponse cancelReindexing() {
+        if (items.stream().noneMatch(FleetItem::isActive)) {
+            throw new ElasticEntityNotFoundException("Fleet reindexing is not running");
+        }
+        LOGGER.info("Canceling fleet reindexing");
+        for (FleetItem item : items) {
+            if (item.state == FleetReindexState.QUEUED) {
+                item.finish(FleetReindexState.CANCELED, "by user request");
+            } else if (item.state == FleetReindexState.RUNNING && !item.cancelRequested) {
+                try {
+                    indexManagementService.cancelReindexing(item.properties);
+                    item.cancelRequested = true;
+                } catch (ElasticActionFailedException | ElasticEntityNotFoundException e) {
+                    LOGGER.warn("Could not cancel reindexing of {}", item.indexerType);
+                }
+            }
+        }
+        return StatusResponse.OK;
+    }
+
+    public synchronized FleetReindexStatusResponse getReindexingStatus() {
+        if (items.isEmpty()) {
+            throw new ElasticEntityNotFoundException("Fleet reindexing was not started");
+        }
+        FleetReindexStatusResponse response = new FleetReindexStatusResponse();
+        response.setMaxConcurrent(maxConcurrent);
+        for (FleetItem item : items) {
+            if (item.state == FleetReindexState.RUNNING) {
+                updateProgress(item);
+            }
+            FleetReindexStatusResponse.IndexerStatus status = new FleetReindexStatusResponse.IndexerStatus();
+            status.setIndexerType(item.indexerType);
+            status.setPriority(item.priority);
+            status.setState(item.state);
+            status.setMessage(item.message);
+            status.setTotal(item.total);
+            status.setProcessed(item.processed);
+            status.setSpentTimeMs(item.getSpentTimeMs());
+            response.getIndexers().add(status);
+
+            response.setTotal(response.getTotal() + item.total);
+            response.setProcessed(response.getProcessed() + item.processed);
+            switch (item.state) {
+                case QUEUED:
+                    response.setQueued(response.getQueued() + 1);
+                    break;
+                case RUNNING:
+                    response.setRunning(response.getRunning() + 1);
+                    break;
+                case COMPLETED:
+                    response.setSucceeded(response.getSucceeded() + 1);
+                    break;
+                case FAILED:
+                    response.setFailed(response.getFailed() + 1);
+                    break;
+                default:
+                    response.setCanceled(response.getCanceled() + 1);
+            }
+        }
+        response.setCompleted(response.getQueued() == 0 && response.getRunning() == 0);
+        response.setSpentTimeMs((System.nanoTime() - startTime) / 1000000);
+        return response;
+    }
+
+    /**
+     * Collects finished indexers and starts queued ones while there are free slots and disk space.
+     */
+    @Scheduled(fixedRateString = "${search.fleetReindexInterval}")
+    public synchronized void scheduleReindexing() {
+        if (items.stream().noneMatch(FleetItem::isActive)) {
+            return;
+        }
+        for (FleetItem item : items) {
+            if (item.state == FleetReindexState.RUNNING) {
+                checkCompletion(item);
+            }
+        }
+
+        List<FleetItem> running = items.stream()
+                .filter(item -> item.state == FleetReindexState.RUNNING)
+                .collect(Collectors.toList());
+        for (FleetItem item : items) {
+            if (running.size() >= maxConcurrent) {
+                break;
+            }
+            if (item.state != FleetReindexState.QUEUED) {
+                continue;
+            }
+            String fullNode;
+            try {
+                fullNode = findNodeOverWatermark(item, running);
+            } catch (ElasticActionFailedException e) {
+                item.message = "waiting for disk stats";
+                break;
+            }
+            if (fullNode != null) {
+                // lower priorities wait as well, otherwise small indices could starve a big one
+                item.message = "waiting for disk space on node " + fullNode;
+                LOGGER.info("Postponing reindexing of {}: node {} would exceed the high disk watermark",
+                        item.indexerType, fullNode);
+                break;
+            }
+            try {
+                LOGGER.info("Fleet reindexing: starting {}", item.indexerType);
+                indexManagementService.reindex(item.properties);
+                item.start();
+                running.add(item);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Fleet reindexing: could not start {}", item.indexerType, e);
+                item.finish(FleetReindexState.FAILED, e.getMessage());
+            }
+        }
+        if (items.stream().noneMatch(FleetItem::isActive)) {
+            LOGGER.info("Fleet reindexing finished in {} ms", (System.nanoTime() - startTime) / 1000000);
+        }
+    }
+
+    private void checkCompletion(FleetItem item) {
+        TrackedReindexingTask task = indexManagementService.getReindexingTask(item.properties.getIndexName());
+        if (task == null || task.isTracking()) {
+            return;
+        }
+        if (task.getCanceled() == null) {
+            updateProgress(item);
+            item.finish(FleetReindexState.COMPLETED, null);
+        } else {
+            item.finish(item.cancelRequested ? FleetReindexState.CANCELED : FleetReindexState.FAILED,
+                    task.getCanceled());
+        }
+        LOGGER.info("Fleet reindexing: {} finished as {}", item.indexerType, item.state);
+    }
+
+    private void updateProgress(FleetItem item) {
+        try {
+            TaskStatusResponse status = indexManagementService.getReindexingTaskStatus(item.properties);
+            item.total = status.getTotal();
+            item.processed = status.getCreated() + status.getUpdated() + status.getDeleted();
+        } catch (ElasticActionFailedException | ElasticEntityNotFoundException e) {
+            LOGGER.warn("Could not retrieve progress of {}", item.indexerType);
+        }
+    }
+
+    /**
+     * Checks that every data node stays below the high disk watermark after receiving its share
+     * of the new index and of the indices being reindexed. Copies already written by the running
+     * reindexing are counted twice, so the check errs on the safe side.
+     *
+     * @return name of the first node that would exceed the watermark or {@code null}
+     */
+    private String findNodeOverWatermark(FleetItem candidate, List<FleetItem> running) {
+        if (candidate.storeSizeBytes < 0) {
+            candidate.storeSizeBytes = indexApi.getIndexStats(candidate.properties.getIndexName()).getTotalStoreBytes();
+        }
+        long requiredBytes = candidate.storeSizeBytes;
+        for (FleetItem item : running) {
+            requiredBytes += Math.max(0, item.storeSizeBytes);
+        }
+        List<NodeDiskStats> nodes = clusterApi.getNodeDiskStats();
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        String watermark = clusterApi.getHighDiskWatermark();
+        long bytesPerNode = requiredBytes / nodes.size();
+        for (NodeDiskStats node : nodes) {
+            if (!fitsUnderWatermark(node, bytesPerNode, watermark)) {
+                return node.getNodeName();
+            }
+        }
+        return null;
+    }
+
+    private static boolean fitsUnderWatermark(NodeDiskStats node, long additionalBytes, String watermark) {
+        long availableBytes = node.getAvailableBytes() - additionalBytes;
+        try {
+            // same interpretation as the disk threshold decider: a ratio of used disk or free space in bytes
+            double maxUsedPercent = RatioValue.parseRatioValue(watermark).getAsPercent();
+            return node.getTotalBytes() > 0
+                    && (node.getTotalBytes() - availableBytes) * 100.0 / node.getTotalBytes() < maxUsedPercent;
+        } catch (ElasticsearchParseException e) {
+            return availableBytes > ByteSizeValue.parseBytesSizeValue(watermark, "watermark").getBytes();
+        }
+    }
+
+    private static class FleetItem {
+        private final DataIndexerTypes indexerType;
+        private final int priority;
+        private final EntitySearchProperties properties;
+        private FleetReindexState state = FleetReindexState.QUEUED;
+        private String message;
+        private boolean cancelRequested;
+        private long storeSizeBytes = -1;
+        private long total;
+        private long processed;
+        private boolean started;
+        private long startTime;
+        private long finishTime;
+
+        FleetItem(DataIndexerTypes indexerType, int priority, EntitySearchProperties properties) {
+            this.indexerType = indexerType;
+            this.priority = priority;
+            this.properties = properties;
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        boolean isActive() {
+            return state == FleetReindexState.QUEUED || state == FleetReindexState.RUNNING;
+        }
+
+        void start() {
+            state = FleetReindexState.RUNNING;
+            message = null;
+            started = true;
+            startTime = System.nanoTime();
+        }
+
+        void finish(FleetReindexState finalState, String finalMessage) {
+            state = finalState;
+            message = finalMessage;
+            finishTime = System.nanoTime();
+        }
+
+        long getSpentTimeMs() {
+            if (!started) {
+                return 0;
+            }
+            return ((state == FleetReindexState.RUNNING ? System.nanoTime() : finishTime) - startTime) / 1000000;
+        }
+    }
+}
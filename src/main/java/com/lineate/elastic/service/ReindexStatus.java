@@ -0,0 +1,120 @@
+package com.lineate.elastic.service;
+
+import com.lineate.elastic.model.ReindexProgress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accessors for the status map of a reindex task as returned by the tasks API.
+ */
+final class ReindexStatus {
+
+    private ReindexStatus() {
+    }
+
+    static long getLong(Map<String, Object> status, String... path) {
+        Object value = get(status, path);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    static double getDouble(Map<String, Object> status, String... path) {
+        Object value = get(status, path);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    static String getString(Map<String, Object> status, String... path) {
+        Object value = get(status, path);
+        return value != null ? value.toString() : null;
+    }
+
+    static Object get(Map<String, Object> status, String... path) {
+        Object value = status;
+        for (String key : path) {
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            value = ((Map<?, ?>) value).get(key);
+        }
+        return value;
+    }
+
+    /**
+     * Counts documents the task is done with, whatever the outcome.
+     */
+    static long getProcessed(Map<String, Object> status) {
+        return getLong(status, "created") + getLong(status, "updated") + getLong(status, "deleted")
+                + getLong(status, "noops") + getLong(status, "version_conflicts");
+    }
+
+    static void updateProgress(ReindexProgress progress, Map<String, Object> status) {
+        progress.update(getLong(status, "total"), getProcessed(status), getLong(status, "batches"),
+                getLong(status, "retries", "bulk"), getLong(status, "retries", "search"),
+                getLong(status, "throttled_millis"));
+    }
+
+    /**
+     * Returns the slice list of a sliced task, finished slices are status maps and running ones are {@code null}.
+     *
+     * @return slices or an empty list when the task is not sliced
+     */
+    static List<?> getSlices(Map<String, Object> status) {
+        Object slices = status.get("slices");
+        return slices instanceof List ? (List<?>) slices : List.of();
+    }
+
+    static boolean hasRunningSlices(List<?> slices) {
+        return slices.stream().anyMatch(slice -> !(slice instanceof Map));
+    }
+
+    /**
+     * Merges statuses of the finished slices kept by the parent task with statuses of the running child tasks.
+     * The parent task itself sums up finished slices only.
+     *
+     * @param slices        slice list of the parent task
+     * @param childStatuses statuses of the child tasks
+     * @return status of every slice, {@code null} for a running slice whose child task is not known
+     */
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> mergeSliceStatuses(List<?> slices, List<Map<String, Object>> childStatuses) {
+        List<Map<String, Object>> sliceStatuses = new ArrayList<>();
+        for (Object slice : slices) {
+            sliceStatuses.add(slice instanceof Map ? (Map<String, Object>) slice : null);
+        }
+        for (Map<String, Object> childStatus : childStatuses) {
+            Object sliceId = childStatus.get("slice_id");
+            if (!(sliceId instanceof Number)) {
+                continue;
+            }
+            int slice = ((Number) sliceId).intValue();
+            if (slice >= 0 && slice < sliceStatuses.size() && sliceStatuses.get(slice) == null) {
+                sliceStatuses.set(slice, childStatus);
+            }
+        }
+        return sliceStatuses;
+    }
+
+    static void updateSlicedProgress(ReindexProgress progress, List<Map<String, Object>> sliceStatuses) {
+        long total = 0;
+        long processed = 0;
+        long batches = 0;
+        long bulkRetries = 0;
+        long searchRetries = 0;
+        long throttledMs = 0;
+        int slices = 0;
+        for (Map<String, Object> sliceStatus : sliceStatuses) {
+            if (sliceStatus == null) {
+                continue;
+            }
+            slices++;
+            total += getLong(sliceStatus, "total");
+            processed += getProcessed(sliceStatus);
+            batches += getLong(sliceStatus, "batches");
+            bulkRetries += getLong(sliceStatus, "retries", "bulk");
+            searchRetries += getLong(sliceStatus, "retries", "search");
+            throttledMs += getLong(sliceStatus, "throttled_millis");
+        }
+        progress.update(total, processed, batches, bulkRetries, searchRetries, throttledMs, slices);
+    }
+}
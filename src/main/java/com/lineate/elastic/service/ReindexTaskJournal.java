@@ -0,0 +1,213 @@
+package com.lineate.elastic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lineate.elastic.configuration.SearchProperties;
+import com.lineate.elastic.model.TrackedReindexingTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only local journal of reindexing tasks and pending deletions of replaced indices,
+ * so that tracking survives a restart of the service.
+ * <p>
+ * Every change appends one JSON line, later lines supersede earlier ones. The journal is compacted
+ * to the live records on startup and whenever superseded records outnumber them, so that recovery
+ * reads O(active tasks) records regardless of the history. Journaling is disabled when
+ * {@code search.reindexJournalFile} is blank.
+ */
+@Component
+public class ReindexTaskJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReindexTaskJournal.class);
+    private static final int COMPACTION_MIN_RECORDS = 100;
+    private static final String TYPE = "type";
+    private static final String TASK = "task";
+    private static final String TASK_DONE = "task_done";
+    private static final String DELETION = "deletion";
+    private static final String DELETION_DONE = "deletion_done";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path file;
+    private final Map<String, ObjectNode> tasks = new LinkedHashMap<>();
+    private final Map<String, Long> pendingDeletions = new LinkedHashMap<>();
+    private int records;
+
+    public ReindexTaskJournal(SearchProperties searchProperties) throws IOException {
+        String fileName = searchProperties.getReindexJournalFile();
+        this.file = fileName == null || fileName.isBlank() ? null : Paths.get(fileName).toAbsolutePath();
+        if (file != null && Files.exists(file)) {
+            load();
+            compact();
+        }
+    }
+
+    /**
+     * Returns tasks that were being tracked when the journal was last written.
+     *
+     * @return recovered tasks in the order they were started
+     */
+    public synchronized List<TrackedReindexingTask> getActiveTasks() {
+        List<TrackedReindexingTask> activeTasks = new ArrayList<>();
+        for (ObjectNode taskJson : tasks.values()) {
+            try {
+                TrackedReindexingTask task = objectMapper.treeToValue(taskJson.get(TASK), TrackedReindexingTask.class);
+                task.setTracking(true);
+                activeTasks.add(task);
+            } catch (JsonProcessingException e) {
+                LOGGER.warn("Skipping unreadable journal record {}", taskJson, e);
+            }
+        }
+        return activeTasks;
+    }
+
+    /**
+     * Returns indices waiting for deletion.
+     *
+     * @return index name to deletion time in epoch millis
+     */
+    public synchronized Map<String, Long> getPendingDeletions() {
+        return new LinkedHashMap<>(pendingDeletions);
+    }
+
+    /**
+     * Records the current state of the task, called on every change that has to survive a restart.
+     *
+     * @param trackedReindexingTask task
+     */
+    public synchronized void saveTask(TrackedReindexingTask trackedReindexingTask) {
+        ObjectNode record = objectMapper.createObjectNode()
+                .put(TYPE, TASK);
+        record.set(TASK, objectMapper.valueToTree(trackedReindexingTask));
+        tasks.put(trackedReindexingTask.getIndexAlias(), record);
+        append(record);
+    }
+
+    public synchronized void removeTask(TrackedReindexingTask trackedReindexingTask) {
+        if (tasks.remove(trackedReindexingTask.getIndexAlias()) != null) {
+            append(objectMapper.createObjectNode()
+                    .put(TYPE, TASK_DONE)
+                    .put("alias", trackedReindexingTask.getIndexAlias()));
+        }
+    }
+
+    public synchronized void saveDeletion(String indexName, long deleteAtMs) {
+        pendingDeletions.put(indexName, deleteAtMs);
+        append(objectMapper.createObjectNode()
+                .put(TYPE, DELETION)
+                .put("index", indexName)
+                .put("deleteAtMs", deleteAtMs));
+    }
+
+    public synchronized void removeDeletion(String indexName) {
+        if (pendingDeletions.remove(indexName) != null) {
+            append(objectMapper.createObjectNode()
+                    .put(TYPE, DELETION_DONE)
+                    .put("index", indexName));
+        }
+    }
+
+    private void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode record;
+                try {
+                    record = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    // the last line may be torn by a crash in the middle of an append
+                    LOGGER.warn("Skipping unreadable journal line in {}", file);
+                    continue;
+                }
+                switch (record.path(TYPE).asText()) {
+                    case TASK:
+                        tasks.put(record.path(TASK).path("indexAlias").asText(), (ObjectNode) record);
+                        break;
+                    case TASK_DONE:
+                        tasks.remove(record.path("alias").asText());
+                        break;
+                    case DELETION:
+                        pendingDeletions.put(record.path("index").asText(), record.path("deleteAtMs").asLong());
+                        break;
+                    case DELETION_DONE:
+                        pendingDeletions.remove(record.path("index").asText());
+                        break;
+                    default:
+                        LOGGER.warn("Skipping unknown journal record {}", record);
+                }
+            }
+        }
+        LOGGER.info("Loaded {} reindexing tasks and {} pending index deletions from {}",
+                tasks.size(), pendingDeletions.size(), file);
+    }
+
+    private void append(ObjectNode record) {
+        if (file == null) {
+            return;
+        }
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(line));
+                channel.force(false);
+            }
+            records++;
+            if (records > COMPACTION_MIN_RECORDS && records > 2 * (tasks.size() + pendingDeletions.size())) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write reindexing journal " + file, e);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+            for (ObjectNode record : tasks.values()) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.write('\n');
+            }
+            for (Map.Entry<String, Long> deletion : pendingDeletions.entrySet()) {
+                writer.write(objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                        .put(TYPE, DELETION)
+                        .put("index", deletion.getKey())
+                        .put("deleteAtMs", deletion.getValue())));
+                writer.write('\n');
+            }
+        }
+        try {
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        records = tasks.size() + pendingDeletions.size();
+    }
+}
@@ -0,0 +1,257 @@
+package com.lineate.elastic.service;
+
+import com.lineate.elastic.api.ElasticTaskApi;
+import com.lineate.elastic.api.reindex.ClientReindexTask;
+import com.lineate.elastic.configuration.SearchProperties;
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import com.lineate.elastic.model.ReindexProgress;
+import com.lineate.elastic.model.TrackedReindexingTask;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.client.tasks.GetTaskResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks reindex tasks independently of each other and runs the completion handler as soon as a task ends.
+ * <p>
+ * Client-side tasks notify the tracker through their completion future. Server-side tasks are polled with
+ * non-blocking task info calls, every poll updates the task progress. The next poll is scheduled at half
+ * of the estimated time to completion, bounded by {@code search.trackingTaskMinInterval}
+ * and {@code search.trackingTaskRequestInterval}, and backs off exponentially while the progress rate is unknown.
+ * The parent task of a sliced reindex sums up finished slices only, so the running slices are loaded as child
+ * tasks and summed up with them. Completion handlers may block, they run on a separate executor and are retried
+ * after the maximum interval when they fail. After {@value #MAX_COMPLETION_ATTEMPTS} failed attempts the task
+ * is given up: it is marked as failed with the last error and removed from the journal.
+ */
+@Component
+public class ReindexTaskTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReindexTaskTracker.class);
+    private static final int MAX_COMPLETION_ATTEMPTS = 5;
+
+    private final ElasticTaskApi taskApi;
+    private final ReindexTaskJournal reindexTaskJournal;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final ScheduledExecutorService pollingExecutor =
+            Executors.newScheduledThreadPool(2, namedThreadFactory("reindex-tracking"));
+    private final ExecutorService completionExecutor = Executors.newCachedThreadPool(
+            namedThreadFactory("reindex-cutover"));
+
+    public ReindexTaskTracker(ElasticTaskApi taskApi, ReindexTaskJournal reindexTaskJournal,
+                              SearchProperties searchProperties) {
+        this.taskApi = taskApi;
+        this.reindexTaskJournal = reindexTaskJournal;
+        this.minIntervalMs = Duration.parse(searchProperties.getTrackingTaskMinInterval()).toMillis();
+        this.maxIntervalMs = Math.max(minIntervalMs,
+                Duration.parse(searchProperties.getTrackingTaskRequestInterval()).toMillis());
+    }
+
+    /**
+     * Starts tracking the task.
+     *
+     * @param trackedReindexingTask task to track
+     * @param onCompleted           invoked once with the task and the cancellation reason,
+     *                              {@code null} when the task completed successfully
+     */
+    public void track(TrackedReindexingTask trackedReindexingTask,
+                      BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        LOGGER.info("Tracking reindexing task {}", trackedReindexingTask.getElasticTaskId());
+        ClientReindexTask clientReindexTask = trackedReindexingTask.getClientReindexTask();
+        if (clientReindexTask != null) {
+            clientReindexTask.getCompletion().whenCompleteAsync(
+                    (result, e) -> complete(trackedReindexingTask, getCanceled(clientReindexTask), onCompleted),
+                    completionExecutor);
+        } else {
+            schedulePoll(trackedReindexingTask, new PollState(), minIntervalMs, onCompleted);
+        }
+    }
+
+    /**
+     * Runs an action copying the data in background and tracks it like a reindex task.
+     *
+     * @param trackedReindexingTask task the action belongs to
+     * @param action                blocking action, the task is canceled with its error when it fails
+     * @param onCompleted           invoked once with the task and the cancellation reason,
+     *                              {@code null} when the action completed successfully
+     */
+    public void track(TrackedReindexingTask trackedReindexingTask, Runnable action,
+                      BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        LOGGER.info("Tracking task {}", trackedReindexingTask.getElasticTaskId());
+        CompletableFuture.runAsync(action, completionExecutor).whenCompleteAsync((result, e) -> {
+            if (e != null) {
+                LOGGER.warn("Task {} failed", trackedReindexingTask.getElasticTaskId(), e);
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            complete(trackedReindexingTask, cause == null ? null : "failed: " + cause.getMessage(), onCompleted);
+        }, completionExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollingExecutor.shutdownNow();
+        completionExecutor.shutdownNow();
+    }
+
+    private void schedulePoll(TrackedReindexingTask trackedReindexingTask, PollState state, long delayMs,
+                              BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        state.delayMs = delayMs;
+        pollingExecutor.schedule(() -> poll(trackedReindexingTask, state, onCompleted),
+                delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(TrackedReindexingTask trackedReindexingTask, PollState state,
+                      BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        if (!trackedReindexingTask.isTracking()) {
+            return;
+        }
+        try {
+            taskApi.getTaskInfoAsync(trackedReindexingTask.getElasticTaskId(), ActionListener.wrap(
+                    response -> {
+                        if (response.isPresent()) {
+                            onTaskInfo(trackedReindexingTask, response.get(), state, onCompleted);
+                        } else {
+                            // e.g. the cluster was restarted before the task result was stored
+                            LOGGER.warn("Task {} is not known to the cluster", trackedReindexingTask.getElasticTaskId());
+                            completionExecutor.execute(() -> complete(trackedReindexingTask, "task not found",
+                                    onCompleted));
+                        }
+                    },
+                    e -> onPollFailure(trackedReindexingTask, e, state, onCompleted)));
+        } catch (RuntimeException e) {
+            onPollFailure(trackedReindexingTask, e, state, onCompleted);
+        }
+    }
+
+    private void onTaskInfo(TrackedReindexingTask trackedReindexingTask, GetTaskResponse response, PollState state,
+                            BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        Map<String, Object> status = ElasticTaskApi.getTaskStatus(response.getTaskInfo());
+        if (response.isCompleted()) {
+            String canceled = ReindexStatus.getString(status, "canceled");
+            completionExecutor.execute(() -> complete(trackedReindexingTask, canceled, onCompleted));
+            return;
+        }
+        List<?> slices = ReindexStatus.getSlices(status);
+        if (ReindexStatus.hasRunningSlices(slices)) {
+            // loading the child tasks blocks, so it is kept off the client threads
+            completionExecutor.execute(() -> {
+                try {
+                    updateSlicedProgress(trackedReindexingTask, slices);
+                } finally {
+                    schedulePoll(trackedReindexingTask, state, nextDelay(trackedReindexingTask.getProgress(), state),
+                            onCompleted);
+                }
+            });
+            return;
+        }
+        if (slices.isEmpty()) {
+            ReindexStatus.updateProgress(trackedReindexingTask.getProgress(), status);
+        } else {
+            ReindexStatus.updateSlicedProgress(trackedReindexingTask.getProgress(),
+                    ReindexStatus.mergeSliceStatuses(slices, List.of()));
+        }
+        schedulePoll(trackedReindexingTask, state, nextDelay(trackedReindexingTask.getProgress(), state), onCompleted);
+    }
+
+    private void updateSlicedProgress(TrackedReindexingTask trackedReindexingTask, List<?> slices) {
+        List<Map<String, Object>> childStatuses;
+        try {
+            childStatuses = taskApi.getChildTasks(trackedReindexingTask.getElasticTaskId()).stream()
+                    .map(ElasticTaskApi::getTaskStatus)
+                    .collect(Collectors.toList());
+        } catch (ElasticActionFailedException e) {
+            // the parent status alone would look like a stall, so the sample is skipped
+            LOGGER.warn("Could not load running slices of task {}", trackedReindexingTask.getElasticTaskId());
+            return;
+        }
+        ReindexStatus.updateSlicedProgress(trackedReindexingTask.getProgress(),
+                ReindexStatus.mergeSliceStatuses(slices, childStatuses));
+    }
+
+    private void onPollFailure(TrackedReindexingTask trackedReindexingTask, Exception e, PollState state,
+                               BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        LOGGER.warn("Error occurred while tracking task {}", trackedReindexingTask.getElasticTaskId(), e);
+        schedulePoll(trackedReindexingTask, state, Math.min(maxIntervalMs, state.delayMs * 2), onCompleted);
+    }
+
+    private long nextDelay(ReindexProgress progress, PollState state) {
+        long remainingMs = progress.getRemainingMs();
+        if (remainingMs < 0) {
+            return Math.min(maxIntervalMs, state.delayMs * 2);
+        }
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, remainingMs / 2));
+    }
+
+    private void complete(TrackedReindexingTask trackedReindexingTask, String canceled,
+                          BiConsumer<TrackedReindexingTask, String> onCompleted) {
+        complete(trackedReindexingTask, canceled, onCompleted, 1);
+    }
+
+    private void complete(TrackedReindexingTask trackedReindexingTask, String canceled,
+                          BiConsumer<TrackedReindexingTask, String> onCompleted, int attempt) {
+        try {
+            onCompleted.accept(trackedReindexingTask, canceled);
+        } catch (RuntimeException e) {
+            if (attempt >= MAX_COMPLETION_ATTEMPTS) {
+                LOGGER.error("Could not complete task {} after {} attempts, giving up",
+                        trackedReindexingTask.getElasticTaskId(), attempt, e);
+                fail(trackedReindexingTask, "failed: could not complete after " + attempt + " attempts ("
+                        + e.getMessage() + ")");
+                return;
+            }
+            LOGGER.warn("Error occurred while completing task {}, retrying in {} ms",
+                    trackedReindexingTask.getElasticTaskId(), maxIntervalMs, e);
+            pollingExecutor.schedule(() -> completionExecutor.execute(
+                    () -> complete(trackedReindexingTask, canceled, onCompleted, attempt + 1)),
+                    maxIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void fail(TrackedReindexingTask trackedReindexingTask, String reason) {
+        trackedReindexingTask.setCanceled(reason);
+        trackedReindexingTask.setTracking(false);
+        try {
+            reindexTaskJournal.removeTask(trackedReindexingTask);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not remove task {} from the journal", trackedReindexingTask.getElasticTaskId(), e);
+        }
+    }
+
+    private static String getCanceled(ClientReindexTask clientReindexTask) {
+        if (clientReindexTask.getCanceled() != null) {
+            return clientReindexTask.getCanceled();
+        }
+        if (clientReindexTask.getReport().hasFailures()) {
+            return "failed: " + clientReindexTask.getReport().getFailed() + " documents could not be indexed";
+        }
+        return null;
+    }
+
+    private static ThreadFactory namedThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class PollState {
+        private volatile long delayMs;
+    }
+}
@@ -0,0 +1,122 @@
+package com.lineate.elastic.api;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchAfterIteratorTest {
+    private static final Pattern SEARCH_AFTER = Pattern.compile("\"search_after\":\\[(\\d+)]");
+
+    @Test
+    void pagesThroughAllHits() throws IOException {
+        try (StubElasticServer server = new StubElasticServer(body -> page(body, 5, 2))) {
+            List<String> ids = new ArrayList<>();
+            SearchAfterIterator iterator = new SearchAfterIterator(server.getClient(), "product", sortedQuery(), 2);
+            iterator.forEachRemaining(hit -> ids.add(hit.getId()));
+
+            assertEquals(List.of("1", "2", "3", "4", "5"), ids);
+            assertEquals(3, server.getRequestBodies().size());
+            assertFalse(server.getRequestBodies().get(0).contains("search_after"));
+            assertTrue(server.getRequestBodies().get(2).contains("\"search_after\":[4]"));
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+    }
+
+    @Test
+    void stopsAfterEmptyPage() throws IOException {
+        try (StubElasticServer server = new StubElasticServer(body -> page(body, 4, 2))) {
+            List<String> ids = new ArrayList<>();
+            new SearchAfterIterator(server.getClient(), "product", sortedQuery(), 2)
+                    .forEachRemaining(hit -> ids.add(hit.getId()));
+
+            assertEquals(List.of("1", "2", "3", "4"), ids);
+            assertEquals(3, server.getRequestBodies().size());
+        }
+    }
+
+    @Test
+    void closeDropsPrefetchedPage() throws IOException, InterruptedException {
+        CountDownLatch secondPageRequested = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        try (StubElasticServer server = new StubElasticServer(body -> {
+            if (body.contains("search_after")) {
+                secondPageRequested.countDown();
+                await(released);
+            }
+            return page(body, 10, 2);
+        })) {
+            SearchAfterIterator iterator = new SearchAfterIterator(server.getClient(), "product", sortedQuery(), 2);
+            SearchHit first = iterator.next();
+            assertTrue(secondPageRequested.await(10, TimeUnit.SECONDS));
+
+            iterator.close();
+            released.countDown();
+
+            assertEquals("1", first.getId());
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    void failsOnShardFailures() throws IOException {
+        try (StubElasticServer server = new StubElasticServer(body -> "{\"took\":1,\"timed_out\":false,"
+                + "\"_shards\":{\"total\":2,\"successful\":1,\"skipped\":0,\"failed\":1,\"failures\":[{\"shard\":0,"
+                + "\"index\":\"product\",\"node\":\"node\",\"reason\":{\"type\":\"illegal_argument_exception\","
+                + "\"reason\":\"No mapping found for [gls_id] in order to sort on\"}}]},"
+                + "\"hits\":{\"max_score\":null,\"hits\":[]}}")) {
+            SearchAfterIterator iterator = new SearchAfterIterator(server.getClient(), "product", sortedQuery(), 2);
+
+            assertThrows(ElasticActionFailedException.class, iterator::hasNext);
+        }
+    }
+
+    private static SearchSourceBuilder sortedQuery() {
+        return new SearchSourceBuilder()
+                .query(QueryBuilders.matchAllQuery())
+                .sort("gls_id", SortOrder.ASC);
+    }
+
+    /**
+     * Returns documents with ids {@code 1..total} sorted by id, starting after the requested sort value.
+     */
+    private static String page(String requestBody, int total, int pageSize) {
+        Matcher matcher = SEARCH_AFTER.matcher(requestBody);
+        int after = matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+        StringBuilder hits = new StringBuilder();
+        for (int id = after + 1; id <= Math.min(total, after + pageSize); id++) {
+            if (hits.length() > 0) {
+                hits.append(',');
+            }
+            hits.append("{\"_index\":\"product\",\"_type\":\"_doc\",\"_id\":\"").append(id)
+                    .append("\",\"_score\":null,\"_source\":{\"gls_id\":").append(id)
+                    .append("},\"sort\":[").append(id).append("]}");
+        }
+        return "{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+                + "\"hits\":{\"max_score\":null,\"hits\":[" + hits + "]}}";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.lineate.elastic.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Local HTTP server answering client requests with canned JSON, the unit tests run without a cluster.
+ */
+public class StubElasticServer implements Closeable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-elastic");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final RestHighLevelClient client;
+
+    /**
+     * Starts the server.
+     *
+     * @param responder returns the response body for a request body
+     */
+    public StubElasticServer(Function<String, String> responder) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> respond(exchange, responder));
+        server.setExecutor(executor);
+        server.start();
+        client = new RestHighLevelClient(RestClient.builder(
+                new HttpHost("localhost", server.getAddress().getPort(), "http")));
+    }
+
+    public RestHighLevelClient getClient() {
+        return client;
+    }
+
+    public List<String> getRequestBodies() {
+        return requestBodies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, Function<String, String> responder) throws IOException {
+        String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requestBodies.add(requestBody);
+        byte[] response = responder.apply(requestBody).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+}
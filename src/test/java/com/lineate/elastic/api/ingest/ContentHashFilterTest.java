@@ -0,0 +1,109 @@
+package com.lineate.elastic.api.ingest;
+
+import com.lineate.elastic.api.StubElasticServer;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentHashFilterTest {
+    private static final String HASH_FIELD = "content_hash";
+    private static final String NOT_FOUND = "{\"docs\":[{\"_index\":\"product\",\"_type\":\"_doc\",\"_id\":\"1\","
+            + "\"found\":false},{\"_index\":\"product\",\"_type\":\"_doc\",\"_id\":\"2\",\"found\":false}]}";
+    private static final Pattern HASH = Pattern.compile("\"content_hash\":\"([0-9a-f]{32})\"");
+
+    @Test
+    void addsHashToNewDocuments() throws IOException {
+        try (StubElasticServer server = new StubElasticServer(body -> NOT_FOUND)) {
+            ContentHashFilter filter = new ContentHashFilter(server.getClient(), HASH_FIELD);
+
+            BulkRequest changed = filter.filter(chunk("{\"name\":\"wine\"}", "{ }"));
+
+            assertEquals(2, changed.numberOfActions());
+            assertTrue(source(changed, 0).matches("\\{\"name\":\"wine\",\"content_hash\":\"[0-9a-f]{32}\"}"),
+                    source(changed, 0));
+            assertTrue(source(changed, 1).matches("\\{ \"content_hash\":\"[0-9a-f]{32}\"}"), source(changed, 1));
+            assertEquals(1, server.getRequestBodies().size());
+            assertTrue(server.getRequestBodies().get(0).contains("\"includes\":[\"content_hash\"]"));
+        }
+    }
+
+    @Test
+    void dropsUnchangedDocuments() throws IOException {
+        String wineHash = hashOf("{\"name\":\"wine\"}");
+        String mget = "{\"docs\":[{\"_index\":\"product\",\"_type\":\"_doc\",\"_id\":\"1\",\"_version\":1,"
+                + "\"_seq_no\":0,\"_primary_term\":1,\"found\":true,\"_source\":{\"content_hash\":\"" + wineHash
+                + "\"}},{\"_index\":\"product\",\"_type\":\"_doc\",\"_id\":\"2\",\"_version\":1,\"_seq_no\":1,"
+                + "\"_primary_term\":1,\"found\":true,\"_source\":{\"content_hash\":\"" + wineHash + "\"}}]}";
+        try (StubElasticServer server = new StubElasticServer(body -> mget)) {
+            ContentHashFilter filter = new ContentHashFilter(server.getClient(), HASH_FIELD);
+
+            BulkRequest changed = filter.filter(chunk("{\"name\":\"wine\"}", "{\"name\":\"beer\"}"));
+
+            assertEquals(1, changed.numberOfActions());
+            assertEquals("2", ((IndexRequest) changed.requests().get(0)).id());
+        }
+    }
+
+    @Test
+    void replacesExistingHashField() throws IOException {
+        try (StubElasticServer server = new StubElasticServer(body -> NOT_FOUND)) {
+            ContentHashFilter filter = new ContentHashFilter(server.getClient(), HASH_FIELD);
+
+            BulkRequest changed = filter.filter(chunk("{\"name\":\"wine\",\"content_hash\":\"stale\"}",
+                    "{\"name\":\"wine\"}"));
+
+            assertEquals(2, changed.numberOfActions());
+            Matcher matcher = HASH.matcher(source(changed, 0));
+            assertTrue(matcher.find(), source(changed, 0));
+            assertFalse(matcher.find(), source(changed, 0));
+            assertEquals(source(changed, 1), source(changed, 0));
+        }
+    }
+
+    @Test
+    void passesThroughOtherRequests() throws IOException {
+        String notFound = "{\"docs\":[{\"_index\":\"product\",\"_type\":\"_doc\",\"_id\":\"2\","
+                + "\"found\":false}]}";
+        try (StubElasticServer server = new StubElasticServer(body -> notFound)) {
+            ContentHashFilter filter = new ContentHashFilter(server.getClient(), HASH_FIELD);
+
+            BulkRequest changed = filter.filter(new BulkRequest()
+                    .add(new DeleteRequest("product", "1"))
+                    .add(new IndexRequest("product").id("2").source("{\"name\":\"wine\"}", XContentType.JSON)));
+
+            assertEquals(2, changed.numberOfActions());
+            assertTrue(changed.requests().get(0) instanceof DeleteRequest);
+            assertTrue(source(changed, 1).contains("\"content_hash\""), source(changed, 1));
+        }
+    }
+
+    private static String hashOf(String source) throws IOException {
+        try (StubElasticServer server = new StubElasticServer(body -> NOT_FOUND)) {
+            BulkRequest changed = new ContentHashFilter(server.getClient(), HASH_FIELD)
+                    .filter(chunk(source, source));
+            Matcher matcher = HASH.matcher(source(changed, 0));
+            assertTrue(matcher.find());
+            return matcher.group(1);
+        }
+    }
+
+    private static BulkRequest chunk(String firstSource, String secondSource) {
+        return new BulkRequest()
+                .add(new IndexRequest("product").id("1").source(firstSource, XContentType.JSON))
+                .add(new IndexRequest("product").id("2").source(secondSource, XContentType.JSON));
+    }
+
+    private static String source(BulkRequest bulkRequest, int index) {
+        return ((IndexRequest) bulkRequest.requests().get(index)).source().utf8ToString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.lineate.elastic.api.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IngestCheckpointJournalTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void commitsLongestAcknowledgedPrefix() throws IOException {
+        Path file = tempDir.resolve("checkpoints.properties");
+        IngestCheckpointJournal journal = new IngestCheckpointJournal(file);
+        IngestCheckpointJournal.Progress progress = journal.track("products.json", 10);
+        long first = progress.register(100);
+        long second = progress.register(200);
+        long third = progress.register(300);
+
+        progress.acknowledge(second);
+        assertEquals(0, journal.getOffset("products.json"));
+
+        progress.acknowledge(first);
+        assertEquals(200, journal.getOffset("products.json"));
+
+        progress.acknowledge(third);
+        assertEquals(300, journal.getOffset("products.json"));
+        assertFalse(journal.isCompleted("products.json"));
+
+        journal.close();
+        assertEquals(300, new IngestCheckpointJournal(file).getOffset("products.json"));
+    }
+
+    @Test
+    void completesSourceWhenReadAndAcknowledged() throws IOException {
+        Path file = tempDir.resolve("checkpoints.properties");
+        IngestCheckpointJournal journal = new IngestCheckpointJournal(file);
+        IngestCheckpointJournal.Progress progress = journal.track("products.json", 0);
+        long chunk = progress.register(100);
+
+        progress.sourceRead();
+        assertFalse(journal.isCompleted("products.json"));
+
+        progress.acknowledge(chunk);
+        assertTrue(journal.isCompleted("products.json"));
+        assertEquals(0, journal.getOffset("products.json"));
+
+        journal.close();
+        IngestCheckpointJournal reloaded = new IngestCheckpointJournal(file);
+        assertTrue(reloaded.isCompleted("products.json"));
+    }
+
+    @Test
+    void lateCommitDoesNotReopenCompletedSource() throws IOException {
+        Path file = tempDir.resolve("checkpoints.properties");
+        IngestCheckpointJournal journal = new IngestCheckpointJournal(file);
+
+        journal.commit("products.json", 200);
+        journal.commit("products.json", 100);
+        assertEquals(200, journal.getOffset("products.json"));
+
+        journal.complete("products.json");
+        journal.commit("products.json", 300);
+        assertTrue(journal.isCompleted("products.json"));
+
+        journal.close();
+        assertTrue(new IngestCheckpointJournal(file).isCompleted("products.json"));
+    }
+
+    @Test
+    void startsUnknownSourceFromBeginning() throws IOException {
+        IngestCheckpointJournal journal = new IngestCheckpointJournal(tempDir.resolve("checkpoints.properties"));
+
+        assertEquals(0, journal.getOffset("products.json"));
+        assertFalse(journal.isCompleted("products.json"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.lineate.elastic.api.ingest;
+
+import com.lineate.elastic.exception.ElasticActionFailedException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NdJsonBulkReaderTest {
+
+    @Test
+    void readsActionAndSourcePairs() throws IOException {
+        String ndJson = "{\"index\":{\"_id\":\"1\",\"routing\":\"r1\"}}\n"
+                + "{\"name\":\"first\"}\r\n"
+                + "\n"
+                + "{\"create\":{\"_index\":\"ignored\",\"_id\":2}}\n"
+                + "{\"name\":\"second\"}";
+
+        List<IndexRequest> requests = readAll(ndJson, NdJsonBulkReader.DEFAULT_BLOCK_SIZE);
+
+        assertEquals(2, requests.size());
+        assertEquals("product", requests.get(0).index());
+        assertEquals("1", requests.get(0).id());
+        assertEquals("r1", requests.get(0).routing());
+        assertEquals(DocWriteRequest.OpType.INDEX, requests.get(0).opType());
+        assertEquals("{\"name\":\"first\"}", requests.get(0).source().utf8ToString());
+        assertEquals("2", requests.get(1).id());
+        assertEquals(DocWriteRequest.OpType.CREATE, requests.get(1).opType());
+        assertEquals("{\"name\":\"second\"}", requests.get(1).source().utf8ToString());
+    }
+
+    @Test
+    void splitsLinesAcrossBlocks() throws IOException {
+        StringBuilder ndJson = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            ndJson.append("{\"index\":{\"_id\":\"").append(i).append("\"}}\n")
+                    .append("{\"name\":\"").append("x".repeat(i * 3)).append("\"}\n");
+        }
+
+        // blocks shorter than most lines, so that lines are carried over and blocks grow
+        List<IndexRequest> requests = readAll(ndJson.toString(), 16);
+
+        assertEquals(50, requests.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(String.valueOf(i), requests.get(i).id());
+            assertEquals("{\"name\":\"" + "x".repeat(i * 3) + "\"}", requests.get(i).source().utf8ToString());
+        }
+    }
+
+    @Test
+    void reportsOffsetAfterLastPair() throws IOException {
+        String pair = "{\"index\":{\"_id\":\"1\"}}\n{\"a\":1}\n";
+        byte[] bytes = (pair + pair).getBytes(StandardCharsets.UTF_8);
+        try (NdJsonBulkReader reader = new NdJsonBulkReader(
+                Channels.newChannel(new ByteArrayInputStream(bytes)), "product", 8, 100)) {
+            reader.next();
+            assertEquals(100 + pair.length(), reader.getOffset());
+            reader.next();
+            assertEquals(100 + bytes.length, reader.getOffset());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void failsOnMissingSourceLine() {
+        assertThrows(ElasticActionFailedException.class,
+                () -> readAll("{\"index\":{\"_id\":\"1\"}}\n", NdJsonBulkReader.DEFAULT_BLOCK_SIZE));
+    }
+
+    @Test
+    void failsOnUnsupportedAction() {
+        assertThrows(ElasticActionFailedException.class,
+                () -> readAll("{\"delete\":{\"_id\":\"1\"}}\n{}\n", NdJsonBulkReader.DEFAULT_BLOCK_SIZE));
+    }
+
+    private static List<IndexRequest> readAll(String ndJson, int blockSize) throws IOException {
+        List<IndexRequest> requests = new ArrayList<>();
+        try (NdJsonBulkReader reader = new NdJsonBulkReader(Channels.newChannel(
+                new ByteArrayInputStream(ndJson.getBytes(StandardCharsets.UTF_8))), "product", blockSize, 0)) {
+            IndexRequest request;
+            while ((request = reader.next()) != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+}
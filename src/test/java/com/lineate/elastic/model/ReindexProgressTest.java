@@ -0,0 +1,76 @@
+package com.lineate.elastic.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReindexProgressTest {
+
+    @Test
+    void hasNoRateAfterFirstSample() {
+        ReindexProgress progress = new ReindexProgress();
+        progress.update(1000, 100, 1, 2, 3, 4);
+
+        assertEquals(1000, progress.getTotal());
+        assertEquals(100, progress.getProcessed());
+        assertEquals(2, progress.getBulkRetries());
+        assertEquals(3, progress.getSearchRetries());
+        assertEquals(4, progress.getThrottledMs());
+        assertEquals(-1, progress.getDocsPerSecond());
+        assertEquals(-1, progress.getBatchLatencyMs());
+        assertEquals(-1, progress.getRemainingMs());
+    }
+
+    @Test
+    void keepsRateOfSamplesLessThanSecondApart() {
+        ReindexProgress progress = new ReindexProgress();
+        progress.update(1000, 100, 1, 0, 0, 0);
+        progress.update(1000, 200, 2, 0, 0, 0);
+
+        assertEquals(200, progress.getProcessed());
+        assertEquals(-1, progress.getDocsPerSecond());
+    }
+
+    @Test
+    void computesRatesBetweenSamples() throws InterruptedException {
+        ReindexProgress progress = new ReindexProgress();
+        progress.update(10000, 0, 0, 0, 0, 0);
+        Thread.sleep(1100);
+        progress.update(10000, 1000, 10, 0, 0, 500);
+
+        double docsPerSecond = progress.getDocsPerSecond();
+        assertTrue(docsPerSecond > 0 && docsPerSecond < 1000, "rate " + docsPerSecond);
+        // throttled time is excluded from the batch latency
+        double batchLatencyMs = progress.getBatchLatencyMs();
+        assertTrue(batchLatencyMs >= 60, "latency " + batchLatencyMs);
+        long remainingMs = progress.getRemainingMs();
+        assertEquals((long) (9000 * 1000 / docsPerSecond), remainingMs);
+    }
+
+    @Test
+    void computesBatchLatencyWithinSlice() throws InterruptedException {
+        ReindexProgress progress = new ReindexProgress();
+        progress.update(10000, 0, 0, 0, 0, 0, 4);
+        Thread.sleep(1100);
+        progress.update(10000, 1000, 40, 0, 0, 0, 4);
+
+        // four slices ran ten batches each in parallel
+        double batchLatencyMs = progress.getBatchLatencyMs();
+        assertTrue(batchLatencyMs >= 110, "latency " + batchLatencyMs);
+    }
+
+    @Test
+    void stallsWhenProcessedDoesNotIncrease() throws InterruptedException {
+        ReindexProgress progress = new ReindexProgress();
+        progress.update(1000, 100, 1, 0, 0, 0);
+        Thread.sleep(50);
+        progress.update(1000, 100, 1, 0, 0, 0);
+
+        assertTrue(progress.getStalledMs() >= 50);
+
+        progress.update(1000, 101, 2, 0, 0, 0);
+
+        assertTrue(progress.getStalledMs() < 50);
+    }
+}
@@ -0,0 +1,173 @@
+package com.lineate.elastic.service;
+
+import com.lineate.elastic.api.ElasticIndexApi;
+import com.lineate.elastic.enums.IndexUpdateMode;
+import com.lineate.elastic.model.IndexChange;
+import com.lineate.elastic.model.IndexUpdatePlan;
+import org.elasticsearch.action.admin.indices.shrink.ResizeType;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndexUpdatePlannerTest {
+    private static final String INDEX = "product-1";
+    private static final String CONFIG = "product.json";
+    private static final Map<String, Object> NAME_FIELD = Map.of("type", "text",
+            "fields", Map.of("keyword", Map.of("type", "keyword", "ignore_above", 256)));
+    private static final Settings SETTINGS = Settings.builder()
+            .put("index.number_of_shards", 1)
+            .put("index.refresh_interval", "1s")
+            .put("index.analysis.analyzer.name_analyzer.tokenizer", "standard")
+            .build();
+
+    private ElasticIndexApi indexApi;
+    private IndexUpdatePlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        indexApi = mock(ElasticIndexApi.class);
+        planner = new IndexUpdatePlanner(indexApi);
+        when(indexApi.getMapping(INDEX)).thenReturn(sameMapping());
+        when(indexApi.getIndexSettings(INDEX)).thenReturn(SETTINGS);
+    }
+
+    @Test
+    void plansNothingForSameConfig() {
+        IndexUpdatePlan plan = plan(sameMapping(), SETTINGS);
+
+        assertEquals(IndexUpdateMode.NONE, plan.getMode());
+        assertTrue(plan.getChanges().isEmpty());
+    }
+
+    @Test
+    void addsNewFieldInPlace() {
+        IndexUpdatePlan plan = plan(mapping(Map.of("name", NAME_FIELD, "price", Map.of("type", "long"),
+                "description", Map.of("type", "text", "analyzer", "name_analyzer"),
+                "sold", Map.of("type", "long"))), SETTINGS);
+
+        assertEquals(IndexUpdateMode.IN_PLACE, plan.getMode());
+        assertEquals(Map.of("mappings.properties.sold", IndexUpdateMode.IN_PLACE), modes(plan));
+        assertEquals(mapping(Map.of("sold", Map.of("type", "long"))), plan.getMappingUpdate());
+    }
+
+    @Test
+    void updatesUpdatableParameterInPlace() {
+        IndexUpdatePlan plan = plan(mapping(Map.of("name", Map.of("type", "text", "fields",
+                Map.of("keyword", Map.of("type", "keyword", "ignore_above", 256))),
+                "price", Map.of("type", "long"),
+                "description", Map.of("type", "text", "analyzer", "name_analyzer",
+                        "search_analyzer", "standard"))), SETTINGS);
+
+        assertEquals(IndexUpdateMode.IN_PLACE, plan.getMode());
+        assertEquals(Map.of("mappings.properties.description.search_analyzer", IndexUpdateMode.IN_PLACE),
+                modes(plan));
+    }
+
+    @Test
+    void reindexesForNewMultiField() {
+        IndexUpdatePlan plan = plan(mapping(Map.of("name", Map.of("type", "text", "fields",
+                Map.of("keyword", Map.of("type", "keyword", "ignore_above", 256),
+                        "raw", Map.of("type", "keyword"))),
+                "price", Map.of("type", "long"),
+                "description", Map.of("type", "text", "analyzer", "name_analyzer"))), SETTINGS);
+
+        assertEquals(IndexUpdateMode.REINDEX, plan.getMode());
+        assertEquals(Map.of("mappings.properties.name.fields.raw", IndexUpdateMode.REINDEX), modes(plan));
+        assertNull(plan.getResizeType());
+    }
+
+    @Test
+    void reindexesForChangedFieldType() {
+        IndexUpdatePlan plan = plan(mapping(Map.of("name", NAME_FIELD, "price", Map.of("type", "double"),
+                "description", Map.of("type", "text", "analyzer", "name_analyzer"))), SETTINGS);
+
+        assertEquals(IndexUpdateMode.REINDEX, plan.getMode());
+        assertEquals(Map.of("mappings.properties.price.type", IndexUpdateMode.REINDEX), modes(plan));
+        assertTrue(plan.getMappingUpdate().isEmpty());
+    }
+
+    @Test
+    void classifiesSettings() {
+        IndexUpdatePlan plan = plan(sameMapping(), Settings.builder()
+                .put(SETTINGS)
+                .put("index.refresh_interval", "30s")
+                .put("index.codec", "best_compression")
+                .put("index.analysis.analyzer.search_analyzer.tokenizer", "whitespace")
+                .build());
+
+        assertEquals(IndexUpdateMode.CLOSE_OPEN, plan.getMode());
+        assertEquals(Map.of("settings.index.refresh_interval", IndexUpdateMode.IN_PLACE,
+                "settings.index.codec", IndexUpdateMode.CLOSE_OPEN,
+                "settings.index.analysis.analyzer.search_analyzer.tokenizer", IndexUpdateMode.CLOSE_OPEN),
+                modes(plan));
+        assertEquals("30s", plan.getDynamicSettings().get("index.refresh_interval"));
+        assertEquals("best_compression", plan.getStaticSettings().get("index.codec"));
+    }
+
+    @Test
+    void reindexesForChangedIndexTimeAnalyzer() {
+        IndexUpdatePlan plan = plan(sameMapping(), Settings.builder()
+                .put(SETTINGS)
+                .put("index.analysis.analyzer.name_analyzer.tokenizer", "whitespace")
+                .build());
+
+        assertEquals(IndexUpdateMode.REINDEX, plan.getMode());
+    }
+
+    @Test
+    void splitsForMultipleOfShards() {
+        IndexUpdatePlan plan = plan(sameMapping(), Settings.builder()
+                .put(SETTINGS)
+                .put("index.number_of_shards", 4)
+                .build());
+
+        assertEquals(IndexUpdateMode.RESIZE, plan.getMode());
+        assertEquals(ResizeType.SPLIT, plan.getResizeType());
+        assertEquals("4", plan.getResizeSettings().get("index.number_of_shards"));
+    }
+
+    @Test
+    void reindexesForUnreachableNumberOfShards() {
+        when(indexApi.getIndexSettings(INDEX)).thenReturn(Settings.builder()
+                .put(SETTINGS)
+                .put("index.number_of_shards", 3)
+                .build());
+
+        IndexUpdatePlan plan = plan(sameMapping(), Settings.builder()
+                .put(SETTINGS)
+                .put("index.number_of_shards", 2)
+                .build());
+
+        assertEquals(IndexUpdateMode.REINDEX, plan.getMode());
+        assertNull(plan.getResizeType());
+    }
+
+    private IndexUpdatePlan plan(Map<String, Object> configMapping, Settings configSettings) {
+        when(indexApi.getIndexConfigMapping(CONFIG)).thenReturn(configMapping);
+        when(indexApi.getIndexConfigSettings(CONFIG)).thenReturn(configSettings);
+        return planner.plan(INDEX, CONFIG, Settings.EMPTY);
+    }
+
+    private static Map<String, Object> sameMapping() {
+        return mapping(Map.of("name", NAME_FIELD, "price", Map.of("type", "long"),
+                "description", Map.of("type", "text", "analyzer", "name_analyzer")));
+    }
+
+    private static Map<String, Object> mapping(Map<String, Object> properties) {
+        return Map.of("properties", properties);
+    }
+
+    private static Map<String, IndexUpdateMode> modes(IndexUpdatePlan plan) {
+        return plan.getChanges().stream()
+                .collect(Collectors.toMap(IndexChange::getPath, IndexChange::getMode));
+    }
+}
@@ -0,0 +1,103 @@
+package com.lineate.elastic.service;
+
+import com.lineate.elastic.configuration.SearchProperties;
+import com.lineate.elastic.model.TrackedReindexingTask;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReindexTaskJournalTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recoversLiveTasksAndDeletions() throws IOException {
+        Path file = tempDir.resolve("journal.jsonl");
+        ReindexTaskJournal journal = new ReindexTaskJournal(properties(file));
+        TrackedReindexingTask product = task("product", "product-1", "product-2", "node:1");
+        TrackedReindexingTask contact = task("contact", "contact-1", "contact-2", "node:2");
+        journal.saveTask(product);
+        journal.saveTask(contact);
+        product.setWatermarkMs(42);
+        journal.saveTask(product);
+        journal.removeTask(contact);
+        journal.saveDeletion("product-0", 1000);
+        journal.saveDeletion("contact-0", 2000);
+        journal.removeDeletion("contact-0");
+
+        ReindexTaskJournal recovered = new ReindexTaskJournal(properties(file));
+
+        List<TrackedReindexingTask> tasks = recovered.getActiveTasks();
+        assertEquals(1, tasks.size());
+        assertEquals("product", tasks.get(0).getIndexAlias());
+        assertEquals("product-2", tasks.get(0).getDstIndexName());
+        assertEquals("node:1", tasks.get(0).getElasticTaskId());
+        assertEquals(42, tasks.get(0).getWatermarkMs());
+        assertTrue(tasks.get(0).isTracking());
+        assertEquals(Map.of("product-0", 1000L), recovered.getPendingDeletions());
+    }
+
+    @Test
+    void skipsTornLastLine() throws IOException {
+        Path file = tempDir.resolve("journal.jsonl");
+        new ReindexTaskJournal(properties(file)).saveTask(task("product", "product-1", "product-2", "node:1"));
+        Files.write(file, "{\"type\":\"task_done\",\"al".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        ReindexTaskJournal recovered = new ReindexTaskJournal(properties(file));
+
+        assertEquals(1, recovered.getActiveTasks().size());
+    }
+
+    @Test
+    void compactsToLiveRecords() throws IOException {
+        Path file = tempDir.resolve("journal.jsonl");
+        ReindexTaskJournal journal = new ReindexTaskJournal(properties(file));
+        TrackedReindexingTask product = task("product", "product-1", "product-2", "node:1");
+        for (int i = 0; i < 500; i++) {
+            product.setWatermarkMs(i);
+            journal.saveTask(product);
+        }
+        journal.saveDeletion("product-0", 1000);
+
+        // compacted whenever superseded records outnumber the live ones
+        assertTrue(Files.readAllLines(file).size() <= 101);
+
+        new ReindexTaskJournal(properties(file));
+
+        assertEquals(2, Files.readAllLines(file).size());
+        List<TrackedReindexingTask> tasks = new ReindexTaskJournal(properties(file)).getActiveTasks();
+        assertEquals(499, tasks.get(0).getWatermarkMs());
+    }
+
+    @Test
+    void keepsNothingWhenDisabled() throws IOException {
+        ReindexTaskJournal journal = new ReindexTaskJournal(new SearchProperties());
+        journal.saveTask(task("product", "product-1", "product-2", "node:1"));
+
+        assertEquals(1, journal.getActiveTasks().size());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static SearchProperties properties(Path file) {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.setReindexJournalFile(file.toString());
+        return searchProperties;
+    }
+
+    private static TrackedReindexingTask task(String alias, String srcIndex, String dstIndex, String taskId) {
+        return new TrackedReindexingTask(srcIndex, dstIndex, alias, taskId);
+    }
+}